@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+#
+# Generates synthetic corpora of increasing size and runs the fraction plugin over each of them,
+# recording wall-clock time and peak memory of the Maven build in benchmarks/target/corpus-results.csv.
+#
+# Usage: run-corpus.sh [size...]        (default: 10 100 1000)
+#
+# Environment:
+#   PLUGIN_VERSION  version of the installed thorntail-fraction-plugin (default 100-SNAPSHOT)
+#   MAVEN_ARGS      extra arguments for the corpus build, e.g. "-Prepository" or "-T 4"
+
+set -euo pipefail
+
+BENCHMARKS_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET="${BENCHMARKS_DIR}/target"
+PLUGIN_VERSION="${PLUGIN_VERSION:-100-SNAPSHOT}"
+SIZES=("$@")
+if [ ${#SIZES[@]} -eq 0 ]; then
+    SIZES=(10 100 1000)
+fi
+
+if [ ! -f "${TARGET}/benchmarks.jar" ]; then
+    mvn -B -q -f "${BENCHMARKS_DIR}/pom.xml" package
+fi
+
+RESULTS="${TARGET}/corpus-results.csv"
+if [ ! -f "${RESULTS}" ]; then
+    echo "fractions,wall_seconds,max_rss_kb,exit_code" > "${RESULTS}"
+fi
+
+for size in "${SIZES[@]}"; do
+    corpus="${TARGET}/corpus-${size}"
+    java -cp "${TARGET}/benchmarks.jar" org.wildfly.swarm.plugin.benchmarks.CorpusGenerator \
+        --fractions="${size}" --plugin-version="${PLUGIN_VERSION}" --output="${corpus}"
+
+    set +e
+    /usr/bin/time -v -o "${corpus}/time.txt" \
+        mvn -B -f "${corpus}/pom.xml" ${MAVEN_ARGS:-} package \
+            "io.thorntail:thorntail-fraction-plugin:${PLUGIN_VERSION}:metrics-report" > "${corpus}/build.log" 2>&1
+    status=$?
+    set -e
+
+    wall=$(awk -F': ' '/Elapsed \(wall clock\)/ { n = split($2, t, ":"); s = 0; for (i = 1; i <= n; i++) s = s * 60 + t[i]; print s }' "${corpus}/time.txt")
+    rss=$(awk -F': ' '/Maximum resident set size/ { print $2 }' "${corpus}/time.txt")
+    echo "${size},${wall},${rss},${status}" >> "${RESULTS}"
+    echo "corpus-${size}: ${wall}s, ${rss} KB max RSS, exit ${status} (log in ${corpus}/build.log)"
+done
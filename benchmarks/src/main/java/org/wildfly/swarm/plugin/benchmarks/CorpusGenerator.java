@@ -0,0 +1,603 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * Generates a self-contained Thorntail-like reactor for load testing the plugin without network access:
+ * <ul>
+ * <li>a root {@code thorntail} POM with a {@code module-rewrite.conf},</li>
+ * <li>a stub {@code spi} module with the annotations and types the plugin looks for,</li>
+ * <li>N fraction projects with a {@code module.conf}, a Fraction class with {@code @Configurable} fields,
+ * runtime and deployment packages and a detect package,</li>
+ * <li>a {@code bom} project running {@code generate-bom} and {@code fraction-list}, plus {@code build-repository}
+ * and {@code generate-licenses} in the {@code repository} and {@code license} profiles,</li>
+ * <li>a file-based Maven repository holding M feature-pack ZIPs and every third-party artifact referenced.</li>
+ * </ul>
+ * Usage: {@code CorpusGenerator --fractions=N [--feature-packs=M] [--modules-per-pack=K] [--seed=S]
+ * [--plugin-version=V] [--output=DIR]}
+ */
+public class CorpusGenerator {
+
+    public static final String GROUP_ID = "io.thorntail";
+
+    public static final String VERSION = "1.0.0.Final";
+
+    private static final String FEATURE_PACK_GROUP_ID = "org.wildfly.synthetic";
+
+    private static final String LIBRARY_GROUP_ID = "org.synthetic.libs";
+
+    private static final String[] PLATFORM_MODULES = {"javax.enterprise.api", "org.jboss.weld.se", "javax.api"};
+
+    public static void main(String... args) throws IOException {
+        int fractions = 10;
+        int featurePacks = -1;
+        int modulesPerPack = 150;
+        long seed = 42;
+        String pluginVersion = "100-SNAPSHOT";
+        Path output = null;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            switch (option[0]) {
+                case "--fractions":
+                    fractions = Integer.parseInt(option[1]);
+                    break;
+                case "--feature-packs":
+                    featurePacks = Integer.parseInt(option[1]);
+                    break;
+                case "--modules-per-pack":
+                    modulesPerPack = Integer.parseInt(option[1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(option[1]);
+                    break;
+                case "--plugin-version":
+                    pluginVersion = option[1];
+                    break;
+                case "--output":
+                    output = Paths.get(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+        if (featurePacks < 0) {
+            // roughly one feature pack per 50 fractions, like WildFly core/servlet/full for Thorntail
+            featurePacks = Math.max(2, fractions / 50);
+        }
+        if (output == null) {
+            output = Paths.get("target", "corpus-" + fractions);
+        }
+
+        new CorpusGenerator(seed, fractions, featurePacks, modulesPerPack, pluginVersion).generate(output);
+        System.out.println("Generated " + fractions + " fractions and " + featurePacks + " feature packs in " + output.toAbsolutePath());
+    }
+
+    public CorpusGenerator(long seed, int fractions, int featurePacks, int modulesPerPack, String pluginVersion) {
+        this.data = new SyntheticData(seed);
+        this.random = new Random(seed);
+        this.fractions = fractions;
+        this.featurePacks = featurePacks;
+        this.modulesPerPack = modulesPerPack;
+        this.pluginVersion = pluginVersion;
+    }
+
+    public void generate(Path root) throws IOException {
+        SyntheticData.delete(root);
+        Files.createDirectories(root);
+        this.repository = root.resolve("repository");
+
+        generateFeaturePacks();
+        generateLibraries();
+
+        List<String> modules = new ArrayList<>();
+        modules.add("spi");
+        generateSpi(root.resolve("spi"));
+
+        List<Fraction> generated = new ArrayList<>();
+        for (int i = 0; i < this.fractions; ++i) {
+            Fraction fraction = new Fraction(i, this.data.artifactId().split("-")[0]);
+            generateFraction(root.resolve("fractions").resolve(fraction.artifactId), fraction, generated);
+            generated.add(fraction);
+            modules.add("fractions/" + fraction.artifactId);
+        }
+
+        modules.add("bom");
+        generateBom(root.resolve("bom"));
+
+        write(root.resolve("pom.xml"), rootPom(modules));
+        write(root.resolve("module-rewrite.conf"), moduleRewriteConf());
+    }
+
+    // ----------------------------------------------------------------------
+    // repository
+    // ----------------------------------------------------------------------
+
+    private void generateFeaturePacks() throws IOException {
+        Path scratch = Files.createTempDirectory("corpus-feature-packs");
+        try {
+            for (int p = 0; p < this.featurePacks; ++p) {
+                List<String> modules = new ArrayList<>();
+                if (p == 0) {
+                    for (String platform : PLATFORM_MODULES) {
+                        modules.add(platform);
+                    }
+                }
+                for (String name : this.data.moduleNames(this.modulesPerPack)) {
+                    modules.add("fp" + p + "." + name);
+                }
+                this.featurePackModules.add(modules);
+
+                List<String> artifacts = new ArrayList<>();
+                Path zip = this.data.featurePack(scratch, "feature-pack-" + p, modules, artifacts);
+                install(FEATURE_PACK_GROUP_ID, "feature-pack-" + p, "zip", Files.readAllBytes(zip));
+                for (String gav : artifacts) {
+                    String[] parts = gav.split(":");
+                    installJar(parts[0], parts[1], parts[2], 1024 + this.random.nextInt(64 * 1024));
+                }
+            }
+        } finally {
+            SyntheticData.delete(scratch);
+        }
+    }
+
+    private void generateLibraries() throws IOException {
+        int count = Math.max(10, this.fractions / 2);
+        for (int i = 0; i < count; ++i) {
+            String artifactId = this.data.artifactId() + "-lib-" + i;
+            installJar(LIBRARY_GROUP_ID, artifactId, VERSION, 4096 + this.random.nextInt(256 * 1024));
+            this.libraries.add(artifactId);
+        }
+    }
+
+    private void installJar(String groupId, String artifactId, String version, int size) throws IOException {
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Implementation-Title", artifactId);
+        try (JarOutputStream out = new JarOutputStream(jar, manifest)) {
+            out.putNextEntry(new ZipEntry(groupId.replace('.', '/') + "/" + artifactId.replace('-', '_') + "/payload.bin"));
+            out.write(this.data.bytes(size));
+            out.closeEntry();
+        }
+        install(groupId, artifactId, version, "jar", jar.toByteArray());
+    }
+
+    private void install(String groupId, String artifactId, String type, byte[] content) throws IOException {
+        install(groupId, artifactId, VERSION, type, content);
+    }
+
+    private void install(String groupId, String artifactId, String version, String type, byte[] content) throws IOException {
+        Path dir = this.repository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+        String base = artifactId + "-" + version;
+        writeWithChecksum(dir.resolve(base + "." + type), content);
+        String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "  <groupId>" + groupId + "</groupId>\n"
+                + "  <artifactId>" + artifactId + "</artifactId>\n"
+                + "  <version>" + version + "</version>\n"
+                + "  <packaging>" + type + "</packaging>\n"
+                + "  <licenses>\n    <license>\n      <name>Apache License 2.0</name>\n"
+                + "      <url>http://www.apache.org/licenses/LICENSE-2.0</url>\n    </license>\n  </licenses>\n"
+                + "</project>\n";
+        writeWithChecksum(dir.resolve(base + ".pom"), pom.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeWithChecksum(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA1").digest(content)) {
+                hex.append(String.format("%02x", b));
+            }
+            Files.write(file.resolveSibling(file.getFileName() + ".sha1"), hex.toString().getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // spi
+    // ----------------------------------------------------------------------
+
+    private void generateSpi(Path dir) throws IOException {
+        write(dir.resolve("pom.xml"), modulePom("spi", "Stub SPI", "jar", "", ""));
+
+        Path src = dir.resolve("src/main/java/org/wildfly/swarm");
+        write(src.resolve("spi/api/Fraction.java"),
+              "package org.wildfly.swarm.spi.api;\n\n"
+                      + "public interface Fraction<T extends Fraction<T>> {\n}\n");
+        write(src.resolve("spi/api/Defaultable.java"),
+              "package org.wildfly.swarm.spi.api;\n\n"
+                      + "public class Defaultable<T> {\n"
+                      + "    private final T defaultValue;\n\n"
+                      + "    private T explicitValue;\n\n"
+                      + "    private Defaultable(T defaultValue) {\n        this.defaultValue = defaultValue;\n    }\n\n"
+                      + "    public static Defaultable<Integer> integer(int value) {\n        return new Defaultable<>(value);\n    }\n\n"
+                      + "    public static Defaultable<String> string(String value) {\n        return new Defaultable<>(value);\n    }\n\n"
+                      + "    public static Defaultable<Boolean> bool(boolean value) {\n        return new Defaultable<>(value);\n    }\n\n"
+                      + "    public T get() {\n        return this.explicitValue != null ? this.explicitValue : this.defaultValue;\n    }\n\n"
+                      + "    public void set(T value) {\n        this.explicitValue = value;\n    }\n"
+                      + "}\n");
+        write(src.resolve("spi/api/annotations/Configurable.java"),
+              "package org.wildfly.swarm.spi.api.annotations;\n\n"
+                      + "import java.lang.annotation.ElementType;\nimport java.lang.annotation.Retention;\n"
+                      + "import java.lang.annotation.RetentionPolicy;\nimport java.lang.annotation.Target;\n\n"
+                      + "@Retention(RetentionPolicy.RUNTIME)\n@Target({ElementType.TYPE, ElementType.FIELD})\n"
+                      + "public @interface Configurable {\n    String value() default \"\";\n\n    String simpleName() default \"\";\n}\n");
+        write(src.resolve("spi/meta/FractionDetector.java"),
+              "package org.wildfly.swarm.spi.meta;\n\n"
+                      + "public interface FractionDetector<T> {\n    String artifactId();\n\n    boolean detect(T element);\n}\n");
+        write(src.resolve("config/runtime/AttributeDocumentation.java"),
+              "package org.wildfly.swarm.config.runtime;\n\n"
+                      + "import java.lang.annotation.ElementType;\nimport java.lang.annotation.Retention;\n"
+                      + "import java.lang.annotation.RetentionPolicy;\nimport java.lang.annotation.Target;\n\n"
+                      + "@Retention(RetentionPolicy.RUNTIME)\n@Target(ElementType.FIELD)\n"
+                      + "public @interface AttributeDocumentation {\n    String value();\n}\n");
+
+        // the modules every generated runtime/api module depends on
+        Path modules = dir.resolve("src/main/resources/modules/org/wildfly/swarm");
+        write(modules.resolve("spi/runtime/module.xml"), this.data.moduleXml("org.wildfly.swarm.spi", new ArrayList<>(), new ArrayList<>())
+                .replace("name=\"org.wildfly.swarm.spi\"", "name=\"org.wildfly.swarm.spi\" slot=\"runtime\""));
+        write(modules.resolve("spi/main/module.xml"), this.data.moduleXml("org.wildfly.swarm.spi", new ArrayList<>(), new ArrayList<>()));
+        write(modules.resolve("container/runtime/module.xml"), this.data.moduleXml("org.wildfly.swarm.container", new ArrayList<>(), new ArrayList<>())
+                .replace("name=\"org.wildfly.swarm.container\"", "name=\"org.wildfly.swarm.container\" slot=\"runtime\""));
+        write(modules.resolve("container/main/module.xml"), this.data.moduleXml("org.wildfly.swarm.container", new ArrayList<>(), new ArrayList<>()));
+        write(modules.resolve("bootstrap/main/module.xml"), this.data.moduleXml("org.wildfly.swarm.bootstrap", new ArrayList<>(), new ArrayList<>()));
+    }
+
+    // ----------------------------------------------------------------------
+    // fractions
+    // ----------------------------------------------------------------------
+
+    private void generateFraction(Path dir, Fraction fraction, List<Fraction> earlier) throws IOException {
+        StringBuilder properties = new StringBuilder();
+        properties.append("    <swarm.fraction.stability>").append(STABILITY[this.random.nextInt(STABILITY.length)]).append("</swarm.fraction.stability>\n");
+        properties.append("    <swarm.fraction.tags>").append(fraction.word).append(',').append(this.data.artifactId().split("-")[0]).append("</swarm.fraction.tags>\n");
+        if (this.random.nextInt(10) == 0) {
+            properties.append("    <swarm.fraction.internal>true</swarm.fraction.internal>\n");
+        }
+
+        StringBuilder dependencies = new StringBuilder();
+        dependencies.append(dependency(GROUP_ID, "spi", "${project.version}", null, "compile"));
+
+        Set<Fraction> fractionDependencies = new LinkedHashSet<>();
+        for (int d = this.random.nextInt(3); d > 0 && !earlier.isEmpty(); --d) {
+            fractionDependencies.add(earlier.get(this.random.nextInt(earlier.size())));
+        }
+        for (Fraction dependency : fractionDependencies) {
+            dependencies.append(dependency(GROUP_ID, dependency.artifactId, "${project.version}", null, "compile"));
+        }
+        for (int l = 1 + this.random.nextInt(3); l > 0; --l) {
+            dependencies.append(dependency(LIBRARY_GROUP_ID, this.libraries.get(this.random.nextInt(this.libraries.size())), VERSION, null, "compile"));
+        }
+
+        int pack = this.random.nextInt(this.featurePacks);
+        Set<Integer> packs = new LinkedHashSet<>();
+        packs.add(0);
+        packs.add(pack);
+        for (int p : packs) {
+            dependencies.append(dependency(FEATURE_PACK_GROUP_ID, "feature-pack-" + p, VERSION, "zip", "provided"));
+        }
+
+        write(dir.resolve("pom.xml"), modulePom(fraction.artifactId, "Synthetic " + fraction.className, "jar", properties.toString(), dependencies.toString()));
+
+        // module.conf: platform modules, modules from the feature pack to fill in, and the modules of dependent fractions
+        StringBuilder moduleConf = new StringBuilder("# generated\n");
+        moduleConf.append("javax.api\n");
+        List<String> packModules = this.featurePackModules.get(pack);
+        for (int m = 1 + this.random.nextInt(4); m > 0; --m) {
+            moduleConf.append(packModules.get(this.random.nextInt(packModules.size()))).append('\n');
+        }
+        for (Fraction dependency : fractionDependencies) {
+            moduleConf.append(dependency.packageName).append('\n');
+        }
+        write(dir.resolve("module.conf"), moduleConf.toString());
+
+        Path src = dir.resolve("src/main/java").resolve(fraction.packageName.replace('.', '/'));
+        write(src.resolve(fraction.className + "Fraction.java"), fractionClass(fraction));
+        write(src.resolve("runtime").resolve(fraction.className + "Customizer.java"),
+              "package " + fraction.packageName + ".runtime;\n\n"
+                      + "import " + fraction.packageName + "." + fraction.className + "Fraction;\n\n"
+                      + "public class " + fraction.className + "Customizer {\n"
+                      + "    private " + fraction.className + "Fraction fraction;\n\n"
+                      + "    public void customize() {\n        this.fraction.toString();\n    }\n}\n");
+        write(src.resolve("deployment").resolve(fraction.className + "Archive.java"),
+              "package " + fraction.packageName + ".deployment;\n\n"
+                      + "public interface " + fraction.className + "Archive {\n    String name();\n}\n");
+        write(src.resolve("detect").resolve(fraction.className + "PackageDetector.java"),
+              "package " + fraction.packageName + ".detect;\n\n"
+                      + "import org.wildfly.swarm.spi.meta.FractionDetector;\n\n"
+                      + "public class " + fraction.className + "PackageDetector implements FractionDetector<String> {\n"
+                      + "    public String artifactId() {\n        return \"" + fraction.artifactId + "\";\n    }\n\n"
+                      + "    public boolean detect(String element) {\n        return element.startsWith(\"" + fraction.packageName + "\");\n    }\n}\n");
+
+        write(dir.resolve("README.adoc"), "= " + fraction.className + "\n\nSynthetic fraction generated for load testing.\n");
+    }
+
+    private String fractionClass(Fraction fraction) {
+        StringBuilder java = new StringBuilder();
+        java.append("package ").append(fraction.packageName).append(";\n\n");
+        java.append("import org.wildfly.swarm.config.runtime.AttributeDocumentation;\n");
+        java.append("import org.wildfly.swarm.spi.api.Defaultable;\n");
+        java.append("import org.wildfly.swarm.spi.api.Fraction;\n");
+        java.append("import org.wildfly.swarm.spi.api.annotations.Configurable;\n\n");
+        java.append("@Configurable(\"thorntail.").append(fraction.configName).append("\")\n");
+        java.append("public class ").append(fraction.className).append("Fraction implements Fraction<")
+                .append(fraction.className).append("Fraction> {\n");
+
+        Set<String> fields = new LinkedHashSet<>();
+        for (String name : this.data.javaIdentifiers(3 + this.random.nextInt(20))) {
+            if (!name.toUpperCase().equals(name)) {
+                fields.add(Character.toLowerCase(name.charAt(0)) + name.substring(1));
+            }
+        }
+        for (String field : fields) {
+            String key = "thorntail." + fraction.configName + "." + dashize(field);
+            java.append('\n');
+            java.append("    @AttributeDocumentation(\"Synthetic setting ").append(field).append("\")\n");
+            java.append("    @Configurable(\"").append(key).append("\")\n");
+            switch (this.random.nextInt(4)) {
+                case 0:
+                    java.append("    private Defaultable<Integer> ").append(field).append(" = Defaultable.integer(")
+                            .append(this.random.nextInt(1000)).append(");\n");
+                    break;
+                case 1:
+                    java.append("    private Defaultable<Boolean> ").append(field).append(" = Defaultable.bool(")
+                            .append(this.random.nextBoolean()).append(");\n");
+                    break;
+                case 2:
+                    java.append("    private String ").append(field).append(";\n");
+                    break;
+                default:
+                    java.append("    private Defaultable<String> ").append(field).append(" = Defaultable.string(\"")
+                            .append(fraction.word).append("\");\n");
+            }
+        }
+        java.append("}\n");
+        return java.toString();
+    }
+
+    private static String dashize(String camelCase) {
+        StringBuilder str = new StringBuilder();
+        for (char c : camelCase.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                str.append('-').append(Character.toLowerCase(c));
+            } else {
+                str.append(c);
+            }
+        }
+        return str.toString();
+    }
+
+    // ----------------------------------------------------------------------
+    // bom, root
+    // ----------------------------------------------------------------------
+
+    private void generateBom(Path dir) throws IOException {
+        String build = "  <build>\n    <plugins>\n      <plugin>\n"
+                + "        <groupId>io.thorntail</groupId>\n        <artifactId>thorntail-fraction-plugin</artifactId>\n"
+                + "        <executions>\n"
+                + "          <execution>\n            <id>generate-bom</id>\n            <phase>prepare-package</phase>\n"
+                + "            <goals>\n              <goal>generate-bom</goal>\n              <goal>fraction-list</goal>\n            </goals>\n"
+                + "            <configuration>\n              <template>${project.basedir}/bom-template.xml</template>\n"
+                + "              <stabilityIndex>*</stabilityIndex>\n            </configuration>\n"
+                + "          </execution>\n"
+                + "        </executions>\n      </plugin>\n    </plugins>\n  </build>\n\n"
+                + "  <profiles>\n"
+                + "    <profile>\n      <id>repository</id>\n      <build>\n        <plugins>\n          <plugin>\n"
+                + "            <groupId>io.thorntail</groupId>\n            <artifactId>thorntail-fraction-plugin</artifactId>\n"
+                + "            <executions>\n              <execution>\n                <id>build-repository</id>\n"
+                + "                <phase>package</phase>\n                <goals>\n                  <goal>build-repository</goal>\n"
+                + "                </goals>\n                <configuration>\n"
+                + "                  <template>${project.basedir}/repository-template.xml</template>\n"
+                + "                </configuration>\n              </execution>\n            </executions>\n"
+                + "          </plugin>\n        </plugins>\n      </build>\n    </profile>\n"
+                + "    <profile>\n      <id>license</id>\n      <build>\n        <plugins>\n          <plugin>\n"
+                + "            <groupId>io.thorntail</groupId>\n            <artifactId>thorntail-fraction-plugin</artifactId>\n"
+                + "            <executions>\n              <execution>\n                <id>license</id>\n"
+                + "                <phase>package</phase>\n                <goals>\n                  <goal>generate-licenses</goal>\n"
+                + "                </goals>\n              </execution>\n            </executions>\n"
+                + "          </plugin>\n        </plugins>\n      </build>\n    </profile>\n"
+                + "  </profiles>\n";
+        write(dir.resolve("pom.xml"), modulePom("bom", "Synthetic BOM", "pom", "", "").replace("</project>", build + "</project>"));
+
+        write(dir.resolve("bom-template.xml"),
+              "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                      + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                      + "  <modelVersion>4.0.0</modelVersion>\n"
+                      + "  <groupId>" + GROUP_ID + "</groupId>\n"
+                      + "  <artifactId>#{bom-artifactId}</artifactId>\n"
+                      + "  <version>" + VERSION + "</version>\n"
+                      + "  <name>#{bom-name}</name>\n"
+                      + "  <description>#{bom-description}</description>\n"
+                      + "  <packaging>pom</packaging>\n"
+                      + "  <properties>\n    <version.thorntail>" + VERSION + "</version.thorntail>\n  </properties>\n"
+                      + "  <dependencyManagement>\n    <dependencies>\n#{dependencies}\n    </dependencies>\n  </dependencyManagement>\n"
+                      + "</project>\n");
+
+        write(dir.resolve("repository-template.xml"),
+              "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                      + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                      + "  <modelVersion>4.0.0</modelVersion>\n"
+                      + "  <groupId>BOM_GROUPID</groupId>\n"
+                      + "  <artifactId>BOM_ARTIFACT-repository-project</artifactId>\n"
+                      + "  <version>SWARM_VERSION</version>\n"
+                      + "  <properties>\nPROPERTIES\n  </properties>\n"
+                      + repositories()
+                      + "  <dependencyManagement>\n    <dependencies>\nBOMS\n    </dependencies>\n  </dependencyManagement>\n"
+                      + "  <dependencies>\nFRACTIONS_FROM_BOM\n  </dependencies>\n"
+                      + "</project>\n");
+    }
+
+    private String rootPom(List<String> modules) {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n\n");
+        pom.append("  <groupId>").append(GROUP_ID).append("</groupId>\n");
+        pom.append("  <artifactId>thorntail</artifactId>\n");
+        pom.append("  <version>").append(VERSION).append("</version>\n");
+        pom.append("  <packaging>pom</packaging>\n\n");
+        pom.append("  <name>Synthetic Thorntail</name>\n");
+        pom.append("  <description>Generated by CorpusGenerator for load testing the fraction plugin</description>\n\n");
+        pom.append("  <properties>\n");
+        pom.append("    <maven.compiler.target>1.8</maven.compiler.target>\n");
+        pom.append("    <maven.compiler.source>1.8</maven.compiler.source>\n");
+        pom.append("    <project.build.sourceEncoding>UTF-8</project.build.sourceEncoding>\n");
+        pom.append("    <version.fraction-plugin>").append(this.pluginVersion).append("</version.fraction-plugin>\n");
+        pom.append("  </properties>\n\n");
+        pom.append("  <modules>\n");
+        for (String module : modules) {
+            pom.append("    <module>").append(module).append("</module>\n");
+        }
+        pom.append("  </modules>\n\n");
+        pom.append(repositories()).append('\n');
+        pom.append("  <build>\n    <pluginManagement>\n      <plugins>\n        <plugin>\n");
+        pom.append("          <groupId>io.thorntail</groupId>\n          <artifactId>thorntail-fraction-plugin</artifactId>\n");
+        pom.append("          <version>${version.fraction-plugin}</version>\n");
+        pom.append("        </plugin>\n      </plugins>\n    </pluginManagement>\n  </build>\n");
+        pom.append("</project>\n");
+        return pom.toString();
+    }
+
+    private String modulePom(String artifactId, String name, String packaging, String properties, String dependencies) {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n\n");
+        pom.append("  <parent>\n    <groupId>").append(GROUP_ID).append("</groupId>\n    <artifactId>thorntail</artifactId>\n");
+        pom.append("    <version>").append(VERSION).append("</version>\n");
+        pom.append("    <relativePath>").append(artifactId.equals("spi") || artifactId.equals("bom") ? "../pom.xml" : "../../pom.xml").append("</relativePath>\n");
+        pom.append("  </parent>\n\n");
+        pom.append("  <artifactId>").append(artifactId).append("</artifactId>\n");
+        pom.append("  <packaging>").append(packaging).append("</packaging>\n");
+        pom.append("  <name>").append(name).append("</name>\n");
+        pom.append("  <description>").append(name).append(" (generated)</description>\n\n");
+        if (!properties.isEmpty()) {
+            pom.append("  <properties>\n").append(properties).append("  </properties>\n\n");
+        }
+        if (!dependencies.isEmpty()) {
+            pom.append("  <dependencies>\n").append(dependencies).append("  </dependencies>\n\n");
+        }
+        if (packaging.equals("jar") && !artifactId.equals("spi")) {
+            pom.append("  <build>\n    <plugins>\n      <plugin>\n");
+            pom.append("        <groupId>io.thorntail</groupId>\n        <artifactId>thorntail-fraction-plugin</artifactId>\n");
+            pom.append("        <executions>\n          <execution>\n            <goals>\n              <goal>process</goal>\n");
+            pom.append("            </goals>\n          </execution>\n        </executions>\n");
+            pom.append("      </plugin>\n    </plugins>\n  </build>\n");
+        }
+        pom.append("</project>\n");
+        return pom.toString();
+    }
+
+    private String repositories() {
+        String url = this.repository.toAbsolutePath().toUri().toString();
+        return "  <repositories>\n    <repository>\n      <id>corpus</id>\n      <url>" + url + "</url>\n"
+                + "      <snapshots>\n        <enabled>false</enabled>\n      </snapshots>\n    </repository>\n  </repositories>\n";
+    }
+
+    private static String dependency(String groupId, String artifactId, String version, String type, String scope) {
+        return "    <dependency>\n"
+                + "      <groupId>" + groupId + "</groupId>\n"
+                + "      <artifactId>" + artifactId + "</artifactId>\n"
+                + "      <version>" + version + "</version>\n"
+                + (type != null ? "      <type>" + type + "</type>\n" : "")
+                + "      <scope>" + scope + "</scope>\n"
+                + "    </dependency>\n";
+    }
+
+    private String moduleRewriteConf() {
+        StringBuilder conf = new StringBuilder("# generated\n");
+        for (List<String> modules : this.featurePackModules) {
+            for (int i = PLATFORM_MODULES.length; i < modules.size(); i += 7) {
+                conf.append("module: ").append(modules.get(i)).append('\n');
+                conf.append("  optional: ").append(modules.get(this.random.nextInt(modules.size()))).append('\n');
+                conf.append('\n');
+            }
+        }
+        conf.append("module: ALL:ALL\n  replace: javax.api > javax.api:main\n");
+        return conf.toString();
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final String[] STABILITY = {"deprecated", "experimental", "unstable", "stable", "frozen", "locked"};
+
+    private static final class Fraction {
+        Fraction(int index, String word) {
+            this.word = word;
+            this.artifactId = word + "-" + index;
+            this.configName = word + index;
+            this.packageName = "org.wildfly.swarm." + this.configName;
+            this.className = Character.toUpperCase(word.charAt(0)) + word.substring(1) + index;
+        }
+
+        private final String word;
+
+        private final String artifactId;
+
+        private final String configName;
+
+        private final String packageName;
+
+        private final String className;
+    }
+
+    private final SyntheticData data;
+
+    private final Random random;
+
+    private final int fractions;
+
+    private final int featurePacks;
+
+    private final int modulesPerPack;
+
+    private final String pluginVersion;
+
+    private final List<List<String>> featurePackModules = new ArrayList<>();
+
+    private final List<String> libraries = new ArrayList<>();
+
+    private Path repository;
+}
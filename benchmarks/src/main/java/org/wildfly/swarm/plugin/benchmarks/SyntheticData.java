@@ -0,0 +1,379 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Deterministic generator of the inputs the plugin sees in a real Thorntail build: Maven coordinates, JBoss
+ * Modules names, {@code module.xml} files, feature-pack ZIPs, BOMs and compiled classes. The same seed always
+ * yields the same data, so results from different runs are comparable.
+ */
+public class SyntheticData {
+
+    private static final String[] GROUPS = {
+            "org.jboss", "org.jboss.as", "org.wildfly", "org.wildfly.core", "io.undertow", "org.hibernate",
+            "org.apache.activemq.artemis", "org.infinispan", "org.jboss.resteasy", "io.thorntail", "org.jgroups",
+            "org.eclipse.microprofile.config", "io.smallrye", "org.jboss.weld.se",
+    };
+
+    private static final String[] WORDS = {
+            "core", "common", "client", "server", "api", "spi", "jaxrs", "jpa", "jms", "security", "logging", "naming",
+            "transactions", "ejb", "web", "cdi", "bean", "validation", "messaging", "remoting", "management",
+            "controller", "subsystem", "deployment", "io", "xnio", "elytron", "datasources", "mail", "batch",
+    };
+
+    private static final String[] QUALIFIERS = {"Final", "SP1", "CR2", "redhat-00001", "SNAPSHOT"};
+
+    public static final String MODULES_PREFIX = "modules/system/layers/base/";
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public String groupId() {
+        return pick(GROUPS);
+    }
+
+    public String artifactId() {
+        int words = 1 + this.random.nextInt(3);
+        StringBuilder str = new StringBuilder();
+        for (int i = 0; i < words; ++i) {
+            if (i > 0) {
+                str.append('-');
+            }
+            str.append(pick(WORDS));
+        }
+        return str.toString();
+    }
+
+    public String version() {
+        return (1 + this.random.nextInt(12)) + "." + this.random.nextInt(10) + "." + this.random.nextInt(20) + "." + pick(QUALIFIERS);
+    }
+
+    /**
+     * Artifact specifiers as they appear in {@code <artifact name="..."/>} after feature-pack resolution: plain
+     * GAVs, GAVs with a classifier and versions given as {@code ${property}} expressions.
+     */
+    public List<String> moduleXmlArtifacts(int count) {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            String ga = groupId() + ":" + artifactId();
+            switch (this.random.nextInt(4)) {
+                case 0:
+                    result.add(ga + ":${version." + pick(WORDS) + "}");
+                    break;
+                case 1:
+                    result.add(ga + ":" + version() + ":" + pick(WORDS));
+                    break;
+                case 2:
+                    result.add(ga + ":${version." + pick(WORDS) + "}:" + pick(WORDS));
+                    break;
+                default:
+                    result.add(ga + ":" + version());
+            }
+        }
+        return result;
+    }
+
+    public List<String> moduleNames(int count) {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            result.add(groupId() + "." + artifactId().replace('-', '.') + "." + i);
+        }
+        return result;
+    }
+
+    /**
+     * Field and class names of the shapes found in fraction configuration classes: camel case, Pascal case,
+     * acronyms and mixed acronyms.
+     */
+    public List<String> javaIdentifiers(int count) {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            StringBuilder str = new StringBuilder();
+            int words = 1 + this.random.nextInt(4);
+            int shape = this.random.nextInt(8);
+            for (int w = 0; w < words; ++w) {
+                String word = pick(WORDS);
+                if (shape == 0) {
+                    str.append(word.toUpperCase());
+                } else if (w == 0 && shape < 4) {
+                    str.append(word);
+                } else if (shape == 4 && w == words - 1) {
+                    str.append(word.toUpperCase());
+                } else {
+                    str.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                }
+            }
+            result.add(str.toString());
+        }
+        return result;
+    }
+
+    public byte[] bytes(int size) {
+        byte[] data = new byte[size];
+        this.random.nextBytes(data);
+        return data;
+    }
+
+    public Path file(Path dir, String name, int size) throws IOException {
+        Files.createDirectories(dir);
+        return Files.write(dir.resolve(name), bytes(size));
+    }
+
+    public String moduleXml(String name, List<String> dependencies, List<String> artifacts) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<module xmlns=\"urn:jboss:module:1.5\" name=\"").append(name).append("\">\n");
+        xml.append("    <properties>\n        <property name=\"jboss.api\" value=\"private\"/>\n    </properties>\n");
+        xml.append("    <resources>\n");
+        for (String artifact : artifacts) {
+            xml.append("        <artifact name=\"").append(artifact).append("\"/>\n");
+        }
+        xml.append("    </resources>\n");
+        xml.append("    <dependencies>\n");
+        for (String dependency : dependencies) {
+            xml.append("        <module name=\"").append(dependency).append('"');
+            if (this.random.nextInt(5) == 0) {
+                xml.append(" optional=\"true\"");
+            }
+            if (this.random.nextInt(4) == 0) {
+                xml.append(" export=\"true\"");
+            }
+            xml.append("/>\n");
+        }
+        xml.append("    </dependencies>\n");
+        xml.append("</module>\n");
+        return xml.toString();
+    }
+
+    /**
+     * Writes a feature-pack ZIP providing {@code modules} with a {@code wildfly-feature-pack.xml}, one
+     * {@code module.xml} per module, a few non-module resources and, for a third of the modules, a resource JAR.
+     */
+    public Path featurePack(Path dir, String name, List<String> modules) throws IOException {
+        return featurePack(dir, name, modules, new ArrayList<>());
+    }
+
+    /**
+     * Like {@link #featurePack(Path, String, List)}, adding the {@code groupId:artifactId:version} of every
+     * artifact the feature pack references to {@code artifacts}.
+     */
+    public Path featurePack(Path dir, String name, List<String> modules, List<String> artifacts) throws IOException {
+        Files.createDirectories(dir);
+        Path zip = dir.resolve(name + ".zip");
+        List<String> referenced = new ArrayList<>();
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            for (int i = 0; i < modules.size(); ++i) {
+                String module = modules.get(i);
+                String root = MODULES_PREFIX + module.replace('.', '/') + "/main/";
+
+                List<String> moduleArtifacts = new ArrayList<>();
+                for (int a = this.random.nextInt(3); a > 0; --a) {
+                    String gav = groupId() + ":" + artifactId() + ":" + version();
+                    referenced.add(gav);
+                    moduleArtifacts.add("${" + gav.substring(0, gav.lastIndexOf(':')) + "}");
+                }
+                List<String> dependencies = new ArrayList<>();
+                for (int d = this.random.nextInt(8); d > 0 && i > 0; --d) {
+                    dependencies.add(modules.get(this.random.nextInt(i)));
+                }
+
+                put(out, root + "module.xml", moduleXml(module, dependencies, moduleArtifacts).getBytes(StandardCharsets.UTF_8));
+                if (i % 3 == 0) {
+                    put(out, root + "resources-" + i + ".jar", bytes(512 + this.random.nextInt(4096)));
+                }
+            }
+            for (int i = 0; i < modules.size(); ++i) {
+                put(out, "content/docs/schema/" + artifactId() + "-" + i + ".xsd", bytes(256));
+            }
+            put(out, "wildfly-feature-pack.xml", featurePackXml(referenced).getBytes(StandardCharsets.UTF_8));
+        }
+        artifacts.addAll(referenced);
+        return zip;
+    }
+
+    private static String featurePackXml(List<String> artifacts) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<feature-pack xmlns=\"urn:wildfly:feature-pack:1.1\">\n");
+        xml.append("    <artifact-versions>\n");
+        for (String gav : artifacts) {
+            String[] parts = gav.split(":");
+            xml.append("        <artifact groupId=\"").append(parts[0])
+                    .append("\" artifactId=\"").append(parts[1])
+                    .append("\" version=\"").append(parts[2]).append("\"/>\n");
+        }
+        xml.append("    </artifact-versions>\n");
+        xml.append("</feature-pack>\n");
+        return xml.toString();
+    }
+
+    /**
+     * Writes a {@code module-rewrite.conf} exercising the dependency and artifact rules on a subset of
+     * {@code modules}, forcing versions of some of {@code artifacts}.
+     */
+    public Path moduleRewriteConf(Path dir, List<String> modules, List<String> artifacts) throws IOException {
+        StringBuilder conf = new StringBuilder("# generated\n");
+        for (int i = 0; i < modules.size(); i += 2) {
+            conf.append("module: ").append(modules.get(i)).append('\n');
+            conf.append("  optional: ").append(pick(modules)).append('\n');
+            conf.append("  include: ").append(pick(modules)).append('\n');
+            conf.append("  export: ").append(pick(modules)).append('\n');
+            conf.append("  replace: ").append(pick(modules)).append(" > ").append(pick(modules)).append(":main\n");
+            if (!artifacts.isEmpty()) {
+                String[] gav = pick(artifacts).split(":");
+                conf.append("  force-artifact-version: ").append(gav[0]).append(':').append(gav[1]).append(":0 = ").append(version()).append('\n');
+            }
+            conf.append('\n');
+        }
+        conf.append("module: ALL:ALL\n");
+        conf.append("  replace: javax.api > java.se\n");
+        Files.createDirectories(dir);
+        return Files.write(dir.resolve("module-rewrite.conf"), conf.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a BOM with {@code dependencies} managed dependencies, some with exclusions, the way the Thorntail BOMs
+     * look.
+     */
+    public Path bom(Path dir, int dependencies) throws IOException {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+        pom.append("  <groupId>io.thorntail</groupId>\n  <artifactId>bom-all</artifactId>\n  <version>2.7.0.Final</version>\n");
+        pom.append("  <packaging>pom</packaging>\n");
+        pom.append("  <dependencyManagement>\n    <dependencies>\n");
+        for (int i = 0; i < dependencies; ++i) {
+            pom.append("      <dependency>\n");
+            pom.append("        <groupId>").append(groupId()).append("</groupId>\n");
+            pom.append("        <artifactId>").append(artifactId()).append('-').append(i).append("</artifactId>\n");
+            pom.append("        <version>").append(version()).append("</version>\n");
+            if (this.random.nextInt(6) == 0) {
+                pom.append("        <type>pom</type>\n        <scope>import</scope>\n");
+            }
+            if (this.random.nextInt(4) == 0) {
+                pom.append("        <exclusions>\n          <exclusion>\n");
+                pom.append("            <groupId>").append(groupId()).append("</groupId>\n");
+                pom.append("            <artifactId>").append(artifactId()).append("</artifactId>\n");
+                pom.append("          </exclusion>\n        </exclusions>\n");
+            }
+            pom.append("      </dependency>\n");
+        }
+        pom.append("    </dependencies>\n  </dependencyManagement>\n</project>\n");
+        Files.createDirectories(dir);
+        return Files.write(dir.resolve("pom.xml"), pom.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Copies the {@code .class} files under {@code packagePrefix} (e.g. {@code org/wildfly/swarm/plugin/}) from the
+     * JAR or directory {@code anchor} was loaded from into {@code target}, giving real bytecode to index.
+     */
+    public static Path copyClasses(Class<?> anchor, String packagePrefix, Path target) throws IOException {
+        Path source;
+        try {
+            source = Paths.get(anchor.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+
+        Files.createDirectories(target);
+        if (Files.isDirectory(source)) {
+            Path root = source.resolve(packagePrefix);
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(f -> f.toString().endsWith(".class")).forEach(f -> {
+                    Path dest = target.resolve(source.relativize(f).toString());
+                    try {
+                        Files.createDirectories(dest.getParent());
+                        Files.copy(f, dest, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } else {
+            try (JarFile jar = new JarFile(source.toFile())) {
+                for (JarEntry entry : Collections.list(jar.entries())) {
+                    if (entry.getName().startsWith(packagePrefix) && entry.getName().endsWith(".class")) {
+                        Path dest = target.resolve(entry.getName());
+                        Files.createDirectories(dest.getParent());
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            Files.copy(in, dest, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                    }
+                }
+            }
+        }
+        return target;
+    }
+
+    public static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void put(ZipOutputStream out, String name, byte[] content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.closeEntry();
+    }
+
+    private String pick(String[] values) {
+        return values[this.random.nextInt(values.length)];
+    }
+
+    private String pick(List<String> values) {
+        return values.get(this.random.nextInt(values.size()));
+    }
+
+    private final Random random;
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.swarm.plugin.benchmarks.SyntheticData;
+
+/**
+ * The feature-pack ZIP scan {@link ModuleFiller} repeats for every round of missing modules, including opening
+ * the ZIP's central directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FeaturePackScanBenchmark {
+
+    /**
+     * Number of modules in the feature pack; the WildFly servlet feature pack has a few hundred.
+     */
+    @Param({"100", "600"})
+    public int modules;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticData data = new SyntheticData(42);
+        List<String> moduleNames = data.moduleNames(this.modules);
+
+        this.dir = Files.createTempDirectory("feature-pack-bench");
+        this.featurePack = data.featurePack(this.dir, "feature-pack", moduleNames);
+
+        this.fillModules = new HashSet<>();
+        for (int i = 0; i < moduleNames.size(); i += 10) {
+            this.fillModules.add(moduleNames.get(i) + ":main");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticData.delete(this.dir);
+    }
+
+    @Benchmark
+    public Map<String, ZipEntry> scan() throws IOException {
+        Map<String, ZipEntry> moduleXmls = new HashMap<>();
+        try (ZipFile zip = new ZipFile(this.featurePack.toFile())) {
+            ModuleFiller.scanFeaturePack(zip, this.fillModules, moduleXmls);
+        }
+        return moduleXmls;
+    }
+
+    private Path dir;
+
+    private Path featurePack;
+
+    private Set<String> fillModules;
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.benchmarks.SyntheticData;
+
+/**
+ * Jandex indexing of a classes directory, using the plugin's own bytecode (a few hundred classes, comparable to
+ * a large fraction) as input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JandexerBenchmark {
+
+    @Setup
+    public void setup() throws IOException {
+        this.dir = Files.createTempDirectory("jandexer-bench");
+        SyntheticData.copyClasses(Jandexer.class, "org/wildfly/swarm/plugin/", this.dir);
+
+        this.meta = new FractionMetadata("io.thorntail", "bench", "1.0");
+        this.meta.setHasJavaCode(true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticData.delete(this.dir);
+    }
+
+    @Benchmark
+    public FractionMetadata apply() throws MojoExecutionException {
+        // a fresh class model per invocation, the index would be reused otherwise
+        return new Jandexer(new SystemStreamLog(), new ClassModel(this.dir)).apply(this.meta);
+    }
+
+    private Path dir;
+
+    private FractionMetadata meta;
+}
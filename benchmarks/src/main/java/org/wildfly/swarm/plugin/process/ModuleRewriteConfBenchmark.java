@@ -0,0 +1,111 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.project.MavenProject;
+import org.jboss.shrinkwrap.descriptor.api.jbossmodule13.ModuleDescriptor;
+import org.jboss.shrinkwrap.descriptor.impl.jbossmodule13.ModuleDescriptorImpl;
+import org.jboss.shrinkwrap.descriptor.spi.node.Node;
+import org.jboss.shrinkwrap.descriptor.spi.node.NodeImporter;
+import org.jboss.shrinkwrap.descriptor.spi.node.dom.XmlDomNodeImporterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wildfly.swarm.plugin.benchmarks.SyntheticData;
+
+/**
+ * Applying {@code module-rewrite.conf} rules to {@code module.xml} descriptors. Rewriting mutates the descriptor,
+ * so every invocation imports fresh ones; {@link #importOnly} gives the import cost to subtract.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ModuleRewriteConfBenchmark {
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticData data = new SyntheticData(42);
+        List<String> modules = data.moduleNames(200);
+        List<String> artifacts = data.moduleXmlArtifacts(400);
+
+        this.dir = Files.createTempDirectory("rewrite-bench");
+        data.moduleRewriteConf(this.dir, modules, artifacts);
+
+        MavenProject project = new MavenProject();
+        project.setFile(new File(this.dir.toFile(), "pom.xml"));
+        this.conf = new ModuleRewriteConf(project);
+
+        this.moduleXmls = new ArrayList<>();
+        for (int i = 0; i < modules.size(); ++i) {
+            List<String> dependencies = modules.subList(Math.max(0, i - 8), i);
+            List<String> resources = artifacts.subList(2 * i, 2 * i + 2);
+            this.moduleXmls.add(data.moduleXml(modules.get(i), dependencies, resources).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticData.delete(this.dir);
+    }
+
+    @Benchmark
+    public void importOnly(Blackhole bh) {
+        for (byte[] xml : this.moduleXmls) {
+            bh.consume(importDescriptor(xml));
+        }
+    }
+
+    @Benchmark
+    public void importAndRewrite(Blackhole bh) {
+        for (byte[] xml : this.moduleXmls) {
+            bh.consume(this.conf.rewrite(importDescriptor(xml)));
+        }
+    }
+
+    private static ModuleDescriptor importDescriptor(byte[] xml) {
+        NodeImporter importer = new XmlDomNodeImporterImpl();
+        Node node = importer.importAsNode(new ByteArrayInputStream(xml), true);
+        return new ModuleDescriptorImpl(null, node);
+    }
+
+    private Path dir;
+
+    private ModuleRewriteConf conf;
+
+    private List<byte[]> moduleXmls;
+}
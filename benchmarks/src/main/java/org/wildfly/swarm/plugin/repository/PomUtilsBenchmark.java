@@ -0,0 +1,82 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.swarm.plugin.benchmarks.SyntheticData;
+
+/**
+ * Extraction of managed dependencies from BOMs, as done by the repository builder, both as raw nodes and
+ * serialized back to XML strings with a skip list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PomUtilsBenchmark {
+
+    /**
+     * Managed dependencies in the BOM; bom-all has roughly a thousand.
+     */
+    @Param({"100", "1000"})
+    public int dependencies;
+
+    @Setup
+    public void setup() throws IOException {
+        this.dir = Files.createTempDirectory("pom-utils-bench");
+        this.bom = new SyntheticData(42).bom(this.dir, this.dependencies).toFile();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticData.delete(this.dir);
+    }
+
+    @Benchmark
+    public int extract() {
+        return new PomUtils().extract(this.bom, "//dependencyManagement/dependencies/*").raw().getLength();
+    }
+
+    @Benchmark
+    public String extractAsString() {
+        return new PomUtils().extract(this.bom, "//dependencyManagement/dependencies/*")
+                .skipping("<scope>import</scope>", "io.thorntail")
+                .asString();
+    }
+
+    private Path dir;
+
+    private File bom;
+}
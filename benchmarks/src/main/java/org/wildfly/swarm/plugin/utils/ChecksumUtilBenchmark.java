@@ -0,0 +1,75 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.swarm.plugin.benchmarks.SyntheticData;
+
+/**
+ * SHA1 of dependency artifacts, computed for every transitive dependency of every fraction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChecksumUtilBenchmark {
+
+    /**
+     * Typical sizes of a small API jar, an implementation jar and a large jar.
+     */
+    @Param({"16384", "1048576", "16777216"})
+    public int size;
+
+    @Setup
+    public void setup() throws IOException {
+        this.dir = Files.createTempDirectory("checksum-bench");
+        this.file = new SyntheticData(42).file(this.dir, "artifact.jar", this.size).toFile();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticData.delete(this.dir);
+    }
+
+    @Benchmark
+    public String calculateChecksum() throws IOException, NoSuchAlgorithmException {
+        return ChecksumUtil.calculateChecksum(this.file);
+    }
+
+    private Path dir;
+
+    private File file;
+}
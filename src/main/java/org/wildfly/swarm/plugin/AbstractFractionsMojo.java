@@ -15,7 +15,9 @@
  */
 package org.wildfly.swarm.plugin;
 
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -44,8 +46,15 @@ import org.wildfly.swarm.plugin.DependencyMetadata.Scope;
  */
 public abstract class AbstractFractionsMojo extends AbstractMojo {
 
+    /**
+     * A session with fewer projects than this is assumed not to be a full thorntail reactor build.
+     */
+    public static final int FULL_REACTOR_SIZE = 10;
+
     private static List<MavenProject> PROBABLE_FRACTIONS = null;
 
+    private static Set<FractionMetadata> SNAPSHOT_FRACTIONS = null;
+
     private List<MavenProject> probableFractionProjects() throws MojoExecutionException {
         if (PROBABLE_FRACTIONS == null) {
 
@@ -55,9 +64,15 @@ public abstract class AbstractFractionsMojo extends AbstractMojo {
                     .filter(this::isNotHowto)
                     .collect(Collectors.toList());
 
-            if (PROBABLE_FRACTIONS.size() < 10) {
-                getLog().warn("MavenSession does not contain all Fraction Projects, rebuilding project hierarchy directly");
-                buildProjects();
+            if (PROBABLE_FRACTIONS.size() < FULL_REACTOR_SIZE) {
+                Path snapshots = FractionSnapshots.directory(this.project);
+                SNAPSHOT_FRACTIONS = this.useFractionSnapshots ? FractionSnapshots.load(snapshots, getLog()) : null;
+                if (SNAPSHOT_FRACTIONS != null) {
+                    getLog().info("MavenSession does not contain all Fraction Projects, using fraction snapshots from " + snapshots);
+                } else {
+                    getLog().warn("MavenSession does not contain all Fraction Projects, rebuilding project hierarchy directly");
+                    buildProjects();
+                }
             }
         }
 
@@ -65,7 +80,11 @@ public abstract class AbstractFractionsMojo extends AbstractMojo {
     }
 
     protected synchronized Set<FractionMetadata> fractions() throws MojoExecutionException {
-        return probableFractionProjects()
+        List<MavenProject> projects = probableFractionProjects();
+        if (SNAPSHOT_FRACTIONS != null) {
+            return new HashSet<>(SNAPSHOT_FRACTIONS);
+        }
+        return projects
                 .stream()
                 .map(FractionRegistry.INSTANCE::of)
                 .filter(Objects::nonNull)
@@ -119,6 +138,13 @@ public abstract class AbstractFractionsMojo extends AbstractMojo {
         return new FractionMetadata(FractionRegistry.THORNTAIL_GROUP_ID, "arquillian", version, Scope.TEST.getValue());
     }
 
+    /**
+     * Whether aggregate goals run outside of a full reactor may use the fraction snapshots written by the
+     * {@code process} goal instead of rebuilding every project model.
+     */
+    @Parameter(property = "thorntail.fraction.snapshots", defaultValue = "true")
+    protected boolean useFractionSnapshots;
+
     @Inject
     public ProjectBuilder projectBuilder;
 
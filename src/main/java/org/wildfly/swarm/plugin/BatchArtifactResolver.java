@@ -0,0 +1,255 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.repository.LocalArtifactRequest;
+import org.eclipse.aether.repository.LocalArtifactResult;
+import org.eclipse.aether.repository.LocalRepositoryManager;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+
+/**
+ * Resolves a whole set of artifacts at once: everything already in the local repository is served from there, the
+ * rest is resolved with a single {@link ArtifactResolver#resolveArtifacts} call so the transfers run concurrently.
+ *
+ * <p>Release artifacts that the remote repositories do not have (typically {@code sources} JARs that were never
+ * published) are remembered in {@code <local repository>/.cache/thorntail-fraction-plugin/missing-artifacts.properties},
+ * per set of remote repositories, and not asked for again until the entry is older than
+ * {@code -Dthorntail.fraction.missing-artifacts.ttl} hours (24 by default, {@code 0} disables the cache).
+ * {@code -Dthorntail.fraction.missing-artifacts.clear} forgets every entry. Snapshots, artifacts that failed for any
+ * other reason and anything missing in offline mode are always retried.</p>
+ */
+public class BatchArtifactResolver {
+
+    static final String MISSING_ARTIFACTS_FILE = "missing-artifacts.properties";
+
+    static final String TTL_PROPERTY = "thorntail.fraction.missing-artifacts.ttl";
+
+    static final String CLEAR_PROPERTY = "thorntail.fraction.missing-artifacts.clear";
+
+    public BatchArtifactResolver(Log log, RepositorySystemSession session, ArtifactResolver resolver, List<RemoteRepository> remoteRepositories) {
+        this.log = log;
+        this.session = session;
+        this.resolver = resolver;
+        this.remoteRepositories = remoteRepositories;
+        this.missingFile = session.getLocalRepository().getBasedir().toPath()
+                .resolve(".cache").resolve("thorntail-fraction-plugin").resolve(MISSING_ARTIFACTS_FILE);
+        this.repositoriesKey = repositoriesKey(remoteRepositories);
+        this.ttlMillis = TimeUnit.HOURS.toMillis(Long.parseLong(configProperty(session, TTL_PROPERTY, "24").trim()));
+    }
+
+    /**
+     * @return the file of every artifact that could be resolved; artifacts that could not are absent from the map
+     */
+    public Map<Artifact, File> resolve(Collection<Artifact> artifacts) {
+        Map<Artifact, File> files = new HashMap<>();
+        long now = System.currentTimeMillis();
+        Properties missing = loadMissing();
+        boolean changed = clearOrExpire(missing, now);
+        boolean record = this.ttlMillis > 0 && !this.session.isOffline();
+
+        LocalRepositoryManager localRepository = this.session.getLocalRepositoryManager();
+        Map<Artifact, ArtifactRequest> requests = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            if (files.containsKey(artifact) || requests.containsKey(artifact)) {
+                continue;
+            }
+            if (!artifact.isSnapshot() && this.ttlMillis > 0 && missing.containsKey(missingKey(artifact))) {
+                this.log.debug("Skipping " + artifact + ", known to be missing from the remote repositories");
+                continue;
+            }
+            LocalArtifactResult local = localRepository.find(this.session, new LocalArtifactRequest(artifact, this.remoteRepositories, null));
+            if (local.isAvailable()) {
+                files.put(artifact, local.getFile());
+            } else {
+                requests.put(artifact, new ArtifactRequest(artifact, this.remoteRepositories, null));
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            this.log.info("Resolving " + requests.size() + " artifact(s) not in the local repository");
+            List<ArtifactResult> results;
+            try {
+                results = this.resolver.resolveArtifacts(this.session, new ArrayList<>(requests.values()));
+            } catch (ArtifactResolutionException e) {
+                // thrown if any artifact is missing, but the results of all the others are still there
+                results = e.getResults();
+            }
+            for (ArtifactResult result : results) {
+                Artifact requested = result.getRequest().getArtifact();
+                if (result.isResolved()) {
+                    files.put(requested, result.getArtifact().getFile());
+                } else if (record && !requested.isSnapshot() && isNotFound(result)) {
+                    // offline, anything not downloaded yet is "not found"; that says nothing about the remotes
+                    missing.setProperty(missingKey(requested), String.valueOf(now));
+                    changed = true;
+                }
+            }
+        }
+
+        if (changed) {
+            storeMissing(missing);
+        }
+        return files;
+    }
+
+    /**
+     * Drops every entry when asked to, or else the entries older than the TTL.
+     *
+     * @return whether an entry was dropped
+     */
+    private boolean clearOrExpire(Properties missing, long now) {
+        if (missing.isEmpty()) {
+            return false;
+        }
+        if (Boolean.parseBoolean(configProperty(this.session, CLEAR_PROPERTY, "false"))) {
+            this.log.info("Forgetting " + missing.size() + " artifact(s) recorded as missing");
+            missing.clear();
+            return true;
+        }
+        boolean expired = false;
+        for (String key : missing.stringPropertyNames()) {
+            if (!isRecent(missing.getProperty(key), now)) {
+                missing.remove(key);
+                expired = true;
+            }
+        }
+        return expired;
+    }
+
+    private boolean isRecent(String recordedAt, long now) {
+        try {
+            return now - Long.parseLong(recordedAt.trim()) < this.ttlMillis;
+        } catch (NumberFormatException e) {
+            // written by an older version, without a time
+            return false;
+        }
+    }
+
+    private String missingKey(Artifact artifact) {
+        return artifact + "@" + this.repositoriesKey;
+    }
+
+    /**
+     * @return a digest of the ids and URLs of {@code repositories}, in any order
+     */
+    static String repositoriesKey(List<RemoteRepository> repositories) {
+        List<String> ids = new ArrayList<>();
+        for (RemoteRepository repository : repositories) {
+            ids.add(repository.getId() + "=" + repository.getUrl());
+        }
+        Collections.sort(ids);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA1").digest(String.join("\n", ids).getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < 6; ++i) {
+                key.append(String.format("%02x", digest[i]));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA1 digest not available", e);
+        }
+    }
+
+    private static String configProperty(RepositorySystemSession session, String key, String defaultValue) {
+        // Maven copies the system and -D user properties into the session configuration
+        Object value = session.getConfigProperties().get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    private static boolean isNotFound(ArtifactResult result) {
+        if (result.getExceptions().isEmpty()) {
+            return false;
+        }
+        for (Exception exception : result.getExceptions()) {
+            if (!(exception instanceof ArtifactNotFoundException)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Properties loadMissing() {
+        Properties missing = new Properties();
+        if (Files.isRegularFile(this.missingFile)) {
+            try (InputStream in = Files.newInputStream(this.missingFile)) {
+                missing.load(in);
+            } catch (IOException e) {
+                this.log.debug("Unable to read " + this.missingFile, e);
+            }
+        }
+        return missing;
+    }
+
+    private void storeMissing(Properties missing) {
+        try {
+            // other builds may share the local repository, never expose a partially written file
+            Files.createDirectories(this.missingFile.getParent());
+            Path tmp = Files.createTempFile(this.missingFile.getParent(), MISSING_ARTIFACTS_FILE, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    missing.store(out, "Artifacts not available from the remote repositories");
+                }
+                Files.move(tmp, this.missingFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            this.log.debug("Unable to write " + this.missingFile, e);
+        }
+    }
+
+    private final Log log;
+
+    private final RepositorySystemSession session;
+
+    private final ArtifactResolver resolver;
+
+    private final List<RemoteRepository> remoteRepositories;
+
+    private final Path missingFile;
+
+    private final String repositoriesKey;
+
+    private final long ttlMillis;
+}
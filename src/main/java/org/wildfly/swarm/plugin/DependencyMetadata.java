@@ -11,15 +11,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class DependencyMetadata implements Comparable<DependencyMetadata> {
 
 
-    private final String groupId;
-
-    private final String artifactId;
-
-    private final String version;
-
-    private final String classifier;
-
-    private final String packaging;
+    private final Gav gav;
 
     private final Scope scope;
 
@@ -44,34 +36,35 @@ public class DependencyMetadata implements Comparable<DependencyMetadata> {
     }
 
     public DependencyMetadata(String groupId, String artifactId, String version, String classifier, String packaging, String scope) {
-        this.groupId = groupId;
-        this.artifactId = artifactId;
-        this.version = version;
-        this.classifier = classifier;
-        this.packaging = packaging;
+        this.gav = Gav.of(groupId, artifactId, version, classifier, packaging);
         this.scope = Scope.of(scope);
     }
 
     public String getGroupId() {
-        return this.groupId;
+        return this.gav.getGroupId();
     }
 
     public String getArtifactId() {
-        return this.artifactId;
+        return this.gav.getArtifactId();
     }
 
     public String getVersion() {
-        return this.version;
+        return this.gav.getVersion();
     }
 
     @JsonIgnore
     public String getClassifier() {
-        return this.classifier;
+        return this.gav.getClassifier();
     }
 
     @JsonIgnore
     public String getPackaging() {
-        return this.packaging;
+        return this.gav.getPackaging();
+    }
+
+    @JsonIgnore
+    public Gav getGav() {
+        return this.gav;
     }
 
     @JsonIgnore
@@ -102,9 +95,11 @@ public class DependencyMetadata implements Comparable<DependencyMetadata> {
 
     @Override
     public String toString() {
-        return this.groupId + ":" + this.artifactId + ":" + this.packaging + (this.classifier == null ? "" : ":" + this.classifier) + ":" + this.version;
+        return this.gav.toString();
     }
 
+    // identity follows toString(), which subclasses such as FractionMetadata override; for a plain dependency that
+    // is the Gav's precomputed string, so no string is built
     @Override
     public int compareTo(DependencyMetadata that) {
         return this.toString().compareTo(that.toString());
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The fraction dependency graph. Direct dependencies and transitive closures are computed once per fraction, in a
+ * depth-first (topological) pass that rejects cycles, and then served from memory.
+ */
+public class FractionGraph {
+
+    public FractionGraph(Function<DependencyMetadata, FractionMetadata> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * @return the direct fraction dependencies of {@code fraction}, sorted by coordinates
+     */
+    public List<FractionMetadata> dependencies(FractionMetadata fraction) {
+        return this.dependencies.computeIfAbsent(fraction, f -> Collections.unmodifiableList(new ArrayList<>(
+                f.getDependencies()
+                        .stream()
+                        .map(this.lookup)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(TreeSet::new)))));
+    }
+
+    /**
+     * @return every fraction {@code fraction} pulls in directly or transitively, sorted by coordinates
+     * @throws IllegalStateException if the fraction dependencies contain a cycle
+     */
+    public Set<FractionMetadata> transitiveDependencies(FractionMetadata fraction) {
+        return closure(fraction, new LinkedHashSet<>());
+    }
+
+    private Set<FractionMetadata> closure(FractionMetadata fraction, LinkedHashSet<FractionMetadata> path) {
+        Set<FractionMetadata> closure = this.closures.get(fraction);
+        if (closure != null) {
+            return closure;
+        }
+        if (!path.add(fraction)) {
+            List<String> cycle = path.stream().map(FractionMetadata::toString).collect(Collectors.toList());
+            cycle = cycle.subList(cycle.indexOf(fraction.toString()), cycle.size());
+            throw new IllegalStateException("Cycle in fraction dependencies: " + String.join(" -> ", cycle) + " -> " + fraction);
+        }
+
+        Set<FractionMetadata> result = new TreeSet<>();
+        for (FractionMetadata dependency : dependencies(fraction)) {
+            result.add(dependency);
+            result.addAll(closure(dependency, path));
+        }
+        path.remove(fraction);
+
+        closure = Collections.unmodifiableSet(result);
+        this.closures.put(fraction, closure);
+        return closure;
+    }
+
+    private final Function<DependencyMetadata, FractionMetadata> lookup;
+
+    private final Map<FractionMetadata, List<FractionMetadata>> dependencies = new HashMap<>();
+
+    private final Map<FractionMetadata, Set<FractionMetadata>> closures = new HashMap<>();
+}
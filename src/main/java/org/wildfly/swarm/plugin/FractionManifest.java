@@ -0,0 +1,246 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.wildfly.swarm.plugin.metrics.IoCounters;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Read-only view of a {@code META-INF/fraction-manifest.yaml} that only reads what is asked for.
+ *
+ * <p>Sequences are read by scanning the file for their key, which works for everything written by
+ * {@code FractionManifestWriter} as well as by the former SnakeYAML dump. Anything the scanner does not understand
+ * (flow sequences, quoted items, ...) is handed to SnakeYAML instead. The most recently used views are shared by
+ * the whole reactor and re-read once the file is modified. An empty manifest reads as having no sequences.</p>
+ */
+public final class FractionManifest {
+
+    public static final String PATH = "META-INF/fraction-manifest.yaml";
+
+    static final String TRANSITIVE_DEPENDENCIES = "transitive-dependencies";
+
+    static final String TRANSITIVE_FRACTION_DEPENDENCIES = "transitive-fraction-dependencies";
+
+    private FractionManifest(Path file, String entry, BasicFileAttributes attributes) {
+        this.file = file;
+        this.entry = entry;
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+        this.size = attributes.size();
+    }
+
+    public static FractionManifest of(Path file) throws IOException {
+        return cached(file, null);
+    }
+
+    /**
+     * @param artifact a fraction's JAR or, within the reactor, its output directory
+     * @return the manifest {@code artifact} was built with, or {@code null} if it has none, i.e. is not a fraction.
+     * JARs are remembered either way, so a library shared by many modules is opened once.
+     */
+    public static FractionManifest ofArtifact(Path artifact) throws IOException {
+        if (Files.isDirectory(artifact)) {
+            Path file = artifact.resolve(PATH);
+            return Files.exists(file) ? of(file) : null;
+        }
+        FractionManifest manifest = cached(artifact, PATH);
+        return manifest.entry.isEmpty() ? null : manifest;
+    }
+
+    private static FractionManifest cached(Path file, String entry) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        synchronized (CACHE) {
+            FractionManifest manifest = CACHE.get(key);
+            if (manifest != null && manifest.lastModified == attributes.lastModifiedTime().toMillis() && manifest.size == attributes.size()) {
+                return manifest;
+            }
+        }
+        if (entry != null) {
+            try (ZipFile zip = new ZipFile(key.toFile())) {
+                if (zip.getEntry(entry) == null) {
+                    // remembered as not a fraction
+                    entry = "";
+                }
+            }
+        }
+        FractionManifest manifest = new FractionManifest(key, entry, attributes);
+        synchronized (CACHE) {
+            CACHE.put(key, manifest);
+        }
+        return manifest;
+    }
+
+    /**
+     * @return the {@code transitive-dependencies} GAVs, empty if the manifest has none
+     */
+    public synchronized List<String> getTransitiveDependencies() throws IOException {
+        if (this.transitiveDependencies == null) {
+            this.transitiveDependencies = Collections.unmodifiableList(sequence(TRANSITIVE_DEPENDENCIES));
+        }
+        return this.transitiveDependencies;
+    }
+
+    /**
+     * @return the {@code transitive-fraction-dependencies} GAVs, empty if the manifest has none
+     */
+    public synchronized List<String> getTransitiveFractionDependencies() throws IOException {
+        if (this.transitiveFractionDependencies == null) {
+            this.transitiveFractionDependencies = Collections.unmodifiableList(sequence(TRANSITIVE_FRACTION_DEPENDENCIES));
+        }
+        return this.transitiveFractionDependencies;
+    }
+
+    private List<String> sequence(String key) throws IOException {
+        List<String> items;
+        try (BufferedReader reader = open()) {
+            items = scanSequence(reader, key);
+        }
+        if (items == null) {
+            try (Reader reader = open()) {
+                items = loadSequence(reader, key);
+            } catch (RuntimeException e) {
+                throw new IOException("Unable to parse " + this.file, e);
+            }
+        }
+        return items;
+    }
+
+    private BufferedReader open() throws IOException {
+        if (this.entry == null) {
+            IoCounters.recordRead(Files.size(this.file));
+            return Files.newBufferedReader(this.file, StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (ZipFile zip = new ZipFile(this.file.toFile())) {
+            ZipEntry zipEntry = zip.getEntry(this.entry);
+            if (zipEntry == null) {
+                throw new IOException(this.entry + " is missing from " + this.file);
+            }
+            try (InputStream in = zip.getInputStream(zipEntry)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    content.write(buffer, 0, read);
+                }
+            }
+        }
+        IoCounters.recordRead(content.size());
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content.toByteArray()), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the plain items of the top-level block sequence {@code key}, or {@code null} if only a full YAML
+     * parser can tell
+     */
+    static List<String> scanSequence(BufferedReader reader, String key) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith(key) || line.length() == key.length() || line.charAt(key.length()) != ':') {
+                continue;
+            }
+            String rest = line.substring(key.length() + 1).trim();
+            if (rest.equals("[]")) {
+                return new ArrayList<>();
+            }
+            if (!rest.isEmpty()) {
+                return null;
+            }
+
+            List<String> items = new ArrayList<>();
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                if (!trimmed.startsWith("- ")) {
+                    if (Character.isWhitespace(line.charAt(0))) {
+                        return null;
+                    }
+                    // next top-level key
+                    break;
+                }
+                String item = trimmed.substring(2).trim();
+                if (item.isEmpty() || "\"'[{&*!|>%@`".indexOf(item.charAt(0)) >= 0 || item.contains(" #")) {
+                    return null;
+                }
+                items.add(item);
+            }
+            return items;
+        }
+        return new ArrayList<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> loadSequence(Reader reader, String key) {
+        Object document = new Yaml().load(reader);
+        if (!(document instanceof Map)) {
+            return new ArrayList<>();
+        }
+        Object value = ((Map<String, Object>) document).get(key);
+        List<String> items = new ArrayList<>();
+        if (value instanceof List) {
+            ((List<Object>) value).forEach(item -> items.add(String.valueOf(item)));
+        }
+        return items;
+    }
+
+    /**
+     * Enough for every fraction of a full reactor; least recently used views are dropped beyond that.
+     */
+    static final int MAX_CACHED = 512;
+
+    private static final Map<Path, FractionManifest> CACHE = new LinkedHashMap<Path, FractionManifest>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, FractionManifest> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private final Path file;
+
+    /**
+     * The manifest's entry in the archive {@link #file}, empty if the archive has none, or {@code null} if
+     * {@link #file} is the manifest itself.
+     */
+    private final String entry;
+
+    private final long lastModified;
+
+    private final long size;
+
+    private List<String> transitiveDependencies;
+
+    private List<String> transitiveFractionDependencies;
+}
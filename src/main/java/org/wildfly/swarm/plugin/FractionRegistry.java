@@ -1,8 +1,8 @@
 package org.wildfly.swarm.plugin;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -16,10 +16,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
-import org.apache.maven.artifact.Artifact;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.project.MavenProject;
-import org.yaml.snakeyaml.Yaml;
 
 /**
  * @author Bob McWhirter
@@ -39,13 +37,13 @@ public class FractionRegistry {
 
     private static final String FRACTION_BOOTSTRAP_PROPERTY = "swarm.fraction.bootstrap";
 
-    private static final String FRACTION_SCOPE_PROPERTY_NAME = "swarm.fraction.scope";
+    static final String FRACTION_SCOPE_PROPERTY_NAME = "swarm.fraction.scope";
 
-    private static final String BOM_PROPERTY = "swarm.bom";
+    static final String BOM_PROPERTY = "swarm.bom";
 
-    private Map<Key, FractionMetadata> fractionRegistry = new HashMap<>();
+    private Map<Gav, FractionMetadata> fractionRegistry = new HashMap<>();
 
-    private Map<Key, DependencyMetadata> dependencyRegistry = new HashMap<>();
+    private Map<Gav, DependencyMetadata> dependencyRegistry = new HashMap<>();
 
     public static final FractionRegistry INSTANCE = new FractionRegistry();
 
@@ -56,8 +54,7 @@ public class FractionRegistry {
     }
 
     public FractionMetadata of(DependencyMetadata dependency) {
-        Key key = Key.of(dependency);
-        return fractionRegistry.get(key);
+        return fractionRegistry.get(dependency.getGav());
     }
 
     public FractionMetadata of(MavenProject project) {
@@ -67,7 +64,7 @@ public class FractionRegistry {
         if (project.getGroupId().equals(THORNTAIL_GROUP_ID) && project.getArtifactId().equals("bootstrap")) {
             return null;
         }
-        Key key = Key.of(project);
+        Gav key = gavOf(project);
         if (this.fractionRegistry.containsKey(key)) {
             return this.fractionRegistry.get(key);
         }
@@ -120,17 +117,12 @@ public class FractionRegistry {
             }
             Path manifest = Paths.get(project.getBasedir().getAbsolutePath(), "target", "classes", "META-INF", "fraction-manifest.yaml");
             if (Files.exists(manifest)) {
-                Yaml yaml = new Yaml();
-                try (FileReader reader = new FileReader(manifest.toFile())) {
-                    Map<String, ?> result = (Map<String, ?>) yaml.load(reader);
-                    List<String> transitiveDeps = (List<String>) result.get("transitive-dependencies");
-                    if (transitiveDeps != null) {
-                        for (String each : transitiveDeps) {
-                            meta.addTransitiveDependency(DependencyMetadata.fromString(each));
-                        }
+                try {
+                    for (String each : FractionManifest.of(manifest).getTransitiveDependencies()) {
+                        meta.addTransitiveDependency(DependencyMetadata.fromString(each));
                     }
                 } catch (IOException e) {
-                    e.printStackTrace();
+                    throw new UncheckedIOException("Unable to read the transitive dependencies of " + meta + " from " + manifest, e);
                 }
             }
         }
@@ -157,7 +149,7 @@ public class FractionRegistry {
                 .stream()
                 .filter(d -> d.getScope().equals("compile"))
                 .forEach(d -> {
-                    Key key = Key.of(d);
+                    Gav key = gavOf(d);
 
                     DependencyMetadata depMeta = this.dependencyRegistry.get(key);
                     if (depMeta == null) {
@@ -180,19 +172,20 @@ public class FractionRegistry {
         if (Files.exists(src)) {
             try {
                 Files.walkFileTree(src, new SimpleFileVisitor<Path>() {
-                    boolean insideDetectPackage = false;
+                    // the outermost detect package being visited, sub-packages included
+                    Path detectPackage;
 
                     @Override
                     public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                        if (dir.endsWith("detect")) {
-                            insideDetectPackage = true;
+                        if (detectPackage == null && dir.endsWith("detect")) {
+                            detectPackage = dir;
                         }
                         return FileVisitResult.CONTINUE;
                     }
 
                     @Override
                     public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                        if (insideDetectPackage) {
+                        if (detectPackage != null) {
                             meta.addDetectorClass(src.relativize(file), file);
                         }
                         return super.visitFile(file, attrs);
@@ -200,8 +193,8 @@ public class FractionRegistry {
 
                     @Override
                     public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-                        if (insideDetectPackage) {
-                            return FileVisitResult.TERMINATE;
+                        if (dir.equals(detectPackage)) {
+                            detectPackage = null;
                         }
                         return super.postVisitDirectory(dir, exc);
                     }
@@ -298,61 +291,22 @@ public class FractionRegistry {
         return this.bomInclusions;
     }
 
-    private static class Key {
-        private final String groupId;
-
-        private final String artifactId;
-
-        private final String version;
-
-        private final String classifier;
-
-        private final String packaging;
-
-
-        Key(String groupId, String artifactId, String version, String classifier, String packaging) {
-            this.groupId = groupId;
-            this.artifactId = artifactId;
-            this.version = version;
-            this.classifier = classifier;
-            this.packaging = packaging;
-        }
-
-        String compositeKey() {
-            return this.groupId + ":" + this.artifactId + ":" + this.version + ":" + this.classifier + ":" + this.packaging;
-        }
-
-        @Override
-        public int hashCode() {
-            return compositeKey().hashCode();
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            return obj instanceof Key && compositeKey().equals(((Key) obj).compositeKey());
-        }
-
-        @Override
-        public String toString() {
-            return compositeKey();
-        }
-
-        public static Key of(MavenProject project) {
-            return new Key(project.getGroupId(), project.getArtifactId(), project.getVersion(), null, project.getPackaging());
-        }
-
-        public static Key of(Artifact artifact) {
-            return new Key(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact.getClassifier(), artifact.getType());
-        }
+    void register(Gav key, FractionMetadata meta) {
+        this.fractionRegistry.put(key, meta);
+    }
 
-        public static Key of(DependencyMetadata dependency) {
-            return new Key(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), dependency.getClassifier(), dependency.getPackaging());
+    void addBomInclusion(DependencyMetadata dependency) {
+        if (!this.bomInclusions.contains(dependency)) {
+            this.bomInclusions.add(dependency);
         }
+    }
 
-        public static Key of(Dependency dependency) {
-            return new Key(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), dependency.getClassifier(), dependency.getType());
-        }
+    private static Gav gavOf(MavenProject project) {
+        return Gav.of(project.getGroupId(), project.getArtifactId(), project.getVersion(), null, project.getPackaging());
+    }
 
+    private static Gav gavOf(Dependency dependency) {
+        return Gav.of(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), dependency.getClassifier(), dependency.getType());
     }
 
 }
@@ -0,0 +1,410 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+/**
+ * Compact JSON snapshots of the metadata {@link FractionRegistry} computes for each fraction, written by the
+ * {@code process} goal into {@code <thorntail root>/target/fraction-snapshots/}.
+ *
+ * <p>Aggregate goals run outside of a full reactor ({@code fraction-list}, {@code generate-bom}, ...) load these
+ * instead of rebuilding and resolving every project model. A snapshot set is only used if it is complete and nothing
+ * {@link FractionRegistry} reads to build the metadata of a project changed since: its POM, parent POMs and imported
+ * BOMs, its {@code module.conf}, its fraction manifest and the files of its source directory. Otherwise callers fall
+ * back to rebuilding.</p>
+ */
+public final class FractionSnapshots {
+
+    public static final String DIRECTORY_NAME = "fraction-snapshots";
+
+    static final String INDEX_FILE_NAME = "reactor.json";
+
+    private static final String PLUGIN_ARTIFACT_ID = "thorntail-fraction-plugin";
+
+    private static final String PROCESS_GOAL = "process";
+
+    private static final String GROUP_ID = "groupId";
+
+    private static final String ARTIFACT_ID = "artifactId";
+
+    private static final String VERSION = "version";
+
+    private FractionSnapshots() {
+    }
+
+    /**
+     * @return the snapshot directory of the thorntail tree {@code project} belongs to, or {@code null} if the tree
+     * root cannot be found
+     */
+    public static Path directory(MavenProject project) {
+        MavenProject current = project;
+        while (current != null) {
+            if (current.getArtifactId().equals("thorntail") && current.getFile() != null) {
+                return Paths.get(current.getBasedir().getAbsolutePath(), "target", DIRECTORY_NAME);
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    /**
+     * @return the last of {@code projects} running the {@code process} goal, which is the one to write the index, so
+     * that a reactor writes it once
+     */
+    public static MavenProject lastProcessed(List<MavenProject> projects) {
+        for (int i = projects.size() - 1; i >= 0; --i) {
+            if (runsProcess(projects.get(i))) {
+                return projects.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records the projects of a full reactor and the BOM inclusions among them. Projects not running the
+     * {@code process} goal get their snapshot here, built from the reactor model as a live build would.
+     */
+    public static void writeIndex(Path dir, List<MavenProject> projects, RepositorySystemSession session) throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (MavenProject project : projects) {
+            // same selection as AbstractFractionsMojo
+            if (project.getArtifactId().contains("arquillian") || project.getArtifactId().contains("howto")) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put(GROUP_ID, project.getGroupId());
+            entry.put(ARTIFACT_ID, project.getArtifactId());
+            entry.put(VERSION, project.getVersion());
+            if (project.getProperties().getProperty(FractionRegistry.BOM_PROPERTY) != null) {
+                entry.put("bomScope", project.getProperties().getProperty(FractionRegistry.FRACTION_SCOPE_PROPERTY_NAME));
+                entry.put("bom", true);
+            }
+            entries.add(entry);
+            if (!runsProcess(project)) {
+                write(dir, project, FractionRegistry.INSTANCE.of(project), session);
+            }
+        }
+        write(dir.resolve(INDEX_FILE_NAME), entries);
+    }
+
+    /**
+     * Writes the snapshot of {@code project}; {@code meta} is {@code null} if the project turned out not to be a
+     * fraction. {@code session} locates imported BOMs in the local repository; without it they are not tracked.
+     */
+    public static void write(Path dir, MavenProject project, FractionMetadata meta, RepositorySystemSession session) throws IOException {
+        List<String> inputs = inputs(project, session);
+        String sources = project.getBuild() == null ? null : project.getBuild().getSourceDirectory();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("inputs", inputs);
+        snapshot.put("sources", sources);
+        snapshot.put("fingerprint", fingerprint(inputs, sources, new HashMap<>()));
+        snapshot.put("fraction", meta != null);
+        if (meta != null) {
+            snapshot.put(GROUP_ID, meta.getGroupId());
+            snapshot.put(ARTIFACT_ID, meta.getArtifactId());
+            snapshot.put(VERSION, meta.getVersion());
+            snapshot.put("packaging", project.getPackaging());
+            snapshot.put("scope", meta.getScope());
+            snapshot.put("name", meta.getName());
+            snapshot.put("description", meta.getDescription());
+            snapshot.put("tags", meta.getTags());
+            snapshot.put("internal", meta.isInternal());
+            snapshot.put("bootstrap", meta.getBootstrap());
+            snapshot.put("stability", meta.getStabilityIndex().name());
+            snapshot.put("moduleConf", toString(meta.getModuleConf()));
+            snapshot.put("hasJavaCode", meta.hasJavaCode());
+            snapshot.put("javaFraction", toString(meta.getJavaFraction()));
+            snapshot.put("baseModulePath", toString(meta.getBaseModulePath()));
+            snapshot.put("dependencies", dependencies(meta.getDependencies()));
+            snapshot.put("transitiveDependencies", dependencies(meta.getTransitiveDependencies()));
+            Map<String, String> detectors = new TreeMap<>();
+            meta.getDetectorClasses().forEach((relative, full) -> detectors.put(relative.toString(), full.toString()));
+            snapshot.put("detectorClasses", detectors);
+        }
+        write(dir.resolve(fileName(project.getGroupId(), project.getArtifactId())), snapshot);
+    }
+
+    /**
+     * Loads a complete snapshot set into {@link FractionRegistry#INSTANCE}.
+     *
+     * @return the fractions, or {@code null} if there is no usable snapshot set
+     */
+    @SuppressWarnings("unchecked")
+    public static Set<FractionMetadata> load(Path dir, Log log) {
+        Path index = dir == null ? null : dir.resolve(INDEX_FILE_NAME);
+        if (index == null || !Files.isRegularFile(index)) {
+            return null;
+        }
+
+        Set<FractionMetadata> fractions = new HashSet<>();
+        List<DependencyMetadata> bomInclusions = new ArrayList<>();
+        Map<Gav, FractionMetadata> byKey = new LinkedHashMap<>();
+        Map<String, byte[]> digests = new HashMap<>();
+        try {
+            for (Map<String, Object> entry : (List<Map<String, Object>>) MAPPER.readValue(index.toFile(), List.class)) {
+                String groupId = (String) entry.get(GROUP_ID);
+                String artifactId = (String) entry.get(ARTIFACT_ID);
+                Path file = dir.resolve(fileName(groupId, artifactId));
+                if (!Files.isRegularFile(file)) {
+                    log.debug("No fraction snapshot for " + groupId + ":" + artifactId);
+                    return null;
+                }
+                Map<String, Object> snapshot = MAPPER.readValue(file.toFile(), Map.class);
+                if (isStale(snapshot, digests)) {
+                    log.debug("Stale fraction snapshot for " + groupId + ":" + artifactId);
+                    return null;
+                }
+                if (Boolean.TRUE.equals(snapshot.get("fraction"))) {
+                    FractionMetadata meta = toMetadata(snapshot);
+                    fractions.add(meta);
+                    byKey.put(Gav.of(meta.getGroupId(), meta.getArtifactId(), meta.getVersion(), null, (String) snapshot.get("packaging")), meta);
+                } else if (Boolean.TRUE.equals(entry.get("bom"))) {
+                    bomInclusions.add(new DependencyMetadata(groupId, artifactId, (String) entry.get(VERSION), null, "jar", (String) entry.get("bomScope")));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to read fraction snapshots from " + dir, e);
+            return null;
+        }
+
+        byKey.forEach(FractionRegistry.INSTANCE::register);
+        bomInclusions.forEach(FractionRegistry.INSTANCE::addBomInclusion);
+        return fractions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FractionMetadata toMetadata(Map<String, Object> snapshot) {
+        FractionMetadata meta = new FractionMetadata((String) snapshot.get(GROUP_ID), (String) snapshot.get(ARTIFACT_ID),
+                                                     (String) snapshot.get(VERSION), (String) snapshot.get("scope"));
+        meta.setName((String) snapshot.get("name"));
+        meta.setDescription((String) snapshot.get("description"));
+        meta.setTags(new ArrayList<>((List<String>) snapshot.get("tags")));
+        if (Boolean.TRUE.equals(snapshot.get("internal"))) {
+            meta.setInternal(true);
+        }
+        if (snapshot.get("bootstrap") != null) {
+            meta.setBootstrap((String) snapshot.get("bootstrap"));
+        }
+        meta.setStabilityIndex(StabilityLevel.valueOf((String) snapshot.get("stability")));
+        meta.setModuleConf(toPath(snapshot.get("moduleConf")));
+        meta.setJavaFraction(toPath(snapshot.get("javaFraction")));
+        meta.setHasJavaCode(Boolean.TRUE.equals(snapshot.get("hasJavaCode")));
+        meta.setBaseModulePath(toPath(snapshot.get("baseModulePath")));
+        for (List<String> dependency : (List<List<String>>) snapshot.get("dependencies")) {
+            meta.addDependency(toDependency(dependency));
+        }
+        for (List<String> dependency : (List<List<String>>) snapshot.get("transitiveDependencies")) {
+            meta.addTransitiveDependency(toDependency(dependency));
+        }
+        ((Map<String, String>) snapshot.get("detectorClasses")).forEach((relative, full) -> meta.addDetectorClass(Paths.get(relative), Paths.get(full)));
+        return meta;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isStale(Map<String, Object> snapshot, Map<String, byte[]> digests) throws IOException {
+        String fingerprint = fingerprint((List<String>) snapshot.get("inputs"), (String) snapshot.get("sources"), digests);
+        return !fingerprint.equals(snapshot.get("fingerprint"));
+    }
+
+    /**
+     * @return the files {@link FractionRegistry} reads, directly or through the project model, besides the source
+     * directory
+     */
+    static List<String> inputs(MavenProject project, RepositorySystemSession session) {
+        List<String> inputs = new ArrayList<>();
+        for (MavenProject current = project; current != null; current = current.getParent()) {
+            if (current.getFile() != null) {
+                inputs.add(current.getFile().getAbsolutePath());
+            }
+            inputs.addAll(importedBoms(current, session));
+        }
+        if (project.getBasedir() != null) {
+            String baseDir = project.getBasedir().getAbsolutePath();
+            inputs.add(Paths.get(baseDir, "module.conf").toString());
+            inputs.add(Paths.get(baseDir, "target", "classes", FractionManifest.PATH).toString());
+        }
+        return inputs;
+    }
+
+    private static List<String> importedBoms(MavenProject project, RepositorySystemSession session) {
+        List<String> boms = new ArrayList<>();
+        DependencyManagement management = project.getOriginalModel() == null ? null : project.getOriginalModel().getDependencyManagement();
+        if (session == null || management == null) {
+            return boms;
+        }
+        for (Dependency dependency : management.getDependencies()) {
+            if (!"import".equals(dependency.getScope())) {
+                continue;
+            }
+            String groupId = interpolate(dependency.getGroupId(), project);
+            String artifactId = interpolate(dependency.getArtifactId(), project);
+            String version = interpolate(dependency.getVersion(), project);
+            if (groupId != null && artifactId != null && version != null) {
+                String path = session.getLocalRepositoryManager().getPathForLocalArtifact(new DefaultArtifact(groupId, artifactId, "pom", version));
+                boms.add(new File(session.getLocalRepository().getBasedir(), path).getAbsolutePath());
+            }
+        }
+        return boms;
+    }
+
+    /**
+     * Resolves a value of the original model made of a single property reference, as BOM coordinates usually are.
+     */
+    private static String interpolate(String value, MavenProject project) {
+        if (value == null || !value.startsWith("${") || !value.endsWith("}")) {
+            return value;
+        }
+        String name = value.substring(2, value.length() - 1);
+        switch (name) {
+            case "project.groupId":
+                return project.getGroupId();
+            case "project.version":
+                return project.getVersion();
+            default:
+                return project.getProperties().getProperty(name);
+        }
+    }
+
+    /**
+     * Digests the content of {@code inputs}, missing ones included, and the file names below {@code sources}, since
+     * only the names of sources matter to {@link FractionRegistry}. {@code digests} caches the digest of each input,
+     * as fractions share their parent POMs.
+     */
+    private static String fingerprint(List<String> inputs, String sources, Map<String, byte[]> digests) throws IOException {
+        MessageDigest fingerprint = sha1();
+        for (String input : inputs) {
+            fingerprint.update(input.getBytes(StandardCharsets.UTF_8));
+            byte[] digest = digests.get(input);
+            if (digest == null) {
+                Path file = Paths.get(input);
+                digest = Files.isRegularFile(file) ? sha1().digest(Files.readAllBytes(file)) : new byte[0];
+                digests.put(input, digest);
+            }
+            fingerprint.update((byte) digest.length);
+            fingerprint.update(digest);
+        }
+        if (sources != null && Files.isDirectory(Paths.get(sources))) {
+            Path root = Paths.get(sources);
+            try (Stream<Path> files = Files.walk(root)) {
+                for (String name : files.filter(Files::isRegularFile)
+                        .map(file -> root.relativize(file).toString().replace(File.separatorChar, '/'))
+                        .sorted()
+                        .collect(Collectors.toList())) {
+                    fingerprint.update((name + '\n').getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return String.format("%040x", new BigInteger(1, fingerprint.digest()));
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA1 digest not available", e);
+        }
+    }
+
+    private static boolean runsProcess(MavenProject project) {
+        for (Plugin plugin : project.getBuildPlugins()) {
+            if (PLUGIN_ARTIFACT_ID.equals(plugin.getArtifactId())) {
+                for (PluginExecution execution : plugin.getExecutions()) {
+                    if (execution.getGoals().contains(PROCESS_GOAL)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<List<String>> dependencies(Set<DependencyMetadata> dependencies) {
+        List<List<String>> result = new ArrayList<>();
+        for (DependencyMetadata dependency : dependencies) {
+            result.add(Arrays.asList(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(),
+                                     dependency.getClassifier(), dependency.getPackaging(), dependency.getScope()));
+        }
+        return result;
+    }
+
+    private static DependencyMetadata toDependency(List<String> parts) {
+        return new DependencyMetadata(parts.get(0), parts.get(1), parts.get(2), parts.get(3), parts.get(4), parts.get(5));
+    }
+
+    private static String toString(Path path) {
+        return path == null ? null : path.toString();
+    }
+
+    private static Path toPath(Object path) {
+        return path == null ? null : Paths.get((String) path);
+    }
+
+    static String fileName(String groupId, String artifactId) {
+        return groupId + "." + artifactId + ".json";
+    }
+
+    /**
+     * Replaces {@code file} atomically, and only if its content changed, since concurrent builds ({@code -T}) may
+     * write the index while another module reads it.
+     */
+    private static void write(Path file, Object content) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(content);
+        if (Files.isRegularFile(file) && Arrays.equals(bytes, Files.readAllBytes(file))) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+}
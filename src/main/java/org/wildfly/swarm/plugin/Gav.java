@@ -0,0 +1,119 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable, interned Maven coordinates. Instances are canonicalized through a weak pool, so equal coordinates
+ * share one instance (and one copy of each component string) across every fraction in the reactor, without
+ * keeping the coordinates of past builds alive in a long-lived JVM; the hash code and string form are computed once.
+ */
+public final class Gav implements Comparable<Gav> {
+
+    private Gav(String groupId, String artifactId, String version, String classifier, String packaging) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.classifier = classifier;
+        this.packaging = packaging;
+        this.string = groupId + ":" + artifactId + ":" + packaging + (classifier == null ? "" : ":" + classifier) + ":" + version;
+        this.hash = this.string.hashCode();
+    }
+
+    public static Gav of(String groupId, String artifactId, String version, String classifier, String packaging) {
+        Gav gav = new Gav(intern(groupId), intern(artifactId), intern(version), intern(classifier), intern(packaging));
+        synchronized (POOL) {
+            WeakReference<Gav> existing = POOL.get(gav);
+            Gav canonical = existing != null ? existing.get() : null;
+            if (canonical != null) {
+                return canonical;
+            }
+            POOL.put(gav, new WeakReference<>(gav));
+            return gav;
+        }
+    }
+
+    public String getGroupId() {
+        return this.groupId;
+    }
+
+    public String getArtifactId() {
+        return this.artifactId;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public String getClassifier() {
+        return this.classifier;
+    }
+
+    public String getPackaging() {
+        return this.packaging;
+    }
+
+    /**
+     * @return {@code groupId:artifactId:packaging[:classifier]:version}
+     */
+    @Override
+    public String toString() {
+        return this.string;
+    }
+
+    @Override
+    public int compareTo(Gav that) {
+        return this == that ? 0 : this.string.compareTo(that.string);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof Gav && this.hash == ((Gav) obj).hash && this.string.equals(((Gav) obj).string);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    private static String intern(String value) {
+        // the JVM string table drops strings that are no longer referenced
+        return value == null ? null : value.intern();
+    }
+
+    // the value only weakly refers to its key, so an entry goes away once nothing else uses the Gav
+    private static final Map<Gav, WeakReference<Gav>> POOL = new WeakHashMap<>();
+
+    private final String groupId;
+
+    private final String artifactId;
+
+    private final String version;
+
+    private final String classifier;
+
+    private final String packaging;
+
+    private final String string;
+
+    private final int hash;
+}
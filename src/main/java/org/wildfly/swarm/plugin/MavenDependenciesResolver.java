@@ -34,6 +34,8 @@ import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
+import org.wildfly.swarm.plugin.jfr.PluginEvent;
+import org.wildfly.swarm.plugin.jfr.PluginEvents;
 import org.wildfly.swarm.plugin.utils.ChecksumUtil;
 
 import java.io.BufferedReader;
@@ -141,10 +143,17 @@ public class MavenDependenciesResolver {
     }
 
     private void addCheckSum(MavenDependencyData dependencyData) {
+        String gav = dependencyData.getArtifact().toString();
         try {
             String checkSum = null;
-            File dependencyFile = getFileForArtifact(dependencyData);
-            checkSum = ChecksumUtil.calculateChecksum(dependencyFile);
+            File dependencyFile;
+            try (PluginEvent resolution = PluginEvents.artifactResolution(gav)) {
+                dependencyFile = getFileForArtifact(dependencyData);
+                resolution.file(dependencyFile);
+            }
+            try (PluginEvent checksum = PluginEvents.checksum(gav).file(dependencyFile).bytes(dependencyFile.length())) {
+                checkSum = ChecksumUtil.calculateChecksum(dependencyFile);
+            }
             dependencyData.setCheckSum(checkSum);
         } catch (IOException | NoSuchAlgorithmException | ArtifactResolutionException e) {
             log.error("failed to get checksum for " + dependencyData, e);
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.doc;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The configuration keys of all fractions, as a trie of their dot separated segments. A {@code *} segment stands
+ * for any key of a map or list of resources, so that looking up or completing a key costs its number of segments
+ * rather than the number of known keys.
+ */
+public class ConfigurationCatalog {
+
+    public static final String WILDCARD = "*";
+
+    /**
+     * Adds {@code key}, unless it is already known.
+     *
+     * @return the entry already known for {@code key}, or {@code null} if it was added
+     */
+    public Entry add(String key, String fraction, String documentation, String type) {
+        Node node = this.root;
+        for (String segment : segments(key)) {
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        if (node.entry != null) {
+            return node.entry;
+        }
+        node.entry = new Entry(key, fraction, documentation == null ? "" : documentation, type);
+        ++this.size;
+        return null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the entry of the key pattern matching {@code key}, a segment matching itself before matching a
+     * {@code *}, or {@code null} if {@code key} is not a known configuration key
+     */
+    public Entry lookup(String key) {
+        return lookup(this.root, segments(key), 0);
+    }
+
+    /**
+     * @return the segments that may follow the complete segments of {@code prefix}, a key ending with a dot or the
+     * empty string for the first segment, which start with its last, partial segment
+     */
+    public Set<String> complete(String prefix) {
+        int lastDot = prefix.lastIndexOf('.');
+        String partial = prefix.substring(lastDot + 1);
+        List<Node> nodes = new ArrayList<>();
+        if (lastDot < 0) {
+            nodes.add(this.root);
+        } else {
+            find(this.root, segments(prefix.substring(0, lastDot)), 0, nodes);
+        }
+        Set<String> segments = new TreeSet<>();
+        for (Node node : nodes) {
+            segments.addAll(node.children.subMap(partial, true, partial + Character.MAX_VALUE, false).keySet());
+        }
+        return segments;
+    }
+
+    /**
+     * Writes the catalog as a gzipped table of distinct strings followed by the trie in depth first order.
+     */
+    public void write(OutputStream out) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        collectStrings(this.root, strings, table);
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(gzip);
+        data.writeInt(MAGIC);
+        data.writeInt(table.size());
+        for (String string : table) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+        data.writeInt(this.size);
+        writeNode(this.root, strings, data);
+        data.flush();
+        gzip.finish();
+    }
+
+    public static ConfigurationCatalog read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new GZIPInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a configuration catalog");
+        }
+        String[] table = new String[data.readInt()];
+        for (int i = 0; i < table.length; ++i) {
+            byte[] bytes = new byte[data.readInt()];
+            data.readFully(bytes);
+            table[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        ConfigurationCatalog catalog = new ConfigurationCatalog();
+        catalog.size = data.readInt();
+        readNode(catalog.root, "", table, data);
+        return catalog;
+    }
+
+    private static Entry lookup(Node node, String[] segments, int i) {
+        if (i == segments.length) {
+            return node.entry;
+        }
+        Node exact = node.children.get(segments[i]);
+        if (exact != null) {
+            Entry entry = lookup(exact, segments, i + 1);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        Node wildcard = node.children.get(WILDCARD);
+        if (wildcard != null && wildcard != exact) {
+            return lookup(wildcard, segments, i + 1);
+        }
+        return null;
+    }
+
+    private static void find(Node node, String[] segments, int i, List<Node> found) {
+        if (i == segments.length) {
+            found.add(node);
+            return;
+        }
+        Node exact = node.children.get(segments[i]);
+        if (exact != null) {
+            find(exact, segments, i + 1, found);
+        }
+        Node wildcard = node.children.get(WILDCARD);
+        if (wildcard != null && wildcard != exact) {
+            find(wildcard, segments, i + 1, found);
+        }
+    }
+
+    private static String[] segments(String key) {
+        return key.isEmpty() ? new String[0] : key.split("\\.", -1);
+    }
+
+    private static void collectStrings(Node node, Map<String, Integer> strings, List<String> table) {
+        if (node.entry != null) {
+            intern(node.entry.fraction, strings, table);
+            intern(node.entry.documentation, strings, table);
+            intern(node.entry.type, strings, table);
+        }
+        for (Map.Entry<String, Node> child : node.children.entrySet()) {
+            intern(child.getKey(), strings, table);
+            collectStrings(child.getValue(), strings, table);
+        }
+    }
+
+    private static void intern(String string, Map<String, Integer> strings, List<String> table) {
+        if (string != null && !strings.containsKey(string)) {
+            strings.put(string, table.size());
+            table.add(string);
+        }
+    }
+
+    private static void writeNode(Node node, Map<String, Integer> strings, DataOutputStream data) throws IOException {
+        if (node.entry == null) {
+            data.writeInt(NONE);
+        } else {
+            data.writeInt(strings.get(node.entry.fraction));
+            data.writeInt(strings.get(node.entry.documentation));
+            data.writeInt(node.entry.type == null ? NONE : strings.get(node.entry.type));
+        }
+        data.writeInt(node.children.size());
+        for (Map.Entry<String, Node> child : node.children.entrySet()) {
+            data.writeInt(strings.get(child.getKey()));
+            writeNode(child.getValue(), strings, data);
+        }
+    }
+
+    private static void readNode(Node node, String key, String[] table, DataInputStream data) throws IOException {
+        int fraction = data.readInt();
+        if (fraction != NONE) {
+            String documentation = table[data.readInt()];
+            int type = data.readInt();
+            node.entry = new Entry(key, table[fraction], documentation, type == NONE ? null : table[type]);
+        }
+        int children = data.readInt();
+        for (int i = 0; i < children; ++i) {
+            String segment = table[data.readInt()];
+            Node child = new Node();
+            node.children.put(segment, child);
+            readNode(child, key.isEmpty() ? segment : key + "." + segment, table, data);
+        }
+    }
+
+    private static final int MAGIC = 0x54434331;
+
+    private static final int NONE = -1;
+
+    private final Node root = new Node();
+
+    private int size;
+
+    /**
+     * A configuration key pattern, with the fraction declaring it, its documentation and, when bound to a fraction
+     * field, the field's type.
+     */
+    public static final class Entry {
+
+        Entry(String key, String fraction, String documentation, String type) {
+            this.key = key;
+            this.fraction = fraction;
+            this.documentation = documentation;
+            this.type = type;
+        }
+
+        public String getKey() {
+            return this.key;
+        }
+
+        public String getFraction() {
+            return this.fraction;
+        }
+
+        public String getDocumentation() {
+            return this.documentation;
+        }
+
+        /**
+         * @return the type of the field bound to the key, or {@code null} if unknown
+         */
+        public String getType() {
+            return this.type;
+        }
+
+        @Override
+        public String toString() {
+            return this.key + " (" + this.fraction + ")";
+        }
+
+        private final String key;
+
+        private final String fraction;
+
+        private final String documentation;
+
+        private final String type;
+    }
+
+    private static final class Node {
+
+        private final TreeMap<String, Node> children = new TreeMap<>();
+
+        private Entry entry;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.doc;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import javax.inject.Inject;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProjectHelper;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.wildfly.swarm.plugin.AbstractFractionsMojo;
+import org.wildfly.swarm.plugin.BatchArtifactResolver;
+import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
+
+/**
+ * Merges the configuration keys of all fractions into a single {@link ConfigurationCatalog}, attached to the
+ * project, so that tooling can validate and complete configuration keys without opening every fraction.
+ */
+@Mojo(name = "configuration-catalog",
+        defaultPhase = LifecyclePhase.GENERATE_RESOURCES)
+public class ConfigurationCatalogMojo extends AbstractFractionsMojo {
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        List<FractionMetadata> fractions = new ArrayList<>(fractions());
+        fractions.sort(Comparator.comparing(FractionMetadata::getArtifactId));
+
+        Map<FractionMetadata, Artifact> artifacts = new LinkedHashMap<>();
+        fractions.forEach(f -> artifacts.put(f, new DefaultArtifact(f.getGroupId(), f.getArtifactId(), null, "jar", f.getVersion())));
+        Map<Artifact, File> files = new BatchArtifactResolver(getLog(), this.repositorySystemSession, this.resolver, this.remoteRepositories)
+                .resolve(artifacts.values());
+
+        ConfigurationCatalog catalog = new ConfigurationCatalog();
+        for (FractionMetadata fraction : fractions) {
+            File file = files.get(artifacts.get(fraction));
+            if (file == null) {
+                throw new MojoFailureException("Unable to resolve " + fraction);
+            }
+            try {
+                addKeys(catalog, fraction, file);
+            } catch (IOException e) {
+                throw new MojoFailureException("Unable to read the configuration keys of " + fraction, e);
+            }
+        }
+
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            catalog.write(content);
+            OutputFileUtil.writeIfChanged(this.catalogFile.toPath(), content.toByteArray());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write " + this.catalogFile, e);
+        }
+        getLog().info("Cataloged " + catalog.size() + " configuration keys of " + fractions.size() + " fractions");
+
+        this.projectHelper.attachArtifact(this.project, "dat", "configuration-catalog", this.catalogFile);
+    }
+
+    private void addKeys(ConfigurationCatalog catalog, FractionMetadata fraction, File artifact) throws IOException {
+        try (JarFile jar = new JarFile(artifact)) {
+            ZipEntry meta = jar.getEntry("META-INF/configuration-meta.properties");
+            if (meta == null) {
+                return;
+            }
+            Properties props = new Properties();
+            try (InputStream in = jar.getInputStream(meta)) {
+                props.load(in);
+            }
+            props.remove("fraction");
+
+            Map<String, String> types = new HashMap<>();
+            ZipEntry bindings = jar.getEntry("META-INF/configuration-bindings.tsv");
+            if (bindings != null) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(bindings), StandardCharsets.UTF_8))) {
+                    reader.lines()
+                            .filter(line -> !line.startsWith("#"))
+                            .map(line -> line.split("\t"))
+                            .filter(columns -> columns.length > 3)
+                            .forEach(columns -> types.put(columns[0], columns[3]));
+                }
+            }
+
+            for (String key : props.stringPropertyNames()) {
+                ConfigurationCatalog.Entry existing = catalog.add(key, fraction.getArtifactId(), props.getProperty(key), types.get(key));
+                if (existing != null && !existing.getFraction().equals(fraction.getArtifactId())) {
+                    getLog().warn(key + " of " + fraction.getArtifactId() + " is already declared by " + existing.getFraction());
+                }
+            }
+        }
+    }
+
+    @Parameter(alias = "remoteRepositories", defaultValue = "${project.remoteProjectRepositories}", readonly = true)
+    private List<RemoteRepository> remoteRepositories;
+
+    /**
+     * Where the catalog is written; it is attached with the {@code configuration-catalog} classifier.
+     */
+    @Parameter(property = "thorntail.configuration-catalog.file",
+            defaultValue = "${project.build.directory}/configuration-catalog.dat")
+    private File catalogFile;
+
+    @Inject
+    private ArtifactResolver resolver;
+
+    @Component
+    private MavenProjectHelper projectHelper;
+}
@@ -17,14 +17,24 @@ package org.wildfly.swarm.plugin.doc;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import javax.inject.Inject;
 
@@ -33,20 +43,17 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.impl.ArtifactResolver;
-import org.eclipse.aether.repository.LocalArtifactRequest;
-import org.eclipse.aether.repository.LocalArtifactResult;
 import org.eclipse.aether.repository.RemoteRepository;
-import org.eclipse.aether.resolution.ArtifactRequest;
-import org.eclipse.aether.resolution.ArtifactResolutionException;
-import org.eclipse.aether.resolution.ArtifactResult;
-import org.jboss.shrinkwrap.api.ShrinkWrap;
-import org.jboss.shrinkwrap.api.exporter.ExplodedExporter;
-import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.wildfly.swarm.plugin.AbstractFractionsMojo;
+import org.wildfly.swarm.plugin.BatchArtifactResolver;
 import org.wildfly.swarm.plugin.FractionMetadata;
 import org.wildfly.swarm.plugin.StabilityLevel;
+import org.wildfly.swarm.plugin.utils.ChecksumUtil;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
+import org.wildfly.swarm.plugin.utils.ParallelTasks;
 
 @Mojo(name = "prep-doc-source",
         defaultPhase = LifecyclePhase.GENERATE_SOURCES)
@@ -71,15 +78,16 @@ public class DocPrepMojo extends AbstractFractionsMojo {
             extraModules.put(parts[0], parts[1]);
         });
 
+        List<SourceExport> exports = new ArrayList<>();
         this.project.getDependencyManagement().getDependencies()
                 .stream()
                 .filter(this::isSwarmProject)
                 .filter(d -> extraModules.containsKey(d.getArtifactId()))
-                .forEach(d -> exportSources(extraModules.get(d.getArtifactId()),
-                                            d.getGroupId(),
-                                            d.getArtifactId(),
-                                            d.getVersion(),
-                                            null));
+                .forEach(d -> exports.add(new SourceExport(extraModules.get(d.getArtifactId()),
+                                                           d.getGroupId(),
+                                                           d.getArtifactId(),
+                                                           d.getVersion(),
+                                                           null)));
 
         Set<FractionMetadata> allFractions = fractions();
         Collection<FractionMetadata> fractions = null;
@@ -105,71 +113,86 @@ public class DocPrepMojo extends AbstractFractionsMojo {
             }
         }
         fractions
-                .forEach(fraction -> exportSources(fraction.getName(),
-                                                   fraction.getGroupId(),
-                                                   fraction.getArtifactId(),
-                                                   fraction.getVersion(),
-                                                   fraction.getStabilityIndex()));
+                .forEach(fraction -> exports.add(new SourceExport(fraction.getName(),
+                                                                  fraction.getGroupId(),
+                                                                  fraction.getArtifactId(),
+                                                                  fraction.getVersion(),
+                                                                  fraction.getStabilityIndex())));
+
+        Map<Artifact, File> sourceJars = new BatchArtifactResolver(getLog(), this.repositorySystemSession, this.resolver, this.remoteRepositories)
+                .resolve(exports.stream().map(e -> e.sources).collect(Collectors.toList()));
+
+        Map<SourceExport, Exception> failures = ParallelTasks.forEach(exports, this.threads, e -> exportSources(e, sourceJars.get(e.sources)));
+        if (!failures.isEmpty()) {
+            failures.forEach((export, failure) -> getLog().error("Unable to export the sources of " + export, failure));
+            throw ParallelTasks.aggregate("Unable to export fraction sources", failures);
+        }
     }
 
-    private void exportSources(final String name,
-                               final String groupId,
-                               final String artifactId,
-                               final String version,
-                               final StabilityLevel stability) {
-        final File destDir = new File(this.sourceOutputDir, artifactId);
+    /**
+     * Extracts the sources JAR into {@code sourceOutputDir/artifactId}. The checksum of the JAR is recorded as the
+     * last segment of {@code _metadata}; if it still matches, the JAR is not opened at all, and otherwise only
+     * changed entries are written and entries no longer in the JAR are removed.
+     */
+    private void exportSources(SourceExport export, File srcJar) throws IOException, NoSuchAlgorithmException {
+        final File destDir = new File(this.sourceOutputDir, export.artifactId);
         destDir.mkdirs();
+        final Path metadataFile = Paths.get(destDir.getAbsolutePath(), "_metadata");
 
-        File srcJar = null;
-        try {
-            srcJar = resolveArtifact(groupId, artifactId, version, "sources", "jar");
-        } catch (ArtifactResolutionException ignored) {
-        }
+        String metadata = String.format("%s::::%s",
+                                        export.name,
+                                        export.stability != null ? export.stability.name() : "");
 
         if (srcJar != null) {
-            ShrinkWrap.createFromZipFile(JavaArchive.class, srcJar)
-                    .as(ExplodedExporter.class)
-                    .exportExploded(this.sourceOutputDir, artifactId);
+            metadata += "::::" + ChecksumUtil.calculateChecksum(srcJar);
+            if (Files.isRegularFile(metadataFile)
+                    && metadata.equals(new String(Files.readAllBytes(metadataFile), StandardCharsets.UTF_8))) {
+                getLog().debug("Sources of " + export + " are up to date");
+                return;
+            }
+            extract(srcJar, destDir.toPath());
         } else {
             getLog().warn(String.format("Failed to find sources for %s:%s:%s",
-                                        groupId, artifactId, version));
+                                        export.groupId, export.artifactId, export.version));
         }
 
-        try {
-            if (destDir.listFiles().length > 0) {
-                Files.write(Paths.get(destDir.getAbsolutePath(), "_metadata"),
-                            String.format("%s::::%s",
-                                          name,
-                                          stability != null ? stability.name() : "")
-                                    .getBytes());
-            }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (destDir.listFiles().length > 0) {
+            OutputFileUtil.writeIfChanged(metadataFile, metadata);
         }
     }
 
-    private File resolveArtifact(final String group,
-                                 final String name,
-                                 final String version,
-                                 final String classifier,
-                                 final String type) throws ArtifactResolutionException {
-        final DefaultArtifact artifact = new DefaultArtifact(group, name, classifier, type, version);
-        final LocalArtifactResult localResult = this.repositorySystemSession.getLocalRepositoryManager()
-                .find(this.repositorySystemSession, new LocalArtifactRequest(artifact, this.remoteRepositories, null));
-        File file = null;
-
-        if (localResult.isAvailable()) {
-            file = localResult.getFile();
-        } else {
-            final ArtifactResult result;
-            result = resolver.resolveArtifact(this.repositorySystemSession,
-                                              new ArtifactRequest(artifact, this.remoteRepositories, null));
-            if (result.isResolved()) {
-                file = result.getArtifact().getFile();
+    private static void extract(File jar, Path destDir) throws IOException {
+        Path root = destDir.toAbsolutePath().normalize();
+        Set<Path> extracted = new HashSet<>();
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path target = root.resolve(entry.getName()).normalize();
+                if (!target.startsWith(root)) {
+                    throw new IOException("Entry " + entry.getName() + " of " + jar + " is outside of the target directory");
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        OutputFileUtil.copyIfChanged(in, target);
+                    }
+                }
+                extracted.add(target);
             }
         }
 
-        return file;
+        try (Stream<Path> existing = Files.walk(root)) {
+            List<Path> stale = existing
+                    .filter(Files::isRegularFile)
+                    .filter(p -> !extracted.contains(p))
+                    .filter(p -> !p.getFileName().toString().equals("_metadata"))
+                    .collect(Collectors.toList());
+            for (Path path : stale) {
+                Files.delete(path);
+            }
+        }
     }
 
     private static final String ALREADY_EXECUTED = "DocPrepMojo-already-executed";
@@ -183,7 +206,42 @@ public class DocPrepMojo extends AbstractFractionsMojo {
     @Parameter(alias = "remoteRepositories", defaultValue = "${project.remoteProjectRepositories}", readonly = true)
     private List<RemoteRepository> remoteRepositories;
 
+    /**
+     * Number of source JARs to extract in parallel; {@code 0} uses one thread per processor.
+     */
+    @Parameter(property = "thorntail.prep-doc-source.threads", defaultValue = "0")
+    private int threads;
+
     @Inject
     private ArtifactResolver resolver;
+
+    private static final class SourceExport {
+
+        SourceExport(String name, String groupId, String artifactId, String version, StabilityLevel stability) {
+            this.name = name;
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.stability = stability;
+            this.sources = new DefaultArtifact(groupId, artifactId, "sources", "jar", version);
+        }
+
+        @Override
+        public String toString() {
+            return this.groupId + ":" + this.artifactId + ":" + this.version;
+        }
+
+        private final String name;
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final String version;
+
+        private final StabilityLevel stability;
+
+        private final Artifact sources;
+    }
 }
 
@@ -17,17 +17,22 @@ package org.wildfly.swarm.plugin.doc;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.jar.JarFile;
@@ -40,44 +45,64 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.impl.ArtifactResolver;
-import org.eclipse.aether.repository.LocalArtifactRequest;
-import org.eclipse.aether.repository.LocalArtifactResult;
 import org.eclipse.aether.repository.RemoteRepository;
-import org.eclipse.aether.resolution.ArtifactRequest;
-import org.eclipse.aether.resolution.ArtifactResolutionException;
-import org.eclipse.aether.resolution.ArtifactResult;
 import org.wildfly.swarm.plugin.AbstractFractionsMojo;
+import org.wildfly.swarm.plugin.BatchArtifactResolver;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.utils.ChecksumCache;
+import org.wildfly.swarm.plugin.utils.ChecksumUtil;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
+import org.wildfly.swarm.plugin.utils.ParallelTasks;
 
 @Mojo(name = "fraction-reference",
         defaultPhase = LifecyclePhase.GENERATE_RESOURCES)
 public class FractionReferenceMojo extends AbstractFractionsMojo {
 
     @Override
-    @SuppressWarnings("unchecked")
     public void execute() throws MojoExecutionException, MojoFailureException {
         Set<FractionMetadata> allFractions = fractions();
-        allFractions.forEach(e -> {
-            try {
-                generateReference(e);
-            } catch (ArtifactResolutionException | IOException e1) {
-                e1.printStackTrace();
-            }
-        });
+
+        ChecksumCache checksums;
+        try {
+            checksums = ChecksumCache.load(Paths.get(this.project.getBuild().getDirectory(), CHECKSUMS_FILE));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read " + CHECKSUMS_FILE, e);
+        }
+
+        Map<FractionMetadata, Artifact> artifacts = new LinkedHashMap<>();
+        allFractions.forEach(f -> artifacts.put(f, new DefaultArtifact(f.getGroupId(), f.getArtifactId(), null, "jar", f.getVersion())));
+        Map<Artifact, File> files = new BatchArtifactResolver(getLog(), this.repositorySystemSession, this.resolver, this.remoteRepositories)
+                .resolve(artifacts.values());
+
+        Map<FractionMetadata, Exception> failures = ParallelTasks.forEach(allFractions, this.threads,
+                                                                          f -> generateReference(f, files.get(artifacts.get(f)), checksums));
+
+        try {
+            checksums.store();
+        } catch (IOException e) {
+            getLog().warn("Unable to write " + CHECKSUMS_FILE, e);
+        }
 
         try {
             generateIndex(allFractions);
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             throw new MojoFailureException("unable to generate index", e);
         }
+
+        if (!failures.isEmpty()) {
+            failures.forEach((fraction, failure) -> getLog().error("Unable to generate the reference of " + fraction, failure));
+            throw ParallelTasks.aggregate("Unable to generate the fraction reference", failures);
+        }
     }
 
-    private void generateIndex(Set<FractionMetadata> allFractions) throws FileNotFoundException {
+    private void generateIndex(Set<FractionMetadata> allFractions) throws IOException {
         Path output = this.project.getBasedir().toPath().resolve("index.adoc");
 
-        try (PrintStream writer = new PrintStream(new FileOutputStream(output.toFile()))) {
+        StringWriter content = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(content)) {
             List<FractionMetadata> fractions = new ArrayList<>();
             fractions.addAll(allFractions);
 
@@ -97,6 +122,7 @@ public class FractionReferenceMojo extends AbstractFractionsMojo {
                 previousOffset = offset;
             }
         }
+        OutputFileUtil.writeIfChanged(output, content.toString());
     }
 
     protected int determineOffset(String[] previousParts, int previousOffset, String[] parts) {
@@ -130,96 +156,96 @@ public class FractionReferenceMojo extends AbstractFractionsMojo {
         return name;
     }
 
-    private void generateReference(FractionMetadata fraction) throws ArtifactResolutionException, IOException {
-        File artifact = resolveArtifact(fraction.getGroupId(),
-                                        fraction.getArtifactId(),
-                                        fraction.getVersion(),
-                                        null,
-                                        "jar");
+    private void generateReference(FractionMetadata fraction, File artifact, ChecksumCache checksums) throws IOException, NoSuchAlgorithmException {
+        if (artifact == null) {
+            throw new IOException("Unable to resolve " + fraction);
+        }
 
         Path output = this.project.getBasedir().toPath().resolve("fractions").resolve(fraction.getArtifactId() + ".adoc");
 
-        Files.createDirectories(output.getParent());
-
-        try (JarFile jar = new JarFile(artifact)) {
-            try (PrintStream writer = new PrintStream(new FileOutputStream(output.toFile()))) {
-                ZipEntry readme = jar.getEntry("META-INF/README.adoc");
-                if (readme != null) {
-                    try (BufferedReader readmeStream = new BufferedReader(new InputStreamReader(jar.getInputStream(readme)))) {
-                        readmeStream.lines().forEach(writer::println);
-                    }
-                } else {
-                    writer.println("= " + fraction.getName());
-                }
-                writer.println();
-
-                //writer.println("== Coordinates");
-                writer.println();
-                writer.println(".Maven Coordinates");
-                writer.println("[source,xml]");
-                writer.println("----");
-                writer.println("<dependency>");
-                writer.println("  <groupId>" + fraction.getGroupId() + "</groupId>");
-                writer.println("  <artifactId>" + fraction.getArtifactId() + "</artifactId>");
-                writer.println("</dependency>");
-                writer.println("----");
-                writer.println();
+        // a reference is also stale when it was generated by another version of this mojo
+        String checksum = REFERENCE_FORMAT + ":" + this.pluginVersion + ":" + ChecksumUtil.calculateChecksum(artifact);
+        if (Files.exists(output) && checksums.isUpToDate(fraction.getArtifactId(), checksum)) {
+            getLog().debug("Reference of " + fraction + " is up to date");
+            return;
+        }
 
-                ZipEntry ref = jar.getEntry("META-INF/configuration-meta.properties");
-                if (ref != null) {
-                    Properties props = new Properties();
-                    props.load(jar.getInputStream(ref));
-                    props.remove("fraction");
-                    if (props.size() > 0) {
-                        writer.println(".Configuration");
-                        writer.println();
-                        List<String> names = new ArrayList<>();
-                        names.addAll(props.stringPropertyNames());
-                        Collections.sort(names);
-
-                        names.forEach(name -> {
-                            if (!name.equals("fraction")) {
-                                writer.println(name.replace("*", "_KEY_") + ":: ");
-                                writer.println(props.getProperty(name));
-                                writer.println();
-                            }
-                        });
-                    }
+        StringWriter content = new StringWriter();
+        try (JarFile jar = new JarFile(artifact);
+             PrintWriter writer = new PrintWriter(content)) {
+            ZipEntry readme = jar.getEntry("META-INF/README.adoc");
+            if (readme != null) {
+                try (BufferedReader readmeStream = new BufferedReader(new InputStreamReader(jar.getInputStream(readme), StandardCharsets.UTF_8))) {
+                    readmeStream.lines().forEach(writer::println);
                 }
-
-                writer.println();
+            } else {
+                writer.println("= " + fraction.getName());
             }
-        }
-    }
-
-    private File resolveArtifact(final String group,
-                                 final String name,
-                                 final String version,
-                                 final String classifier,
-                                 final String type) throws ArtifactResolutionException {
-        final DefaultArtifact artifact = new DefaultArtifact(group, name, classifier, type, version);
-        final LocalArtifactResult localResult = this.repositorySystemSession.getLocalRepositoryManager()
-                .find(this.repositorySystemSession, new LocalArtifactRequest(artifact, this.remoteRepositories, null));
-        File file = null;
-
-        if (localResult.isAvailable()) {
-            file = localResult.getFile();
-        } else {
-            final ArtifactResult result;
-            result = resolver.resolveArtifact(this.repositorySystemSession,
-                                              new ArtifactRequest(artifact, this.remoteRepositories, null));
-            if (result.isResolved()) {
-                file = result.getArtifact().getFile();
+            writer.println();
+
+            //writer.println("== Coordinates");
+            writer.println();
+            writer.println(".Maven Coordinates");
+            writer.println("[source,xml]");
+            writer.println("----");
+            writer.println("<dependency>");
+            writer.println("  <groupId>" + fraction.getGroupId() + "</groupId>");
+            writer.println("  <artifactId>" + fraction.getArtifactId() + "</artifactId>");
+            writer.println("</dependency>");
+            writer.println("----");
+            writer.println();
+
+            ZipEntry ref = jar.getEntry("META-INF/configuration-meta.properties");
+            if (ref != null) {
+                Properties props = new Properties();
+                try (InputStream in = jar.getInputStream(ref)) {
+                    props.load(in);
+                }
+                props.remove("fraction");
+                if (props.size() > 0) {
+                    writer.println(".Configuration");
+                    writer.println();
+                    List<String> names = new ArrayList<>();
+                    names.addAll(props.stringPropertyNames());
+                    Collections.sort(names);
+
+                    names.forEach(name -> {
+                        if (!name.equals("fraction")) {
+                            writer.println(name.replace("*", "_KEY_") + ":: ");
+                            writer.println(props.getProperty(name));
+                            writer.println();
+                        }
+                    });
+                }
             }
+
+            writer.println();
         }
 
-        return file;
+        OutputFileUtil.writeIfChanged(output, content.toString());
+        checksums.update(fraction.getArtifactId(), checksum);
     }
 
     @Parameter(alias = "remoteRepositories", defaultValue = "${project.remoteProjectRepositories}", readonly = true)
     private List<RemoteRepository> remoteRepositories;
 
+    /**
+     * Number of fractions to generate the reference of in parallel; {@code 0} uses one thread per processor.
+     */
+    @Parameter(property = "thorntail.fraction-reference.threads", defaultValue = "0")
+    private int threads;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
     @Inject
     private ArtifactResolver resolver;
+
+    private static final String CHECKSUMS_FILE = "fraction-reference-checksums.properties";
+
+    /**
+     * Version of the generated reference layout, to be increased whenever {@link #generateReference} changes its output.
+     */
+    private static final int REFERENCE_FORMAT = 1;
 }
 
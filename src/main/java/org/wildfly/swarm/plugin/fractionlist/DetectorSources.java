@@ -0,0 +1,148 @@
+/**
+ * Copyright 2015-2016 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.fractionlist;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tells the detectors among the sources of the {@code detect} packages, which also hold the classes detectors are
+ * built from. Only public concrete classes deriving from a {@code FractionDetector} type, directly or through
+ * another of the sources, can be loaded as a {@code FractionDetector} service.
+ */
+final class DetectorSources {
+
+    private DetectorSources() {
+    }
+
+    /**
+     * @param sources the sources of the {@code detect} packages, by path relative to their source root
+     * @return the class names of the detectors
+     */
+    static Set<String> detectorClasses(Map<Path, Path> sources) throws IOException {
+        Map<String, Declaration> declarations = new HashMap<>();
+        for (Map.Entry<Path, Path> source : sources.entrySet()) {
+            Declaration declaration = declaration(source.getKey(), source.getValue());
+            if (declaration != null) {
+                declarations.put(declaration.simpleName, declaration);
+            }
+        }
+
+        Set<String> detectors = new TreeSet<>();
+        for (Declaration declaration : declarations.values()) {
+            if (declaration.isConcretePublicClass() && isDetector(declaration, declarations, new HashSet<>())) {
+                detectors.add(declaration.className);
+            }
+        }
+        return detectors;
+    }
+
+    private static boolean isDetector(Declaration declaration, Map<String, Declaration> declarations, Set<String> seen) {
+        if (!seen.add(declaration.simpleName)) {
+            return false;
+        }
+        for (String supertype : declaration.supertypes) {
+            if (supertype.endsWith(DETECTOR_SUFFIX)) {
+                return true;
+            }
+            Declaration local = declarations.get(supertype);
+            if (local != null && isDetector(local, declarations, seen)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the top-level type declared by {@code file}, or {@code null} if it declares none, as a
+     * {@code package-info.java} does
+     */
+    private static Declaration declaration(Path relative, Path file) throws IOException {
+        String fileName = relative.getFileName().toString();
+        if (!fileName.endsWith(".java")) {
+            return null;
+        }
+        String simpleName = fileName.substring(0, fileName.length() - ".java".length());
+        String code = COMMENT.matcher(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).replaceAll(" ");
+
+        Matcher matcher = TYPE.matcher(code);
+        while (matcher.find()) {
+            if (!matcher.group(3).equals(simpleName)) {
+                continue;
+            }
+            List<String> modifiers = Arrays.asList(matcher.group(1).trim().split("\\s+"));
+            List<String> supertypes = new ArrayList<>();
+            String header = GENERICS.matcher(matcher.group(4)).replaceAll("");
+            for (String type : header.split("\\bextends\\b|\\bimplements\\b|,")) {
+                String name = type.trim();
+                if (!name.isEmpty()) {
+                    supertypes.add(name.substring(name.lastIndexOf('.') + 1));
+                }
+            }
+            String packagePath = relative.getParent() == null ? "" : relative.getParent().toString().replace(File.separatorChar, '.') + ".";
+            return new Declaration(packagePath + simpleName, simpleName, matcher.group(2).equals("class"),
+                                   modifiers.contains("public") && !modifiers.contains("abstract"), supertypes);
+        }
+        return null;
+    }
+
+    private static final String DETECTOR_SUFFIX = "FractionDetector";
+
+    private static final Pattern COMMENT = Pattern.compile("//[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+
+    private static final Pattern TYPE = Pattern.compile(
+            "((?:\\b(?:public|protected|private|abstract|final|static|strictfp)\\s+)*)\\b(class|interface|enum)\\s+(\\w+)([^{]*)\\{");
+
+    private static final Pattern GENERICS = Pattern.compile("<[^<>]*(<[^<>]*>[^<>]*)*>");
+
+    private static final class Declaration {
+
+        Declaration(String className, String simpleName, boolean isClass, boolean isConcretePublic, List<String> supertypes) {
+            this.className = className;
+            this.simpleName = simpleName;
+            this.isClass = isClass;
+            this.isConcretePublic = isConcretePublic;
+            this.supertypes = supertypes;
+        }
+
+        boolean isConcretePublicClass() {
+            return this.isClass && this.isConcretePublic;
+        }
+
+        private final String className;
+
+        private final String simpleName;
+
+        private final boolean isClass;
+
+        private final boolean isConcretePublic;
+
+        private final List<String> supertypes;
+    }
+}
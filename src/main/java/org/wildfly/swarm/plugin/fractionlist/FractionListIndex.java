@@ -0,0 +1,436 @@
+/**
+ * Copyright 2015-2016 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.fractionlist;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.wildfly.swarm.plugin.FractionMetadata;
+
+/**
+ * Compact binary form of the fraction list ({@code fraction-list.idx}) for tooling that loads it on every start.
+ *
+ * <p>The file is read through a memory-mapped buffer; finding a fraction by {@code groupId:artifactId}, walking its
+ * dependencies and checking tags do not allocate. Layout (all integers big-endian):</p>
+ * <pre>
+ * header      magic, version, stringCount, tagCount, tagWords, fractionCount,
+ *             stringTableOffset, tagTableOffset, fractionTableOffset, adjacencyOffset
+ * strings     stringCount absolute offsets, each pointing at an unsigned short length and UTF-8 bytes
+ * tags        tagCount string indexes, sorted by tag
+ * fractions   fractionCount fixed-size records sorted by groupId, then artifactId (UTF-8 byte order):
+ *             groupId, artifactId, version, scope, name, description string indexes (-1 for none),
+ *             stability (byte), flags (byte), 2 bytes padding, adjacency offset, dependency count,
+ *             tagWords longs of tag bits
+ * adjacency   fraction indexes of the dependencies of each fraction
+ * </pre>
+ */
+public final class FractionListIndex {
+
+    public static final int MAGIC = 0x464C4958;
+
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 10 * 4;
+
+    private static final int FLAG_INTERNAL = 1;
+
+    private FractionListIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " fraction list index");
+        }
+        this.stringCount = buffer.getInt(8);
+        this.tagCount = buffer.getInt(12);
+        this.tagWords = buffer.getInt(16);
+        this.fractionCount = buffer.getInt(20);
+        this.stringTable = buffer.getInt(24);
+        this.tagTable = buffer.getInt(28);
+        this.fractionTable = buffer.getInt(32);
+        this.recordSize = 6 * 4 + 4 + 4 + 4 + this.tagWords * 8;
+    }
+
+    public static FractionListIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new FractionListIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static FractionListIndex wrap(ByteBuffer buffer) {
+        return new FractionListIndex(buffer.duplicate());
+    }
+
+    public int size() {
+        return this.fractionCount;
+    }
+
+    /**
+     * @return the index of the fraction, or {@code -1} if there is none
+     */
+    public int find(String groupId, String artifactId) {
+        int low = 0;
+        int high = this.fractionCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = record(mid);
+            int cmp = compare(this.buffer.getInt(record), groupId);
+            if (cmp == 0) {
+                cmp = compare(this.buffer.getInt(record + 4), artifactId);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public String groupId(int fraction) {
+        return string(this.buffer.getInt(record(fraction)));
+    }
+
+    public String artifactId(int fraction) {
+        return string(this.buffer.getInt(record(fraction) + 4));
+    }
+
+    public String version(int fraction) {
+        return string(this.buffer.getInt(record(fraction) + 8));
+    }
+
+    /**
+     * @return the Maven scope, or {@code null} for the default compile scope
+     */
+    public String scope(int fraction) {
+        return string(this.buffer.getInt(record(fraction) + 12));
+    }
+
+    public String name(int fraction) {
+        return string(this.buffer.getInt(record(fraction) + 16));
+    }
+
+    public String description(int fraction) {
+        return string(this.buffer.getInt(record(fraction) + 20));
+    }
+
+    /**
+     * @return the ordinal of the fraction's {@link org.wildfly.swarm.plugin.StabilityLevel}
+     */
+    public int stabilityIndex(int fraction) {
+        return this.buffer.get(record(fraction) + 24);
+    }
+
+    public boolean isInternal(int fraction) {
+        return (this.buffer.get(record(fraction) + 25) & FLAG_INTERNAL) != 0;
+    }
+
+    public int dependencyCount(int fraction) {
+        return this.buffer.getInt(record(fraction) + 32);
+    }
+
+    /**
+     * @return the fraction index of the {@code n}th dependency of {@code fraction}
+     */
+    public int dependency(int fraction, int n) {
+        return this.buffer.getInt(this.buffer.getInt(record(fraction) + 28) + n * 4);
+    }
+
+    /**
+     * @return the id of {@code tag} for {@link #hasTag(int, int)}, or {@code -1} if no fraction has it
+     */
+    public int tagId(String tag) {
+        int low = 0;
+        int high = this.tagCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(this.buffer.getInt(this.tagTable + mid * 4), tag);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasTag(int fraction, int tagId) {
+        if (tagId < 0) {
+            return false;
+        }
+        long word = this.buffer.getLong(record(fraction) + 36 + (tagId >>> 6) * 8);
+        return (word & (1L << (tagId & 63))) != 0;
+    }
+
+    public List<String> tags(int fraction) {
+        List<String> tags = new ArrayList<>();
+        for (int tag = 0; tag < this.tagCount; ++tag) {
+            if (hasTag(fraction, tag)) {
+                tags.add(string(this.buffer.getInt(this.tagTable + tag * 4)));
+            }
+        }
+        return tags;
+    }
+
+    private int record(int fraction) {
+        if (fraction < 0 || fraction >= this.fractionCount) {
+            throw new IndexOutOfBoundsException("No fraction " + fraction);
+        }
+        return this.fractionTable + fraction * this.recordSize;
+    }
+
+    private String string(int index) {
+        if (index < 0) {
+            return null;
+        }
+        if (index >= this.stringCount) {
+            throw new IllegalStateException("Corrupt fraction list index: no string " + index);
+        }
+        int offset = this.buffer.getInt(this.stringTable + index * 4);
+        int length = this.buffer.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(offset + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares pooled string {@code index} with {@code value} in UTF-8 byte order, without allocating for ASCII values.
+     */
+    private int compare(int index, String value) {
+        int offset = this.buffer.getInt(this.stringTable + index * 4);
+        int length = this.buffer.getShort(offset) & 0xFFFF;
+        int valueLength = value.length();
+        for (int i = 0; i < valueLength; ++i) {
+            if (value.charAt(i) >= 0x80) {
+                return compareBytes(offset, length, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int common = Math.min(length, valueLength);
+        for (int i = 0; i < common; ++i) {
+            int cmp = (this.buffer.get(offset + 2 + i) & 0xFF) - value.charAt(i);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - valueLength;
+    }
+
+    private int compareBytes(int offset, int length, byte[] value) {
+        int common = Math.min(length, value.length);
+        for (int i = 0; i < common; ++i) {
+            int cmp = (this.buffer.get(offset + 2 + i) & 0xFF) - (value[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - value.length;
+    }
+
+    static void write(List<FractionMetadata> fractions, Function<FractionMetadata, List<FractionMetadata>> dependencies,
+                      OutputStream out) throws IOException {
+        List<FractionMetadata> sorted = new ArrayList<>(fractions);
+        sorted.sort(Comparator.comparing((FractionMetadata f) -> utf8(f.getGroupId()), FractionListIndex::compareUtf8)
+                            .thenComparing(f -> utf8(f.getArtifactId()), FractionListIndex::compareUtf8));
+        Map<FractionMetadata, Integer> positions = new HashMap<>();
+        for (int i = 0; i < sorted.size(); ++i) {
+            positions.putIfAbsent(sorted.get(i), i);
+        }
+
+        TreeSet<byte[]> tagSet = new TreeSet<>(FractionListIndex::compareUtf8);
+        for (FractionMetadata fraction : sorted) {
+            for (String tag : fraction.getTags()) {
+                tagSet.add(utf8(tag.trim()));
+            }
+        }
+        List<String> tags = new ArrayList<>();
+        Map<String, Integer> tagIds = new HashMap<>();
+        for (byte[] tag : tagSet) {
+            String value = new String(tag, StandardCharsets.UTF_8);
+            tagIds.put(value, tags.size());
+            tags.add(value);
+        }
+        int tagWords = (tags.size() + 63) / 64;
+
+        StringPool strings = new StringPool();
+        int[] tagStrings = new int[tags.size()];
+        for (int i = 0; i < tags.size(); ++i) {
+            tagStrings[i] = strings.add(tags.get(i));
+        }
+        int recordSize = 6 * 4 + 4 + 4 + 4 + tagWords * 8;
+        int[][] records = new int[sorted.size()][];
+        List<int[]> adjacency = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); ++i) {
+            FractionMetadata fraction = sorted.get(i);
+            List<Integer> deps = new ArrayList<>();
+            for (FractionMetadata dependency : dependencies.apply(fraction)) {
+                Integer position = positions.get(dependency);
+                if (position != null) {
+                    deps.add(position);
+                }
+            }
+            adjacency.add(deps.stream().mapToInt(Integer::intValue).toArray());
+            records[i] = new int[]{
+                    strings.add(fraction.getGroupId()),
+                    strings.add(fraction.getArtifactId()),
+                    strings.add(fraction.getVersion()),
+                    fraction.hasDefaultScope() ? -1 : strings.add(fraction.getScope()),
+                    strings.add(fraction.getName()),
+                    strings.add(fraction.getDescription())
+            };
+        }
+
+        int stringTable = HEADER_SIZE;
+        int stringData = stringTable + strings.size() * 4;
+        int tagTable = stringData + strings.dataSize();
+        int fractionTable = tagTable + tags.size() * 4;
+        int adjacencyOffset = fractionTable + sorted.size() * recordSize;
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(strings.size());
+        data.writeInt(tags.size());
+        data.writeInt(tagWords);
+        data.writeInt(sorted.size());
+        data.writeInt(stringTable);
+        data.writeInt(tagTable);
+        data.writeInt(fractionTable);
+        data.writeInt(adjacencyOffset);
+
+        int offset = stringData;
+        for (byte[] string : strings.values) {
+            data.writeInt(offset);
+            offset += 2 + string.length;
+        }
+        for (byte[] string : strings.values) {
+            data.writeShort(string.length);
+            data.write(string);
+        }
+        for (int tagString : tagStrings) {
+            data.writeInt(tagString);
+        }
+
+        int adjacencyPosition = adjacencyOffset;
+        for (int i = 0; i < sorted.size(); ++i) {
+            FractionMetadata fraction = sorted.get(i);
+            for (int string : records[i]) {
+                data.writeInt(string);
+            }
+            data.writeByte(fraction.getStabilityIndex().ordinal());
+            data.writeByte(fraction.isInternal() ? FLAG_INTERNAL : 0);
+            data.writeShort(0);
+            data.writeInt(adjacencyPosition);
+            data.writeInt(adjacency.get(i).length);
+            adjacencyPosition += adjacency.get(i).length * 4;
+            long[] bits = new long[tagWords];
+            for (String tag : fraction.getTags()) {
+                int id = tagIds.get(tag.trim());
+                bits[id >>> 6] |= 1L << (id & 63);
+            }
+            for (long word : bits) {
+                data.writeLong(word);
+            }
+        }
+        for (int[] deps : adjacency) {
+            for (int dep : deps) {
+                data.writeInt(dep);
+            }
+        }
+        data.flush();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int compareUtf8(byte[] left, byte[] right) {
+        int common = Math.min(left.length, right.length);
+        for (int i = 0; i < common; ++i) {
+            int cmp = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return left.length - right.length;
+    }
+
+    private final ByteBuffer buffer;
+
+    private final int stringCount;
+
+    private final int tagCount;
+
+    private final int tagWords;
+
+    private final int fractionCount;
+
+    private final int stringTable;
+
+    private final int tagTable;
+
+    private final int fractionTable;
+
+    private final int recordSize;
+
+    private static final class StringPool {
+
+        int add(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return this.indexes.computeIfAbsent(value, v -> {
+                byte[] bytes = utf8(v);
+                if (bytes.length > 0xFFFF) {
+                    throw new IllegalArgumentException("String too long for the fraction list index: " + v.substring(0, 64) + "...");
+                }
+                this.values.add(bytes);
+                this.dataSize += 2 + bytes.length;
+                return this.values.size() - 1;
+            });
+        }
+
+        int size() {
+            return this.values.size();
+        }
+
+        int dataSize() {
+            return this.dataSize;
+        }
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private final List<byte[]> values = new ArrayList<>();
+
+        private int dataSize;
+    }
+}
@@ -15,18 +15,20 @@
  */
 package org.wildfly.swarm.plugin.fractionlist;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -35,7 +37,9 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.wildfly.swarm.plugin.AbstractFractionsMojo;
+import org.wildfly.swarm.plugin.FractionGraph;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.FractionRegistry;
 
 import static java.nio.file.Files.copy;
 
@@ -55,105 +59,50 @@ public class FractionListMojo extends AbstractFractionsMojo {
     public void execute() throws MojoExecutionException, MojoFailureException {
         Set<FractionMetadata> fractions = fractions();
 
-        generateTxt(fractions);
-        generateJSON(fractions);
-        generateJavascript(fractions);
+        generateLists(fractions);
         extractDetectors(fractions);
     }
 
-    private void generateTxt(Set<FractionMetadata> fractions) {
-
-        File outFile = new File(this.project.getBuild().getOutputDirectory(), "fraction-list.txt");
-
-        outFile.getParentFile().mkdirs();
-
-        try (FileWriter out = new FileWriter(outFile)) {
-            for (FractionMetadata each : fractions) {
-                out.write(each.getFractionListString());
-                out.write(" = ");
-                out.write(each.getDependenciesString());
-                out.write("\n");
-            }
+    private void generateLists(Set<FractionMetadata> fractions) throws MojoExecutionException {
+        File outputDirectory = new File(this.project.getBuild().getOutputDirectory());
+        File txtFile = new File(outputDirectory, "fraction-list.txt");
+        File jsonFile = new File(outputDirectory, "fraction-list.json");
+        File jsFile = new File(outputDirectory, "fraction-list.js");
+        File idxFile = new File(outputDirectory, "fraction-list.idx");
+
+        outputDirectory.mkdirs();
+
+        try (Writer txt = Files.newBufferedWriter(txtFile.toPath(), StandardCharsets.UTF_8);
+             Writer json = Files.newBufferedWriter(jsonFile.toPath(), StandardCharsets.UTF_8);
+             Writer js = Files.newBufferedWriter(jsFile.toPath(), StandardCharsets.UTF_8);
+             OutputStream idx = new BufferedOutputStream(Files.newOutputStream(idxFile.toPath()))) {
+            FractionListWriter writer = new FractionListWriter(fractions, new FractionGraph(FractionRegistry.INSTANCE::of));
+            writer.write(txt, json, js, swarmVersion);
+            writer.writeIndex(idx);
         } catch (IOException e) {
-            getLog().error(e);
+            throw new MojoExecutionException("Unable to write fraction list", e);
+        } catch (IllegalStateException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
         }
 
-        org.apache.maven.artifact.DefaultArtifact artifact = new org.apache.maven.artifact.DefaultArtifact(
-                this.project.getGroupId(),
-                this.project.getArtifactId(),
-                this.project.getVersion(),
-                "compile",
-                "txt",
-                "",
-                new DefaultArtifactHandler("txt")
-        );
-
-        artifact.setFile(outFile);
-        this.project.addAttachedArtifact(artifact);
+        attach(txtFile, "txt");
+        attach(jsonFile, "json");
+        attach(jsFile, "js");
+        attach(idxFile, "idx");
     }
 
-    private void generateJSON(Set<FractionMetadata> fractions) {
-        ObjectMapper mapper = new ObjectMapper();
-
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-
-        File outFile = new File(this.project.getBuild().getOutputDirectory(), "fraction-list.json");
-
-        try {
-            mapper.writeValue(outFile, fractions);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
+    private void attach(File file, String type) {
         org.apache.maven.artifact.DefaultArtifact artifact = new org.apache.maven.artifact.DefaultArtifact(
                 this.project.getGroupId(),
                 this.project.getArtifactId(),
                 this.project.getVersion(),
                 "compile",
-                "json",
+                type,
                 "",
-                new DefaultArtifactHandler("json")
+                new DefaultArtifactHandler(type)
         );
 
-        artifact.setFile(outFile);
-        this.project.addAttachedArtifact(artifact);
-    }
-
-    private void generateJavascript(Set<FractionMetadata> fractions) {
-        Set<FractionMetadata> fractionsWithoutDeps = fractions.stream()
-                .map(FractionMetadata::new)
-                .collect(Collectors.toSet());
-
-        ObjectMapper mapper = new ObjectMapper();
-
-        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
-
-        File outFile = new File(this.project.getBuild().getOutputDirectory(), "fraction-list.js");
-
-        try (FileWriter writer = new FileWriter(outFile)) {
-            writer.write("swarmVersion='" + swarmVersion + "';");
-            writer.write("fractionList = ");
-            writer.flush();
-
-            mapper.writeValue(writer, fractionsWithoutDeps);
-
-            writer.write(";");
-            writer.flush();
-        } catch (IOException e) {
-            getLog().error(e);
-        }
-
-        org.apache.maven.artifact.DefaultArtifact artifact = new org.apache.maven.artifact.DefaultArtifact(
-                this.project.getGroupId(),
-                this.project.getArtifactId(),
-                this.project.getVersion(),
-                "compile",
-                "js",
-                "",
-                new DefaultArtifactHandler("js")
-        );
-
-        artifact.setFile(outFile);
+        artifact.setFile(file);
         this.project.addAttachedArtifact(artifact);
     }
 
@@ -187,19 +136,13 @@ public class FractionListMojo extends AbstractFractionsMojo {
         }
 
         try (FileWriter writer = new FileWriter(outFile)) {
-            fractionsWithDetectors
-                    .stream()
-                    .flatMap(f -> f.getDetectorClasses().keySet().stream())
-                    .map(p -> p.toString().substring(0, p.toString().lastIndexOf('.')))
-                    .map(s -> s.replace(File.separatorChar, '.'))
-                    .forEach(p -> {
-                        try {
-                            writer.write(p);
-                            writer.write("\n");
-                        } catch (IOException e) {
-                            getLog().error(e);
-                        }
-                    });
+            // the detect packages also hold what detectors are built from, which is copied but is no service
+            for (FractionMetadata fraction : fractionsWithDetectors) {
+                for (String detector : DetectorSources.detectorClasses(fraction.getDetectorClasses())) {
+                    writer.write(detector);
+                    writer.write("\n");
+                }
+            }
 
             writer.flush();
         } catch (IOException e) {
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2015-2016 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.fractionlist;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.wildfly.swarm.plugin.FractionGraph;
+import org.wildfly.swarm.plugin.FractionMetadata;
+
+/**
+ * Writes {@code fraction-list.txt}, {@code fraction-list.json} and {@code fraction-list.js} in a single pass over
+ * the fractions, sorted by coordinates, plus the binary {@code fraction-list.idx}. The fraction dependencies of each fraction
+ * come from a shared {@link FractionGraph}, so they are looked up once for all outputs.
+ */
+class FractionListWriter {
+
+    FractionListWriter(Collection<FractionMetadata> fractions, FractionGraph graph) {
+        this.fractions = new TreeSet<>(fractions);
+        this.graph = graph;
+    }
+
+    void write(Writer txt, Writer json, Writer js, String swarmVersion) throws IOException {
+        JsonFactory factory = new JsonFactory();
+        factory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try (JsonGenerator jsonOut = factory.createGenerator(json).useDefaultPrettyPrinter();
+             JsonGenerator jsOut = factory.createGenerator(js)) {
+            jsOut.writeRaw("swarmVersion='" + swarmVersion + "';fractionList = ");
+
+            jsonOut.writeStartArray();
+            jsOut.writeStartArray();
+            for (FractionMetadata fraction : this.fractions) {
+                txt.write(fraction.getFractionListString());
+                txt.write(" = ");
+                txt.write(this.graph.dependencies(fraction).stream().map(FractionMetadata::toString).collect(Collectors.joining(", ")));
+                txt.write("\n");
+
+                writeFraction(jsonOut, fraction);
+                // the JavaScript list only carries the fractions themselves
+                writeFields(jsOut, fraction);
+                jsOut.writeArrayFieldStart("fractionDependencies");
+                jsOut.writeEndArray();
+                jsOut.writeEndObject();
+            }
+            jsonOut.writeEndArray();
+            jsOut.writeEndArray();
+            jsOut.writeRaw(";");
+        }
+    }
+
+    /**
+     * Writes the binary {@link FractionListIndex} of the same fractions.
+     */
+    void writeIndex(OutputStream out) throws IOException {
+        FractionListIndex.write(new ArrayList<>(this.fractions), this.graph::dependencies, out);
+    }
+
+    private void writeFraction(JsonGenerator out, FractionMetadata fraction) throws IOException {
+        // fails on cycles before recursing into them
+        Set<FractionMetadata> transitive = this.graph.transitiveDependencies(fraction);
+        writeFields(out, fraction);
+        out.writeArrayFieldStart("transitiveFractionDependencies");
+        for (FractionMetadata dependency : transitive) {
+            out.writeString(dependency.toString());
+        }
+        out.writeEndArray();
+        out.writeArrayFieldStart("fractionDependencies");
+        for (FractionMetadata dependency : this.graph.dependencies(fraction)) {
+            writeFraction(out, dependency);
+        }
+        out.writeEndArray();
+        out.writeEndObject();
+    }
+
+    private static void writeFields(JsonGenerator out, FractionMetadata fraction) throws IOException {
+        out.writeStartObject();
+        out.writeStringField("groupId", fraction.getGroupId());
+        out.writeStringField("artifactId", fraction.getArtifactId());
+        out.writeStringField("version", fraction.getVersion());
+        if (!fraction.hasDefaultScope()) {
+            out.writeStringField("scope", fraction.getScope());
+        }
+        out.writeStringField("name", fraction.getName());
+        out.writeStringField("description", fraction.getDescription());
+        out.writeStringField("tags", fraction.getTagsString());
+        out.writeBooleanField("internal", fraction.isInternal());
+        out.writeNumberField("stabilityIndex", fraction.jsonStabilityIndex());
+        out.writeStringField("stabilityDescription", fraction.jsonStabilityDescription());
+    }
+
+    private final Set<FractionMetadata> fractions;
+
+    private final FractionGraph graph;
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.jfr;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * A timed span of plugin work, reported to Java Flight Recorder when a recording is active. Obtain one from
+ * {@link PluginEvents} and close it when the work is done.
+ */
+public interface PluginEvent extends AutoCloseable {
+
+    /**
+     * Used whenever JFR is unavailable or the event type is disabled; every method is a no-op.
+     */
+    PluginEvent NOOP = new PluginEvent() {
+        @Override
+        public PluginEvent file(String file) {
+            return this;
+        }
+
+        @Override
+        public PluginEvent bytes(long bytes) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    PluginEvent file(String file);
+
+    default PluginEvent file(File file) {
+        return file == null ? this : file(file.getPath());
+    }
+
+    default PluginEvent file(Path file) {
+        return file == null ? this : file(file.toString());
+    }
+
+    PluginEvent bytes(long bytes);
+
+    /**
+     * Ends the event and commits it to the recording.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.jfr;
+
+/**
+ * Creates the events of {@link PluginEvents}. The JFR implementation is compiled from {@code src/main/jfr}, on
+ * JDK 11 or newer only, and loaded reflectively, so that the plugin builds and runs on a JDK without {@code jdk.jfr}.
+ */
+interface PluginEventFactory {
+
+    PluginEvent featurePackScan(String gav);
+
+    PluginEvent moduleXmlParse(String gav);
+
+    PluginEvent artifactResolution(String gav);
+
+    PluginEvent jandexIndex(String gav);
+
+    PluginEvent checksum(String gav);
+
+    PluginEvent repositoryZipWrite(String gav);
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.jfr;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Entry point for the plugin's JFR events. Event classes are only touched when {@code jdk.jfr} is present on
+ * the running JDK, the plugin was built with them, and the event type is enabled in the current recording,
+ * otherwise {@link PluginEvent#NOOP} is handed out.
+ */
+public final class PluginEvents {
+
+    private static final PluginEventFactory EVENTS = load();
+
+    private PluginEvents() {
+    }
+
+    public static PluginEvent featurePackScan(String gav, File featurePack) {
+        return EVENTS == null ? PluginEvent.NOOP : EVENTS.featurePackScan(gav).file(featurePack);
+    }
+
+    public static PluginEvent moduleXmlParse(String gav, Path moduleXml) {
+        return EVENTS == null ? PluginEvent.NOOP : EVENTS.moduleXmlParse(gav).file(moduleXml);
+    }
+
+    public static PluginEvent artifactResolution(String gav) {
+        return EVENTS == null ? PluginEvent.NOOP : EVENTS.artifactResolution(gav);
+    }
+
+    public static PluginEvent jandexIndex(String gav, File classesDir) {
+        return EVENTS == null ? PluginEvent.NOOP : EVENTS.jandexIndex(gav).file(classesDir);
+    }
+
+    public static PluginEvent checksum(String gav) {
+        return EVENTS == null ? PluginEvent.NOOP : EVENTS.checksum(gav);
+    }
+
+    public static PluginEvent repositoryZipWrite(String gav, File file) {
+        return EVENTS == null ? PluginEvent.NOOP : EVENTS.repositoryZipWrite(gav).file(file);
+    }
+
+    private static PluginEventFactory load() {
+        ClassLoader loader = PluginEvents.class.getClassLoader();
+        try {
+            Class.forName("jdk.jfr.Event", false, loader);
+            return (PluginEventFactory) Class.forName(PluginEvents.class.getPackage().getName() + ".JfrEvents", true, loader)
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // no jdk.jfr, or a plugin built on a JDK without it
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.metrics;
+
+/**
+ * Per-thread file I/O counters, bumped by the code that reads and writes build files and sampled around each
+ * process stage. Counters are thread-local so parallel reactor builds ({@code -T}) don't mix their numbers.
+ */
+public class IoCounters {
+
+    private static final int FILES_READ = 0;
+
+    private static final int BYTES_READ = 1;
+
+    private static final int FILES_WRITTEN = 2;
+
+    private static final int BYTES_WRITTEN = 3;
+
+    private static final int FILES_UNCHANGED = 4;
+
+    private static final int FILES_DELETED = 5;
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[6]);
+
+    private IoCounters() {
+    }
+
+    public static void recordRead(long bytes) {
+        long[] counters = COUNTERS.get();
+        counters[FILES_READ]++;
+        counters[BYTES_READ] += bytes;
+    }
+
+    public static void recordWrite(long bytes) {
+        long[] counters = COUNTERS.get();
+        counters[FILES_WRITTEN]++;
+        counters[BYTES_WRITTEN] += bytes;
+    }
+
+    public static void recordUnchanged() {
+        COUNTERS.get()[FILES_UNCHANGED]++;
+    }
+
+    public static void recordDelete() {
+        COUNTERS.get()[FILES_DELETED]++;
+    }
+
+    static long[] snapshot() {
+        return COUNTERS.get().clone();
+    }
+
+    static long filesRead(long[] before, long[] after) {
+        return after[FILES_READ] - before[FILES_READ];
+    }
+
+    static long bytesRead(long[] before, long[] after) {
+        return after[BYTES_READ] - before[BYTES_READ];
+    }
+
+    static long filesWritten(long[] before, long[] after) {
+        return after[FILES_WRITTEN] - before[FILES_WRITTEN];
+    }
+
+    static long bytesWritten(long[] before, long[] after) {
+        return after[BYTES_WRITTEN] - before[BYTES_WRITTEN];
+    }
+
+    static long filesUnchanged(long[] before, long[] after) {
+        return after[FILES_UNCHANGED] - before[FILES_UNCHANGED];
+    }
+
+    static long filesDeleted(long[] before, long[] after) {
+        return after[FILES_DELETED] - before[FILES_DELETED];
+    }
+}
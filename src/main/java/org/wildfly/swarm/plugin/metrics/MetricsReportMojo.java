@@ -0,0 +1,227 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.inject.Inject;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Collects the {@value ProcessMetrics#FILE_NAME} files written by the {@code process} goal across the reactor and
+ * ranks the slowest fractions and stages.
+ */
+@Mojo(name = "metrics-report", aggregator = true)
+public class MetricsReportMojo extends AbstractMojo {
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        ObjectMapper mapper = new ObjectMapper();
+
+        List<JsonNode> metrics = new ArrayList<>();
+        for (MavenProject each : this.mavenSession.getProjects()) {
+            Path metricsFile = Paths.get(each.getBuild().getDirectory(), ProcessMetrics.FILE_NAME);
+            if (!Files.exists(metricsFile)) {
+                continue;
+            }
+            try {
+                metrics.add(mapper.readTree(metricsFile.toFile()));
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed reading " + metricsFile, e);
+            }
+        }
+
+        if (metrics.isEmpty()) {
+            getLog().warn("No " + ProcessMetrics.FILE_NAME + " found in the reactor, run the 'process' goal first");
+            return;
+        }
+
+        ObjectNode report = summarize(mapper, metrics);
+
+        getLog().info("Slowest fractions (process goal):");
+        int listed = 0;
+        for (JsonNode fraction : report.path("fractions")) {
+            if (listed++ == this.top) {
+                break;
+            }
+            getLog().info(String.format("%80s %10d ms", fraction.path("fraction").asText(), millis(fraction.path(WALL_NANOS).asLong())));
+        }
+
+        getLog().info("Process stages across " + metrics.size() + " fractions:");
+        getLog().info(String.format("%40s %10s %10s %12s %10s %10s %10s %12s %12s",
+                                    STAGE, "wall ms", "cpu ms", "alloc MB", "read", "written", "deleted", "read MB", "written MB"));
+        for (JsonNode stage : report.path("stages")) {
+            getLog().info(String.format("%40s %10d %10d %12d %10d %10d %10d %12d %12d",
+                                        stage.path(STAGE).asText(),
+                                        millis(stage.path(WALL_NANOS).asLong()),
+                                        millis(stage.path("cpuNanos").asLong()),
+                                        stage.path("allocatedBytes").asLong() / MEGABYTE,
+                                        stage.path("filesRead").asLong(),
+                                        stage.path("filesWritten").asLong(),
+                                        stage.path("filesDeleted").asLong(),
+                                        stage.path("bytesRead").asLong() / MEGABYTE,
+                                        stage.path("bytesWritten").asLong() / MEGABYTE));
+        }
+
+        File reportFile = new File(this.project.getBuild().getDirectory(), REPORT_NAME);
+        try {
+            Files.createDirectories(reportFile.getParentFile().toPath());
+            mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed writing " + reportFile, e);
+        }
+        getLog().info("Wrote process metrics report to " + reportFile);
+    }
+
+    /**
+     * @return the fractions, slowest first, and the per-stage totals across them, slowest first
+     */
+    static ObjectNode summarize(ObjectMapper mapper, List<JsonNode> metrics) {
+        List<FractionTotal> fractions = new ArrayList<>();
+        Map<String, StageTotal> stages = new TreeMap<>();
+        for (JsonNode each : metrics) {
+            String fraction = each.path("groupId").asText() + ":" + each.path("artifactId").asText();
+            fractions.add(new FractionTotal(fraction, each.path("totalWallNanos").asLong()));
+
+            for (JsonNode stage : each.path("stages")) {
+                stages.computeIfAbsent(stage.path(STAGE).asText(), StageTotal::new).add(stage);
+            }
+        }
+
+        fractions.sort(Comparator.comparingLong((FractionTotal f) -> f.wallNanos).reversed());
+        List<StageTotal> rankedStages = new ArrayList<>(stages.values());
+        rankedStages.sort(Comparator.comparingLong((StageTotal s) -> s.wallNanos).reversed());
+
+        ObjectNode report = mapper.createObjectNode();
+
+        ArrayNode fractionNodes = report.putArray("fractions");
+        for (FractionTotal fraction : fractions) {
+            fractionNodes.addObject()
+                    .put("fraction", fraction.fraction)
+                    .put(WALL_NANOS, fraction.wallNanos);
+        }
+
+        ArrayNode stageNodes = report.putArray("stages");
+        for (StageTotal stage : rankedStages) {
+            stageNodes.addObject()
+                    .put(STAGE, stage.stage)
+                    .put(WALL_NANOS, stage.wallNanos)
+                    .put("cpuNanos", stage.cpuNanos)
+                    .put("allocatedBytes", stage.allocatedBytes)
+                    .put("filesRead", stage.filesRead)
+                    .put("bytesRead", stage.bytesRead)
+                    .put("filesWritten", stage.filesWritten)
+                    .put("bytesWritten", stage.bytesWritten)
+                    .put("filesUnchanged", stage.filesUnchanged)
+                    .put("filesDeleted", stage.filesDeleted);
+        }
+        return report;
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+
+    private static final String REPORT_NAME = "fraction-plugin-metrics-report.json";
+
+    private static final String STAGE = "stage";
+
+    private static final String WALL_NANOS = "wallNanos";
+
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    /**
+     * Number of slowest fractions to list in the build log.
+     */
+    @Parameter(defaultValue = "20")
+    private int top;
+
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    @Inject
+    private MavenSession mavenSession;
+
+    private static final class FractionTotal {
+        FractionTotal(String fraction, long wallNanos) {
+            this.fraction = fraction;
+            this.wallNanos = wallNanos;
+        }
+
+        private final String fraction;
+
+        private final long wallNanos;
+    }
+
+    private static final class StageTotal {
+        StageTotal(String stage) {
+            this.stage = stage;
+        }
+
+        void add(JsonNode metrics) {
+            this.wallNanos += metrics.path(WALL_NANOS).asLong();
+            this.cpuNanos += Math.max(0, metrics.path("cpuNanos").asLong());
+            this.allocatedBytes += Math.max(0, metrics.path("allocatedBytes").asLong());
+            this.filesRead += metrics.path("filesRead").asLong();
+            this.bytesRead += metrics.path("bytesRead").asLong();
+            this.filesWritten += metrics.path("filesWritten").asLong();
+            this.bytesWritten += metrics.path("bytesWritten").asLong();
+            this.filesUnchanged += metrics.path("filesUnchanged").asLong();
+            this.filesDeleted += metrics.path("filesDeleted").asLong();
+        }
+
+        private final String stage;
+
+        private long wallNanos;
+
+        private long cpuNanos;
+
+        private long allocatedBytes;
+
+        private long filesRead;
+
+        private long bytesRead;
+
+        private long filesWritten;
+
+        private long bytesWritten;
+
+        private long filesUnchanged;
+
+        private long filesDeleted;
+    }
+}
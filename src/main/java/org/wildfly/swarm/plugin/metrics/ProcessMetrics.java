@@ -0,0 +1,137 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.wildfly.swarm.plugin.FractionMetadata;
+
+/**
+ * Collects wall-clock, CPU, allocation and file I/O figures for each stage of the {@code process} goal and
+ * writes them to {@value #FILE_NAME} in the project's build directory.
+ */
+@JsonPropertyOrder({"groupId", "artifactId", "version", "totalWallNanos", "stages"})
+public class ProcessMetrics {
+
+    public static final String FILE_NAME = "fraction-plugin-metrics.json";
+
+    public ProcessMetrics(MavenProject project) {
+        this.groupId = project.getGroupId();
+        this.artifactId = project.getArtifactId();
+        this.version = project.getVersion();
+    }
+
+    public FractionMetadata measure(String stage, Stage action) throws MojoExecutionException {
+        StageMetrics metrics = new StageMetrics(stage);
+        this.stages.add(metrics);
+
+        long[] ioBefore = IoCounters.snapshot();
+        long cpuBefore = cpuTime();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return action.apply();
+        } finally {
+            metrics.wallNanos = System.nanoTime() - start;
+            if (cpuBefore >= 0) {
+                metrics.cpuNanos = cpuTime() - cpuBefore;
+            }
+            if (allocatedBefore >= 0) {
+                metrics.allocatedBytes = allocatedBytes() - allocatedBefore;
+            }
+            long[] ioAfter = IoCounters.snapshot();
+            metrics.filesRead = IoCounters.filesRead(ioBefore, ioAfter);
+            metrics.bytesRead = IoCounters.bytesRead(ioBefore, ioAfter);
+            metrics.filesWritten = IoCounters.filesWritten(ioBefore, ioAfter);
+            metrics.bytesWritten = IoCounters.bytesWritten(ioBefore, ioAfter);
+            metrics.filesUnchanged = IoCounters.filesUnchanged(ioBefore, ioAfter);
+            metrics.filesDeleted = IoCounters.filesDeleted(ioBefore, ioAfter);
+        }
+    }
+
+    public void write(Path buildDir) throws IOException {
+        Files.createDirectories(buildDir);
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(buildDir.resolve(FILE_NAME).toFile(), this);
+    }
+
+    public String getGroupId() {
+        return this.groupId;
+    }
+
+    public String getArtifactId() {
+        return this.artifactId;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public long getTotalWallNanos() {
+        return this.stages.stream().mapToLong(StageMetrics::getWallNanos).sum();
+    }
+
+    public List<StageMetrics> getStages() {
+        return this.stages;
+    }
+
+    private static long cpuTime() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled()) {
+            return threads.getCurrentThreadCpuTime();
+        }
+        return -1;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private final String groupId;
+
+    private final String artifactId;
+
+    private final String version;
+
+    private final List<StageMetrics> stages = new ArrayList<>();
+
+    /**
+     * A single {@code process} stage.
+     */
+    @FunctionalInterface
+    public interface Stage {
+        FractionMetadata apply() throws MojoExecutionException;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.metrics;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Cost of a single {@code process} stage for one fraction.
+ */
+@JsonPropertyOrder({"stage", "wallNanos", "cpuNanos", "allocatedBytes",
+        "filesRead", "bytesRead", "filesWritten", "bytesWritten", "filesUnchanged", "filesDeleted"})
+public class StageMetrics {
+
+    StageMetrics(String stage) {
+        this.stage = stage;
+    }
+
+    public String getStage() {
+        return this.stage;
+    }
+
+    public long getWallNanos() {
+        return this.wallNanos;
+    }
+
+    /**
+     * @return thread CPU time spent in the stage, or {@code -1} if the JVM can't measure it
+     */
+    public long getCpuNanos() {
+        return this.cpuNanos;
+    }
+
+    /**
+     * @return bytes allocated by the stage's thread, or {@code -1} if the JVM can't measure it
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    public long getFilesRead() {
+        return this.filesRead;
+    }
+
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    public long getFilesWritten() {
+        return this.filesWritten;
+    }
+
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    public long getFilesUnchanged() {
+        return this.filesUnchanged;
+    }
+
+    public long getFilesDeleted() {
+        return this.filesDeleted;
+    }
+
+    private final String stage;
+
+    long wallNanos;
+
+    long cpuNanos = -1;
+
+    long allocatedBytes = -1;
+
+    long filesRead;
+
+    long bytesRead;
+
+    long filesWritten;
+
+    long bytesWritten;
+
+    long filesUnchanged;
+
+    long filesDeleted;
+}
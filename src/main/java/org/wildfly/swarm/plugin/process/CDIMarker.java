@@ -1,47 +1,133 @@
 package org.wildfly.swarm.plugin.process;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.IndexView;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
 
 /**
+ * Marks the fraction as an annotated bean archive and lists its bean classes in {@code META-INF/bean-classes}, so
+ * that the container does not have to scan the archive for bean defining annotations.
+ *
  * @author Ken Finnigan
  */
 public class CDIMarker {
 
     private static final String CDI_MARKER = "META-INF/beans.xml";
 
+    static final String BEAN_CLASSES = "META-INF/bean-classes";
+
     public CDIMarker(Log log, MavenProject project) {
+        this(log, project, new ClassModel(Paths.get(project.getBuild().getOutputDirectory())));
+    }
+
+    public CDIMarker(Log log, MavenProject project, ClassModel classes) {
         this.log = log;
         this.project = project;
+        this.classes = classes;
     }
 
     public FractionMetadata apply(FractionMetadata meta) throws MojoExecutionException {
         if (meta.hasJavaCode()) {
-            File cdiMarker = new File(this.project.getBuild().getOutputDirectory(), CDI_MARKER);
-            cdiMarker.getParentFile().mkdirs();
-            try (FileWriter writer = new FileWriter(cdiMarker)) {
-                writer.write("<beans xmlns=\"http://xmlns.jcp.org/xml/ns/javaee\"\n" +
+            Path cdiMarker = Paths.get(this.project.getBuild().getOutputDirectory(), CDI_MARKER);
+            try {
+                OutputFileUtil.writeIfChanged(cdiMarker, "<beans xmlns=\"http://xmlns.jcp.org/xml/ns/javaee\"\n" +
                         "       xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
                         "       xsi:schemaLocation=\"http://xmlns.jcp.org/xml/ns/javaee \n" +
                         "\t\thttp://xmlns.jcp.org/xml/ns/javaee/beans_1_1.xsd\"\n" +
                         "       bean-discovery-mode=\"annotated\">\n" +
                         "</beans>");
-                writer.flush();
             } catch (IOException e) {
                 throw new MojoExecutionException("Failed writing " + CDI_MARKER, e);
             }
+
+            Path beanClasses = Paths.get(this.project.getBuild().getOutputDirectory(), BEAN_CLASSES);
+            try {
+                StringBuilder content = new StringBuilder();
+                for (String beanClass : beanClasses(this.classes.index())) {
+                    content.append(beanClass).append('\n');
+                }
+                OutputFileUtil.writeIfChanged(beanClasses, content.toString());
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed writing " + BEAN_CLASSES, e);
+            }
         }
 
         return meta;
     }
 
+    /**
+     * @return the sorted names of the classes carrying a bean defining annotation: a normal scope, {@code @Dependent},
+     * {@code @Interceptor}, {@code @Decorator} or a stereotype. Custom scopes and stereotypes are recognized when
+     * declared in the fraction itself.
+     */
+    static Set<String> beanClasses(IndexView index) {
+        Set<DotName> beanDefining = new HashSet<>(BEAN_DEFINING_ANNOTATIONS);
+        for (DotName meta : Arrays.asList(NORMAL_SCOPE, STEREOTYPE)) {
+            for (AnnotationInstance declaration : index.getAnnotations(meta)) {
+                if (declaration.target().kind() == AnnotationTarget.Kind.CLASS) {
+                    beanDefining.add(declaration.target().asClass().name());
+                }
+            }
+        }
+
+        Set<String> beanClasses = new TreeSet<>();
+        for (DotName annotation : beanDefining) {
+            for (AnnotationInstance instance : index.getAnnotations(annotation)) {
+                if (instance.target().kind() != AnnotationTarget.Kind.CLASS) {
+                    continue;
+                }
+                ClassInfo beanClass = instance.target().asClass();
+                int flags = beanClass.flags();
+                boolean isAbstract = Modifier.isAbstract(flags) && !annotation.equals(DECORATOR);
+                if (!Modifier.isInterface(flags) && !isAbstract && (flags & ANNOTATION) == 0) {
+                    beanClasses.add(beanClass.name().toString());
+                }
+            }
+        }
+        return beanClasses;
+    }
+
+    private static final DotName NORMAL_SCOPE = DotName.createSimple("javax.enterprise.context.NormalScope");
+
+    private static final DotName STEREOTYPE = DotName.createSimple("javax.enterprise.inject.Stereotype");
+
+    private static final DotName DECORATOR = DotName.createSimple("javax.decorator.Decorator");
+
+    private static final List<DotName> BEAN_DEFINING_ANNOTATIONS = Arrays.asList(
+            DotName.createSimple("javax.enterprise.context.ApplicationScoped"),
+            DotName.createSimple("javax.enterprise.context.SessionScoped"),
+            DotName.createSimple("javax.enterprise.context.ConversationScoped"),
+            DotName.createSimple("javax.enterprise.context.RequestScoped"),
+            DotName.createSimple("javax.enterprise.context.Dependent"),
+            DotName.createSimple("javax.interceptor.Interceptor"),
+            DotName.createSimple("javax.enterprise.inject.Model"),
+            DECORATOR);
+
+    /**
+     * {@code ACC_ANNOTATION}, not exposed by {@link Modifier}.
+     */
+    private static final int ANNOTATION = 0x2000;
+
     private final MavenProject project;
 
     private final Log log;
+
+    private final ClassModel classes;
 }
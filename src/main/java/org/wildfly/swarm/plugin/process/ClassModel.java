@@ -0,0 +1,177 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.wildfly.swarm.plugin.metrics.IoCounters;
+
+/**
+ * The compiled classes of a fraction, shared by the {@link ProcessMojo} stages so that the classes directory is
+ * walked once and every class file is read at most once.
+ *
+ * <p>Both the class file list and the Jandex index are computed on first use.</p>
+ */
+public class ClassModel {
+
+    public ClassModel(Path classesDir) {
+        this.classesDir = classesDir;
+    }
+
+    public Path getDirectory() {
+        return this.classesDir;
+    }
+
+    /**
+     * @return the class files, empty if the classes directory does not exist
+     */
+    public synchronized List<Path> classFiles() throws IOException {
+        if (this.classFiles == null) {
+            List<Path> files = new ArrayList<>();
+            Set<Path> detectPackages = new TreeSet<>();
+            if (Files.exists(this.classesDir)) {
+                Files.walkFileTree(this.classesDir, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                        Path relative = ClassModel.this.classesDir.relativize(dir);
+                        // the outermost ones only, the removal takes their sub-packages along
+                        if (relative.endsWith("detect") && !isDetectClass(relative)) {
+                            detectPackages.add(relative);
+                        }
+                        return super.preVisitDirectory(dir, attrs);
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        if (file.getFileName().toString().endsWith(".class")) {
+                            files.add(file);
+                        }
+                        return super.visitFile(file, attrs);
+                    }
+                });
+            }
+            this.classFiles = files;
+            this.detectPackages = detectPackages;
+        }
+        return this.classFiles;
+    }
+
+    /**
+     * @return the outermost {@code detect} directories, relative to the classes directory, found by the same walk
+     * as the class files, whether they hold classes or only resources
+     */
+    public synchronized Set<Path> detectPackages() throws IOException {
+        classFiles();
+        return this.detectPackages;
+    }
+
+    /**
+     * @return the {@code /}-separated directories, relative to the classes directory, of the class files whose path
+     * matches {@code filter}
+     */
+    public Set<String> packages(Predicate<String> filter) throws IOException {
+        Set<String> packages = new HashSet<>();
+        for (Path file : classFiles()) {
+            if (filter.test(file.toString())) {
+                packages.add(slashize(this.classesDir.relativize(file.getParent())));
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * Forgets the class files below {@code dir}, after it was deleted from the classes directory.
+     */
+    public synchronized void removed(Path dir) throws IOException {
+        Path absolute = this.classesDir.resolve(dir);
+        classFiles().removeIf(file -> file.startsWith(absolute));
+        this.detectPackages.removeIf(detectPackage -> detectPackage.startsWith(dir));
+    }
+
+    /**
+     * @return the Jandex index of every class outside of a {@code detect} package
+     */
+    public synchronized Index index() throws IOException {
+        if (this.index == null) {
+            Indexer indexer = new Indexer();
+            long bytes = 0;
+            for (Path file : classFiles()) {
+                if (isDetectClass(this.classesDir.relativize(file))) {
+                    continue;
+                }
+                try (InputStream in = Files.newInputStream(file)) {
+                    indexer.index(in);
+                } catch (IOException e) {
+                    throw new IOException("Failed indexing class " + file, e);
+                }
+                long size = Files.size(file);
+                IoCounters.recordRead(size);
+                bytes += size;
+            }
+            this.indexedBytes = bytes;
+            this.index = indexer.complete();
+        }
+        return this.index;
+    }
+
+    /**
+     * @return the size of the class files read for the index
+     */
+    public synchronized long indexedBytes() {
+        return this.indexedBytes;
+    }
+
+    private static boolean isDetectClass(Path relative) {
+        for (int i = 0; i < relative.getNameCount() - 1; ++i) {
+            if (relative.getName(i).toString().equals("detect")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String slashize(Path path) {
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < path.getNameCount(); ++i) {
+            parts.add(path.getName(i).toString());
+        }
+        return String.join("/", parts);
+    }
+
+    private final Path classesDir;
+
+    private List<Path> classFiles;
+
+    private Set<Path> detectPackages;
+
+    private Index index;
+
+    private long indexedBytes;
+}
@@ -1,11 +1,8 @@
 package org.wildfly.swarm.plugin.process;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -30,9 +27,12 @@ import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.IndexView;
 import org.jboss.jandex.Indexer;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.metrics.IoCounters;
 import org.wildfly.swarm.plugin.process.configurable.AnnotationDocumentationGatherer;
+import org.wildfly.swarm.plugin.process.configurable.DocumentationCache;
 import org.wildfly.swarm.plugin.process.configurable.DocumentationRegistry;
 import org.wildfly.swarm.plugin.process.configurable.ResourceDocumentationGatherer;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
 
 /**
  * @author Bob McWhirter
@@ -50,8 +50,12 @@ public class ConfigurableDocumentationGenerator {
 
     public static final DotName RESOURCE_DOCUMENTATION_ANNOTATION = DotName.createSimple("org.wildfly.swarm.config.runtime.ResourceDocumentation");
 
+    public static final DotName DEFAULTABLE_CLASS = DotName.createSimple("org.wildfly.swarm.spi.api.Defaultable");
+
     private final Path classesDir;
 
+    private final ClassModel classes;
+
     private final MavenProject project;
 
     private final DocumentationRegistry documentationRegistry;
@@ -59,9 +63,14 @@ public class ConfigurableDocumentationGenerator {
     private final Log log;
 
     public ConfigurableDocumentationGenerator(Log log, MavenProject project, File classesDir) {
+        this(log, project, new ClassModel(classesDir.toPath()));
+    }
+
+    public ConfigurableDocumentationGenerator(Log log, MavenProject project, ClassModel classes) {
         this.log = log;
         this.project = project;
-        this.classesDir = classesDir.toPath();
+        this.classes = classes;
+        this.classesDir = classes.getDirectory();
         this.documentationRegistry = new DocumentationRegistry();
     }
 
@@ -74,12 +83,6 @@ public class ConfigurableDocumentationGenerator {
             return meta;
         }
 
-        final Path idx = this.classesDir.resolve("META-INF").resolve(Jandexer.INDEX_NAME);
-
-        if (!Files.exists(idx)) {
-            return meta;
-        }
-
         IndexView ownIndex = null;
         IndexView totalIndex = null;
         try {
@@ -98,15 +101,19 @@ public class ConfigurableDocumentationGenerator {
         Path docs = this.classesDir.resolve("META-INF").resolve("configuration-meta.properties");
 
         try {
-            Files.createDirectories(docs.getParent());
+            OutputFileUtil.storeIfChanged(docs, props, "Created by thorntail-fraction-plugin");
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new MojoExecutionException("Failed writing configuration-meta.properties", e);
         }
 
-        try (OutputStream out = new FileOutputStream(docs.toFile())) {
-            props.store(out, "Created by thorntail-fraction-plugin");
+        // lets the runtime bind configuration without scanning fraction fields reflectively; only the fields declared
+        // by the fraction class itself are listed, inherited ones are documented above but get no binding line
+        Path bindings = this.classesDir.resolve("META-INF").resolve("configuration-bindings.tsv");
+
+        try {
+            OutputFileUtil.writeIfChanged(bindings, this.documentationRegistry.asBindingTable());
         } catch (IOException e) {
-            throw new MojoExecutionException("Failed writing configuration-meta.properties", e);
+            throw new MojoExecutionException("Failed writing configuration-bindings.tsv", e);
         }
 
         return meta;
@@ -119,17 +126,8 @@ public class ConfigurableDocumentationGenerator {
     }
 
     protected IndexView loadOwnIndex() throws IOException {
-        final Path idx = this.classesDir.resolve("META-INF").resolve(Jandexer.INDEX_NAME);
-
-        IndexView index = null;
-
-        if (Files.exists(idx)) {
-            try (InputStream in = new FileInputStream(idx.toFile())) {
-                index = loadIndex(in);
-            }
-        }
-
-        return index;
+        // the index Jandexer wrote, without reading it back
+        return this.classes.index();
     }
 
     protected IndexView loadDependentIndexes() throws IOException {
@@ -156,6 +154,7 @@ public class ConfigurableDocumentationGenerator {
 
             ZipEntry entry = jar.getEntry("META-INF/" + Jandexer.INDEX_NAME);
             if (entry != null) {
+                IoCounters.recordRead(Math.max(0, entry.getSize()));
                 return loadIndex(jar.getInputStream(entry));
 
             }
@@ -169,6 +168,7 @@ public class ConfigurableDocumentationGenerator {
                     try (InputStream in = jar.getInputStream(each)) {
                         indexer.index(in);
                     }
+                    IoCounters.recordRead(Math.max(0, each.getSize()));
                 }
 
             }
@@ -184,9 +184,10 @@ public class ConfigurableDocumentationGenerator {
 
     protected void process(IndexView ownIndex, IndexView totalIndex) {
         Collection<ClassInfo> fractions = ownIndex.getAllKnownImplementors(FRACTION_CLASS);
+        DocumentationCache cache = new DocumentationCache(totalIndex);
 
         for (ClassInfo fraction : fractions) {
-            new ResourceDocumentationGatherer(this.log, this.documentationRegistry, totalIndex, fraction).gather();
+            new ResourceDocumentationGatherer(this.log, this.documentationRegistry, cache, fraction).gather();
         }
 
         Collection<AnnotationInstance> annos = ownIndex.getAnnotations(CONFIGURABLE_ANNOTATION);
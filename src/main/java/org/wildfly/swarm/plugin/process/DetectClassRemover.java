@@ -7,20 +7,33 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.metrics.IoCounters;
 
 /**
+ * Removes the {@code detect} packages, which are only used at build time, from the fraction's classes. The packages
+ * of the detector sources recorded by the registry go, along with the {@code detect} directories the shared
+ * {@link ClassModel} saw while listing the class files, which covers detectors of other source roots and
+ * resource-only directories. The output is not walked again.
+ *
  * @author Ken Finnigan
  */
 public class DetectClassRemover {
 
     public DetectClassRemover(Log log, MavenProject project) {
+        this(log, project, new ClassModel(Paths.get(project.getBuild().getOutputDirectory())));
+    }
+
+    public DetectClassRemover(Log log, MavenProject project, ClassModel classes) {
         this.log = log;
         this.project = project;
+        this.classes = classes;
     }
 
     public FractionMetadata apply(FractionMetadata meta) throws MojoExecutionException {
@@ -29,36 +42,61 @@ public class DetectClassRemover {
         Path outputDir = Paths.get(outputDirStr);
 
         try {
-            Files.walkFileTree(outputDir, new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-                    if (dir.getFileName().toString().equals("detect")) {
-                        Files.delete(dir);
-                    }
-                    return super.postVisitDirectory(dir, exc);
+            for (Path detectPackage : detectPackages(meta, this.classes)) {
+                Path dir = outputDir.resolve(detectPackage);
+                if (!Files.isDirectory(dir)) {
+                    continue;
                 }
-
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                    Path relative = outputDir.relativize(file);
-                    Path cur = relative;
-                    while (cur != null) {
-                        if (cur.getFileName().toString().equals("detect")) {
-                            Files.delete(file);
-                        }
-                        cur = cur.getParent();
-                    }
-
-                    return super.visitFile(file, attrs);
-                }
-            });
+                this.log.debug("Removing " + detectPackage);
+                deleteTree(dir);
+                this.classes.removed(detectPackage);
+            }
         } catch (IOException e) {
             throw new MojoExecutionException("Failed removing 'detect' classes from " + outputDirStr, e);
         }
         return meta;
     }
 
+    /**
+     * @return the outermost {@code detect} packages of the recorded detector sources and of the class model,
+     * relative to the classes directory
+     */
+    static Set<Path> detectPackages(FractionMetadata meta, ClassModel classes) throws IOException {
+        Set<Path> packages = new TreeSet<>(classes.detectPackages());
+        for (Path source : meta.getDetectorClasses().keySet()) {
+            for (int i = 0; i < source.getNameCount() - 1; ++i) {
+                if (source.getName(i).toString().equals("detect")) {
+                    packages.add(source.subpath(0, i + 1));
+                    break;
+                }
+            }
+        }
+        return packages;
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                IoCounters.recordDelete();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
     private final MavenProject project;
 
     private final Log log;
+
+    private final ClassModel classes;
 }
@@ -1,25 +1,24 @@
 package org.wildfly.swarm.plugin.process;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
-import java.nio.file.Files;
+import java.io.StringWriter;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
 
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.wildfly.swarm.plugin.DependencyMetadata;
+import org.wildfly.swarm.plugin.FractionManifest;
 import org.wildfly.swarm.plugin.FractionMetadata;
 import org.wildfly.swarm.plugin.MavenDependencyData;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.Yaml;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
 
 /**
  * @author Bob McWhirter
@@ -37,55 +36,89 @@ public class FractionManifestGenerator {
     }
 
     public FractionMetadata apply(FractionMetadata meta) throws MojoExecutionException {
-        DumperOptions options = new DumperOptions();
-        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        List<String> transitiveFractionDependencies = transitiveFractionDependencies(meta);
 
-        Yaml yaml = new Yaml(options);
+        List<String> dependencies = toStrings(meta.getDependencies());
+        List<String> transitiveDependencies = toStrings(meta.getTransitiveDependencies());
+        List<String> mavenDependencies = new ArrayList<>(this.mavenDependencyData.size());
+        this.mavenDependencyData.forEach(d -> mavenDependencies.add(d.toString()));
 
-        Map<String, Object> data = new LinkedHashMap<String, Object>() {{
-            put("name", meta.getName());
-            put("description", meta.getDescription());
-            put("groupId", meta.getGroupId());
-            put("artifactId", meta.getArtifactId());
-            put("version", meta.getVersion());
+        StringWriter content = new StringWriter(4096);
+        try {
+            FractionManifestWriter writer = new FractionManifestWriter(content)
+                    .value("name", meta.getName())
+                    .value("description", meta.getDescription())
+                    .value("groupId", meta.getGroupId())
+                    .value("artifactId", meta.getArtifactId())
+                    .value("version", meta.getVersion());
             if (meta.hasJavaCode() && meta.getModule() != null) {
-                put("module", meta.getModule());
+                writer.value("module", meta.getModule());
             }
-            put("stability", new HashMap<String, Object>() {{
-                put("level", meta.getStabilityIndex().toString());
-                put("index", meta.getStabilityIndex().ordinal());
-            }});
-            put("internal", meta.isInternal());
-            // module dependencies per the JBoss Modules module.xml declarations
-            put("dependencies",
-                meta.getDependencies()
-                        .stream()
-                        .map(DependencyMetadata::toString)
-                        .collect(Collectors.toList())
-            );
-            // transitive module dependencies per the JBoss Modules module.xml declarations
-            put("transitive-dependencies",
-                meta.getTransitiveDependencies()
-                        .stream()
-                        .map(DependencyMetadata::toString)
-                        .collect(Collectors.toList())
-            );
-            put("maven-dependencies",
-                    mavenDependencyData.stream()
-                            .map(MavenDependencyData::toString)
-                            .collect(Collectors.toList()));
-        }};
+            writer.beginMapping("stability")
+                    .value("level", meta.getStabilityIndex().toString())
+                    .value("index", meta.getStabilityIndex().ordinal())
+                    .endMapping()
+                    .value("internal", meta.isInternal())
+                    // module dependencies per the JBoss Modules module.xml declarations
+                    .sequence("dependencies", dependencies)
+                    // transitive module dependencies per the JBoss Modules module.xml declarations
+                    .sequence("transitive-dependencies", transitiveDependencies)
+                    // every fraction pulled in directly or transitively
+                    .sequence("transitive-fraction-dependencies", transitiveFractionDependencies)
+                    .sequence("maven-dependencies", mavenDependencies);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed writing fraction-manifest.yaml", e);
+        }
 
         Path file = Paths.get(this.project.getBuild().getOutputDirectory(), "META-INF", "fraction-manifest.yaml");
         try {
-            Files.createDirectories(file.getParent());
-            try (Writer out = new FileWriter(file.toFile())) {
-                yaml.dump(data, out);
-            }
+            OutputFileUtil.writeIfChanged(file, content.toString());
         } catch (IOException e) {
             throw new MojoExecutionException("Failed writing fraction-manifest.yaml", e);
         }
 
         return meta;
     }
+
+    private static List<String> toStrings(Collection<DependencyMetadata> dependencies) {
+        List<String> strings = new ArrayList<>(dependencies.size());
+        dependencies.forEach(d -> strings.add(d.toString()));
+        return strings;
+    }
+
+    /**
+     * @return every fraction among the resolved dependencies, plus the closure each of them published in its own
+     * manifest, so that the result does not depend on which modules are part of the reactor
+     */
+    private List<String> transitiveFractionDependencies(FractionMetadata meta) throws MojoExecutionException {
+        Set<String> closure = new TreeSet<>();
+        for (Artifact artifact : this.project.getArtifacts()) {
+            if (!mayBeFraction(artifact)) {
+                continue;
+            }
+            try {
+                FractionManifest manifest = FractionManifest.ofArtifact(artifact.getFile().toPath());
+                if (manifest != null) {
+                    closure.add(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getBaseVersion());
+                    closure.addAll(manifest.getTransitiveFractionDependencies());
+                }
+            } catch (IOException e) {
+                throw new MojoExecutionException("Unable to read " + FractionManifest.PATH + " of " + artifact, e);
+            }
+        }
+        if (closure.contains(meta.toString())) {
+            throw new MojoExecutionException("Cycle in fraction dependencies: " + meta + " depends on itself");
+        }
+        return new ArrayList<>(closure);
+    }
+
+    /**
+     * Fractions are plain compile scoped JARs, anything else is not worth opening.
+     */
+    private static boolean mayBeFraction(Artifact artifact) {
+        return artifact.getFile() != null
+                && Artifact.SCOPE_COMPILE.equals(artifact.getScope())
+                && "jar".equals(artifact.getType())
+                && (artifact.getClassifier() == null || artifact.getClassifier().isEmpty());
+    }
 }
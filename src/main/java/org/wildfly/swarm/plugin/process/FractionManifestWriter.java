@@ -0,0 +1,169 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Minimal block-style YAML emitter for {@code fraction-manifest.yaml}: mappings with scalar values, one level of
+ * nested mapping and sequences of strings. Sequences are always written sorted and without duplicates, so the same
+ * fraction produces the same bytes on every build.
+ *
+ * <p>Strings are written plain when YAML 1.1 reads them back as the same string, and double-quoted otherwise.</p>
+ */
+final class FractionManifestWriter {
+
+    FractionManifestWriter(Writer out) {
+        this.out = out;
+    }
+
+    FractionManifestWriter value(String key, Object value) throws IOException {
+        indent();
+        this.out.write(key);
+        this.out.write(": ");
+        if (value == null) {
+            this.out.write("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long) {
+            this.out.write(value.toString());
+        } else {
+            this.out.write(scalar(value.toString()));
+        }
+        this.out.write('\n');
+        return this;
+    }
+
+    FractionManifestWriter beginMapping(String key) throws IOException {
+        indent();
+        this.out.write(key);
+        this.out.write(":\n");
+        this.depth++;
+        return this;
+    }
+
+    FractionManifestWriter endMapping() {
+        this.depth--;
+        return this;
+    }
+
+    FractionManifestWriter sequence(String key, Collection<String> items) throws IOException {
+        Set<String> sorted = new TreeSet<>(items);
+        indent();
+        this.out.write(key);
+        if (sorted.isEmpty()) {
+            this.out.write(": []\n");
+            return this;
+        }
+        this.out.write(":\n");
+        for (String item : sorted) {
+            indent();
+            this.out.write("- ");
+            this.out.write(scalar(item));
+            this.out.write('\n');
+        }
+        return this;
+    }
+
+    private void indent() throws IOException {
+        for (int i = 0; i < this.depth; ++i) {
+            this.out.write("  ");
+        }
+    }
+
+    static String scalar(String value) {
+        return isPlain(value) ? value : doubleQuoted(value);
+    }
+
+    private static boolean isPlain(String value) {
+        if (value.isEmpty() || RESERVED.contains(value.toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        char first = value.charAt(0);
+        // digits, signs and dots may start a number, a timestamp or a sexagesimal value
+        if (!(Character.isLetter(first) || first == '_' || first == '/') || first > 0x7e) {
+            return false;
+        }
+        char last = value.charAt(value.length() - 1);
+        if (last == ' ' || last == ':') {
+            return false;
+        }
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c > 0x7e || c < 0x20 || "#&*!|>'\"%@`{}[],?".indexOf(c) >= 0) {
+                return false;
+            }
+            if (c == ':' && value.charAt(i + 1) == ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String doubleQuoted(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x7f || c == 0x85 || c == 0x2028 || c == 0x2029 || Character.isSurrogate(c) && !isPaired(value, i)) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static boolean isPaired(String value, int i) {
+        char c = value.charAt(i);
+        if (Character.isHighSurrogate(c)) {
+            return i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1));
+        }
+        return i > 0 && Character.isHighSurrogate(value.charAt(i - 1));
+    }
+
+    /**
+     * Plain scalars YAML 1.1 resolves to booleans or null.
+     */
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+            "null", "~", "true", "false", "yes", "no", "on", "off", "y", "n"));
+
+    private final Writer out;
+
+    private int depth;
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.wildfly.swarm.plugin.metrics.IoCounters;
+import org.wildfly.swarm.plugin.utils.ChecksumUtil;
+
+/**
+ * Builds the Jandex index of module artifacts marked {@code ?jandex}, packaged the way WildFly provisioning does it:
+ * a {@code -jandex.jar} holding only {@code META-INF/jandex.idx}, added to the module as an extra resource root.
+ *
+ * <p>Indexes are cached by the SHA-1 of the artifact, so each artifact version is indexed once per local
+ * repository.</p>
+ */
+final class JandexArtifactIndexer {
+
+    static final String INDEX_ENTRY = "META-INF/" + Jandexer.INDEX_NAME;
+
+    JandexArtifactIndexer(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * @return the content of the {@code -jandex.jar} for {@code archive}
+     */
+    byte[] indexJar(File archive) throws IOException {
+        return toJar(index(archive));
+    }
+
+    /**
+     * @return the serialized Jandex index of {@code archive}
+     */
+    byte[] index(File archive) throws IOException {
+        String checksum;
+        try {
+            checksum = ChecksumUtil.calculateChecksum(archive);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unable to compute the checksum of " + archive, e);
+        }
+
+        Path cached = this.cacheDir.resolve(checksum + ".idx");
+        if (Files.isRegularFile(cached)) {
+            byte[] index = Files.readAllBytes(cached);
+            IoCounters.recordRead(index.length);
+            return index;
+        }
+
+        byte[] index = indexArchive(archive);
+
+        // other builds may share the local repository, never expose a partially written file
+        Files.createDirectories(this.cacheDir);
+        Path tmp = Files.createTempFile(this.cacheDir, checksum, ".tmp");
+        try {
+            Files.write(tmp, index);
+            Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        IoCounters.recordWrite(index.length);
+        return index;
+    }
+
+    static byte[] indexArchive(File archive) throws IOException {
+        Indexer indexer = new Indexer();
+        try (ZipFile zip = new ZipFile(archive)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.endsWith(".class") && !name.endsWith("module-info.class")) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        indexer.index(in);
+                    }
+                }
+            }
+        }
+        IoCounters.recordRead(archive.length());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new IndexWriter(out).write(indexer.complete());
+        return out.toByteArray();
+    }
+
+    static byte[] toJar(byte[] index) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            ZipEntry entry = new ZipEntry(INDEX_ENTRY);
+            // fixed timestamp, so that an unchanged index gives an identical JAR
+            entry.setTime(FIXED_TIME);
+            zip.putNextEntry(entry);
+            zip.write(index);
+            zip.closeEntry();
+        }
+        return out.toByteArray();
+    }
+
+    private static final long FIXED_TIME = 315532800000L;
+
+    private final Path cacheDir;
+}
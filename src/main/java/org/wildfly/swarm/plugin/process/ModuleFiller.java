@@ -16,9 +16,9 @@
 package org.wildfly.swarm.plugin.process;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -27,7 +27,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -75,8 +74,14 @@ import org.jboss.shrinkwrap.descriptor.spi.node.Node;
 import org.jboss.shrinkwrap.descriptor.spi.node.NodeImporter;
 import org.jboss.shrinkwrap.descriptor.spi.node.dom.XmlDomNodeImporterImpl;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.jfr.PluginEvent;
+import org.wildfly.swarm.plugin.jfr.PluginEvents;
+import org.wildfly.swarm.plugin.metrics.IoCounters;
 import org.wildfly.swarm.plugin.utils.FilteringHashSet;
 import org.wildfly.swarm.plugin.utils.NamespacePreservingModuleDescriptor;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
+
+import static org.wildfly.swarm.plugin.utils.DescriptorUtils.noResources;
 
 /**
  * @author Bob McWhirter
@@ -96,10 +101,23 @@ public class ModuleFiller {
                         DefaultRepositorySystemSession repositorySystemSession,
                         ArtifactResolver resolver,
                         MavenProject project) {
+        this(log, repositorySystemSession, resolver, project, false);
+    }
+
+    /**
+     * @param indexJandexArtifacts whether to ship a build-time Jandex index for module artifacts marked
+     *                             {@code ?jandex}, instead of leaving the indexing to the runtime
+     */
+    public ModuleFiller(Log log,
+                        DefaultRepositorySystemSession repositorySystemSession,
+                        ArtifactResolver resolver,
+                        MavenProject project,
+                        boolean indexJandexArtifacts) {
         this.log = log;
         this.repositorySystemSession = repositorySystemSession;
         this.resolver = resolver;
         this.project = project;
+        this.indexJandexArtifacts = indexJandexArtifacts;
     }
 
     public FractionMetadata apply(FractionMetadata meta) throws MojoExecutionException {
@@ -125,15 +143,23 @@ public class ModuleFiller {
 
             long size = 0;
             boolean unknownSize = false;
+            Map<Artifact, File> resolved = new HashMap<>();
             for (Artifact artifact : this.allArtifacts) {
                 ArtifactRequest req = new ArtifactRequest();
                 req.setArtifact(artifact);
 
                 String artifactSizeStr = "???";
                 try {
-                    ArtifactResult artifactResult = this.resolver.resolveArtifact(repositorySystemSession, req);
+                    ArtifactResult artifactResult;
+                    try (PluginEvent resolution = PluginEvents.artifactResolution(artifact.toString())) {
+                        artifactResult = this.resolver.resolveArtifact(repositorySystemSession, req);
+                        if (artifactResult.isResolved()) {
+                            resolution.file(artifactResult.getArtifact().getFile());
+                        }
+                    }
                     if (artifactResult.isResolved()) {
                         File file = artifactResult.getArtifact().getFile();
+                        resolved.put(artifact, file);
                         long artifactSize = Files.size(file.toPath());
                         size += artifactSize;
                         artifactSizeStr = fmt.format(artifactSize / bytesInMegabyte);
@@ -153,6 +179,8 @@ public class ModuleFiller {
             }
 
             this.log.info(this.project.getArtifactId() + ": total size:  " + sizeStr);
+
+            writePackageIndexes(resolved);
         } catch (IOException e) {
             String resourceDirs = project.getResources()
                     .stream()
@@ -188,40 +216,12 @@ public class ModuleFiller {
 
     private void addFillModules(Set<String> fillModules, File featurePackZip, Set<String> requiredModules, Set<String> availableModules) throws IOException, MojoExecutionException {
         Map<String, ZipEntry> moduleXmls = new HashMap<>();
-        ZipEntry featurePackXml = null;
 
-        try (ZipFile zip = new ZipFile(featurePackZip)) {
-            Enumeration<? extends ZipEntry> entries = zip.entries();
-
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                String name = entry.getName();
-
-                String coreName = null;
-
-                if (name.equals("wildfly-feature-pack.xml")) {
-                    featurePackXml = entry;
-                } else if (name.startsWith(MODULES_SYSTEM_PREFIX) && name.endsWith(MODULES_SUFFIX)) {
-                    coreName = name.substring(MODULES_SYSTEM_PREFIX.length(), name.length() - MODULES_SUFFIX.length());
-                    coreName = coreName.substring(coreName.indexOf('/') + 1);
-                    coreName = coreName.substring(coreName.indexOf('/') + 1);
-                } else if (name.startsWith(MODULES_PREFIX) && name.endsWith(MODULES_SUFFIX)) {
-                    coreName = name.substring(MODULES_PREFIX.length(), name.length() - MODULES_SUFFIX.length());
-                }
-
-                if (coreName != null) {
-                    int lastSlashLoc = coreName.lastIndexOf('/');
-
-                    String moduleName = coreName.substring(0, lastSlashLoc);
-                    String slot = coreName.substring(lastSlashLoc + 1);
-
-                    moduleName = moduleName.replace('/', '.');
-
-                    if (fillModules.contains(moduleName + ":" + slot)) {
-                        moduleXmls.put(moduleName + ":" + slot, entry);
-                    }
-                }
-            }
+        long featurePackSize = featurePackZip.length();
+        IoCounters.recordRead(featurePackSize);
+        try (PluginEvent scan = PluginEvents.featurePackScan(this.meta.toString(), featurePackZip).bytes(featurePackSize);
+             ZipFile zip = new ZipFile(featurePackZip)) {
+            ZipEntry featurePackXml = scanFeaturePack(zip, fillModules, moduleXmls);
 
             if (featurePackXml == null) {
                 throw new MojoExecutionException("Unable to find wildfly-feature-pack.xml in " + featurePackZip);
@@ -237,6 +237,48 @@ public class ModuleFiller {
         }
     }
 
+    /**
+     * Collects the {@code module.xml} entries of {@code zip} that provide one of {@code fillModules} into
+     * {@code moduleXmls}, keyed by {@code name:slot}.
+     *
+     * @return the {@code wildfly-feature-pack.xml} entry, or {@code null} if the ZIP has none
+     */
+    static ZipEntry scanFeaturePack(ZipFile zip, Set<String> fillModules, Map<String, ZipEntry> moduleXmls) {
+        ZipEntry featurePackXml = null;
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+
+            String coreName = null;
+
+            if (name.equals("wildfly-feature-pack.xml")) {
+                featurePackXml = entry;
+            } else if (name.startsWith(MODULES_SYSTEM_PREFIX) && name.endsWith(MODULES_SUFFIX)) {
+                coreName = name.substring(MODULES_SYSTEM_PREFIX.length(), name.length() - MODULES_SUFFIX.length());
+                coreName = coreName.substring(coreName.indexOf('/') + 1);
+                coreName = coreName.substring(coreName.indexOf('/') + 1);
+            } else if (name.startsWith(MODULES_PREFIX) && name.endsWith(MODULES_SUFFIX)) {
+                coreName = name.substring(MODULES_PREFIX.length(), name.length() - MODULES_SUFFIX.length());
+            }
+
+            if (coreName != null) {
+                int lastSlashLoc = coreName.lastIndexOf('/');
+
+                String moduleName = coreName.substring(0, lastSlashLoc);
+                String slot = coreName.substring(lastSlashLoc + 1);
+
+                moduleName = moduleName.replace('/', '.');
+
+                if (fillModules.contains(moduleName + ":" + slot)) {
+                    moduleXmls.put(moduleName + ":" + slot, entry);
+                }
+            }
+        }
+        return featurePackXml;
+    }
+
     private void addResources(ZipFile zip, String moduleName, ZipEntry moduleXml) {
 
         String moduleXmlPath = moduleXml.getName();
@@ -267,9 +309,8 @@ public class ModuleFiller {
 
                     Path resourcePath = moduleDir.resolve(resourceRelative);
 
-                    try {
-                        Files.createDirectories(resourcePath.getParent());
-                        Files.copy(zip.getInputStream(entry), resourcePath, StandardCopyOption.REPLACE_EXISTING);
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        OutputFileUtil.copyIfChanged(in, resourcePath);
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
@@ -311,13 +352,17 @@ public class ModuleFiller {
 
         if (rootName.equals("module")) {
             ModuleDescriptor desc = new NamespacePreservingModuleDescriptor(null, node);
+            List<Artifact> jandexArtifacts = new ArrayList<>();
+            Map<String, Artifact> byName = new HashMap<>();
             for (ArtifactType<ResourcesType<ModuleDescriptor>> moduleArtifact : desc.getOrCreateResources().getAllArtifact()) {
                 String name = moduleArtifact.getName();
                 if (name.startsWith("${")) {
                     name = name.substring(2, name.length() - 1);
                 }
+                boolean jandex = false;
                 if (name.endsWith("?jandex")) {
                     name = name.replace("?jandex", "");
+                    jandex = true;
                 }
 
                 Artifact artifact = artifacts.get(name);
@@ -335,23 +380,118 @@ public class ModuleFiller {
                 moduleArtifact.name(ModuleXmlArtifact.from(artifact).toString());
 
                 this.allArtifacts.add(artifact);
+                byName.put(moduleArtifact.getName(), artifact);
+                if (jandex && this.indexJandexArtifacts) {
+                    jandexArtifacts.add(artifact);
+                }
+            }
+
+            for (Artifact artifact : jandexArtifacts) {
+                String indexJar = writeJandexIndex(artifact, moduleXml.getParent());
+                if (indexJar != null) {
+                    desc.getOrCreateResources().createResourceRoot().path(indexJar);
+                }
             }
 
             ((NamespacePreservingModuleDescriptor) desc).fillVersionAttribute(artifacts);
 
             desc = this.rules.rewrite(desc);
 
-            try (FileOutputStream out = new FileOutputStream(moduleXml.toFile())) {
-                desc.exportTo(out);
+            // artifacts introduced by the rewrite rules are not resolved (mapped to null), which leaves the module
+            // without a package index; resource roots, such as the Jandex indexes, are looked up in the module
+            // directory
+            Map<String, Artifact> moduleArtifacts = new HashMap<>();
+            Set<String> resourceRoots = new HashSet<>();
+            if (!noResources(desc)) {
+                ResourcesType<ModuleDescriptor> resources = desc.getOrCreateResources();
+                resources.getAllArtifact().forEach(a -> moduleArtifacts.put(a.getName(), byName.get(a.getName())));
+                resources.getAllResourceRoot().forEach(r -> resourceRoots.add(r.getPath()));
             }
+            if (!moduleArtifacts.isEmpty() || !resourceRoots.isEmpty()) {
+                this.filledModules.put(moduleXml.getParent(), moduleArtifacts);
+                this.filledResourceRoots.put(moduleXml.getParent(), resourceRoots);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            desc.exportTo(out);
+            OutputFileUtil.writeIfChanged(moduleXml, out.toByteArray());
         } else if (rootName.equals("module-alias")) {
             ModuleAliasDescriptor desc = new ModuleAliasDescriptorImpl(null, node);
-            try (FileOutputStream out = new FileOutputStream(moduleXml.toFile())) {
-                desc.exportTo(out);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            desc.exportTo(out);
+            OutputFileUtil.writeIfChanged(moduleXml, out.toByteArray());
+        }
+    }
+
+    /**
+     * Writes the {@link PackageIndex} of every filled module whose artifacts and resource roots could all be found.
+     */
+    private void writePackageIndexes(Map<Artifact, File> resolved) throws IOException {
+        Map<File, Set<String>> packages = new HashMap<>();
+        for (Map.Entry<Path, Map<String, Artifact>> module : this.filledModules.entrySet()) {
+            Map<String, File> files = new HashMap<>();
+            for (Map.Entry<String, Artifact> resource : module.getValue().entrySet()) {
+                files.put(resource.getKey(), resolved.get(resource.getValue()));
+            }
+            for (String resourceRoot : this.filledResourceRoots.get(module.getKey())) {
+                File file = module.getKey().resolve(resourceRoot).toFile();
+                files.put(resourceRoot, file.exists() ? file : null);
+            }
+
+            Map<String, Set<String>> packagesByResource = new HashMap<>();
+            for (Map.Entry<String, File> resource : files.entrySet()) {
+                File file = resource.getValue();
+                if (file == null) {
+                    packagesByResource = null;
+                    break;
+                }
+                Set<String> resourcePackages = packages.get(file);
+                if (resourcePackages == null) {
+                    resourcePackages = PackageIndex.packagesOf(file);
+                    packages.put(file, resourcePackages);
+                }
+                packagesByResource.put(resource.getKey(), resourcePackages);
+            }
+            if (packagesByResource != null) {
+                PackageIndex.write(module.getKey(), packagesByResource);
+            } else {
+                this.log.debug("Not all resources of " + module.getKey() + " are found, skipping its " + PackageIndex.FILE_NAME);
+                PackageIndex.remove(module.getKey());
             }
         }
     }
 
+    /**
+     * Writes the {@code -jandex.jar} of {@code artifact} into {@code moduleDir}.
+     *
+     * @return the name of the JAR, or {@code null} if the artifact could not be resolved
+     */
+    private String writeJandexIndex(Artifact artifact, Path moduleDir) throws IOException {
+        ArtifactRequest req = new ArtifactRequest();
+        req.setArtifact(artifact);
+        File file;
+        try {
+            ArtifactResult result = this.resolver.resolveArtifact(this.repositorySystemSession, req);
+            file = result.isResolved() ? result.getArtifact().getFile() : null;
+        } catch (ArtifactResolutionException e) {
+            file = null;
+        }
+        if (file == null) {
+            this.log.warn("Unable to resolve " + artifact + ", it will be indexed at runtime");
+            return null;
+        }
+
+        if (this.jandexIndexer == null) {
+            Path localRepository = this.repositorySystemSession.getLocalRepository().getBasedir().toPath();
+            this.jandexIndexer = new JandexArtifactIndexer(localRepository.resolve(".cache").resolve("thorntail-fraction-plugin").resolve("jandex"));
+        }
+
+        String name = artifact.getArtifactId() + "-" + artifact.getVersion()
+                + (artifact.getClassifier().isEmpty() ? "" : "-" + artifact.getClassifier()) + "-jandex.jar";
+        OutputFileUtil.writeIfChanged(moduleDir.resolve(name), this.jandexIndexer.indexJar(file));
+        return name;
+    }
+
     private Map<String, Artifact> processFeaturePackXml(InputStream in) throws IOException {
         final Map<String, Artifact> artifacts = new HashMap<>();
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
@@ -457,59 +597,61 @@ public class ModuleFiller {
     }
 
     private void analyzeModuleXml(Path root, Path moduleXml, Set<String> requiredModules, Set<String> availableModules) throws IOException {
+        try (PluginEvent parse = PluginEvents.moduleXmlParse(this.meta.toString(), moduleXml)) {
+            IoCounters.recordRead(Files.size(moduleXml));
+            ModuleAnalyzer analyzer = new ModuleAnalyzer(moduleXml);
+            this.meta.addTransitiveDependencies(analyzer.getDependencies());
+            Path modulePath = root.relativize(moduleXml).getParent();
 
-        ModuleAnalyzer analyzer = new ModuleAnalyzer(moduleXml);
-        this.meta.addTransitiveDependencies(analyzer.getDependencies());
-        Path modulePath = root.relativize(moduleXml).getParent();
 
+            String selfSlot = modulePath.getName(modulePath.getNameCount() - 1).toString();
+            String selfModuleName = modulePath.getParent().toString().replace(File.separatorChar, '.');
 
-        String selfSlot = modulePath.getName(modulePath.getNameCount() - 1).toString();
-        String selfModuleName = modulePath.getParent().toString().replace(File.separatorChar, '.');
+            this.log.info("Analyzing: " + selfModuleName + ":" + selfSlot + " (" + moduleXml + ")");
 
-        this.log.info("Analyzing: " + selfModuleName + ":" + selfSlot + " (" + moduleXml + ")");
+            availableModules.add(selfModuleName + ":" + selfSlot);
 
-        availableModules.add(selfModuleName + ":" + selfSlot);
+            NodeImporter importer = new XmlDomNodeImporterImpl();
+            Node node = importer.importAsNode(new FileInputStream(moduleXml.toFile()), true);
 
-        NodeImporter importer = new XmlDomNodeImporterImpl();
-        Node node = importer.importAsNode(new FileInputStream(moduleXml.toFile()), true);
+            String rootName = node.getName();
 
-        String rootName = node.getName();
+            switch (rootName) {
+                case "module": {
+                    ModuleDescriptor desc = new ModuleDescriptorImpl(null, node);
 
-        switch (rootName) {
-            case "module": {
-                ModuleDescriptor desc = new ModuleDescriptorImpl(null, node);
+                    desc = this.rules.rewrite(desc);
 
-                desc = this.rules.rewrite(desc);
+                    DependenciesType<ModuleDescriptor> dependencies = desc.getOrCreateDependencies();
+                    List<ModuleDependencyType<DependenciesType<ModuleDescriptor>>> moduleDependencies = dependencies.getAllModule();
+                    for (ModuleDependencyType<DependenciesType<ModuleDescriptor>> moduleDependency : moduleDependencies) {
+                        if (moduleDependency.isOptional()) {
+                            continue;
+                        }
+                        String name = moduleDependency.getName();
+                        String slot = moduleDependency.getSlot();
+                        if (slot == null) {
+                            slot = "main";
+                        }
 
-                DependenciesType<ModuleDescriptor> dependencies = desc.getOrCreateDependencies();
-                List<ModuleDependencyType<DependenciesType<ModuleDescriptor>>> moduleDependencies = dependencies.getAllModule();
-                for (ModuleDependencyType<DependenciesType<ModuleDescriptor>> moduleDependency : moduleDependencies) {
-                    if (moduleDependency.isOptional()) {
-                        continue;
+                        requiredModules.add(name + ":" + slot);
+                        this.log.info(" - requires: " + name + ":" + slot);
                     }
-                    String name = moduleDependency.getName();
-                    String slot = moduleDependency.getSlot();
+                    break;
+                }
+                case "module-alias": {
+                    ModuleAliasDescriptor desc = new ModuleAliasDescriptorImpl(null, node);
+                    String name = desc.getTargetName();
+                    String slot = desc.getTargetSlot();
                     if (slot == null) {
                         slot = "main";
                     }
-
                     requiredModules.add(name + ":" + slot);
                     this.log.info(" - requires: " + name + ":" + slot);
+                    break;
                 }
-                break;
-            }
-            case "module-alias": {
-                ModuleAliasDescriptor desc = new ModuleAliasDescriptorImpl(null, node);
-                String name = desc.getTargetName();
-                String slot = desc.getTargetSlot();
-                if (slot == null) {
-                    slot = "main";
-                }
-                requiredModules.add(name + ":" + slot);
-                this.log.info(" - requires: " + name + ":" + slot);
-                break;
+                default:
             }
-            default:
         }
     }
 
@@ -539,4 +681,12 @@ public class ModuleFiller {
     private Set<Artifact> allArtifacts = new HashSet<>();
 
     private FractionMetadata meta;
+
+    private final boolean indexJandexArtifacts;
+
+    private JandexArtifactIndexer jandexIndexer;
+
+    private final Map<Path, Map<String, Artifact>> filledModules = new HashMap<>();
+
+    private final Map<Path, Set<String>> filledResourceRoots = new HashMap<>();
 }
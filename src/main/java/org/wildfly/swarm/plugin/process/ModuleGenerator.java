@@ -1,20 +1,17 @@
 package org.wildfly.swarm.plugin.process;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -32,6 +29,8 @@ import org.jboss.shrinkwrap.descriptor.api.jbossmodule15.PathSetType;
 import org.jboss.shrinkwrap.descriptor.api.jbossmodule15.ResourcesType;
 import org.jboss.shrinkwrap.descriptor.api.jbossmodule15.SystemDependencyType;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.metrics.IoCounters;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
 
 /**
  * @author Bob McWhirter
@@ -52,9 +51,18 @@ public class ModuleGenerator {
 
     private final MavenProject project;
 
+    private final ClassModel classes;
+
+    private final List<Path> generatedModules = new ArrayList<>();
+
     public ModuleGenerator(Log log, MavenProject project) {
+        this(log, project, new ClassModel(Paths.get(project.getBuild().getOutputDirectory())));
+    }
+
+    public ModuleGenerator(Log log, MavenProject project, ClassModel classes) {
         this.log = log;
         this.project = project;
+        this.classes = classes;
     }
 
     public FractionMetadata apply(FractionMetadata meta) throws MojoExecutionException {
@@ -62,6 +70,7 @@ public class ModuleGenerator {
             Path moduleConf = meta.getModuleConf();
             List<String> dependencies;
             try (BufferedReader reader = new BufferedReader(new FileReader(moduleConf.toFile()))) {
+                IoCounters.recordRead(Files.size(moduleConf));
                 dependencies = reader.lines()
                         .map(String::trim)
                         .filter(line -> !line.startsWith("#"))
@@ -255,6 +264,33 @@ public class ModuleGenerator {
         export(apiModule, apiModuleXml);
         export(runtimeModule, runtimeModuleXml);
         export(deploymentModule, deploymentModuleXml);
+
+        this.generatedModules.add(apiModuleXml.getParent());
+        this.generatedModules.add(runtimeModuleXml.getParent());
+        if (deploymentModule != null) {
+            this.generatedModules.add(deploymentModuleXml.getParent());
+        }
+    }
+
+    /**
+     * Writes the {@link PackageIndex} of the generated modules, once the other stages are done with the output
+     * directory that their artifact is made of.
+     */
+    public FractionMetadata writePackageIndexes(FractionMetadata meta) throws MojoExecutionException {
+        if (this.generatedModules.isEmpty()) {
+            return meta;
+        }
+        Path outputDir = Paths.get(this.project.getBuild().getOutputDirectory());
+        String artifact = this.project.getGroupId() + ":" + this.project.getArtifactId() + ":" + this.project.getVersion();
+        try {
+            Map<String, Set<String>> packages = Collections.singletonMap(artifact, PackageIndex.packagesOf(outputDir.toFile()));
+            for (Path moduleDir : this.generatedModules) {
+                PackageIndex.write(moduleDir, packages);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed writing " + PackageIndex.FILE_NAME + " of the generated modules", e);
+        }
+        return meta;
     }
 
     private void markModulePrivate(ModuleDescriptor module) {
@@ -321,10 +357,9 @@ public class ModuleGenerator {
             log.info("Not exporting empty module: " + path);
             return;
         }
-        Files.createDirectories(path.getParent());
-        try (FileOutputStream out = new FileOutputStream(path.toFile())) {
-            module.exportTo(out);
-        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        module.exportTo(out);
+        OutputFileUtil.writeIfChanged(path, out.toByteArray());
     }
 
     private Set<String> determineApiPaths() throws IOException {
@@ -340,39 +375,7 @@ public class ModuleGenerator {
     }
 
     private Set<String> determinePaths(Predicate<String> pred) throws IOException {
-        Path dir = Paths.get(this.project.getBuild().getOutputDirectory());
-
-        Set<String> paths = new HashSet<>();
-
-        if (Files.exists(dir)) {
-            FileVisitor<Path> visitor = new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                    if (file.getFileName().toString().endsWith(".class")) {
-                        if (pred.test(file.toString())) {
-                            paths.add(javaSlashize(dir.relativize(file.getParent())));
-                        }
-                    }
-                    return super.visitFile(file, attrs);
-                }
-            };
-
-            Files.walkFileTree(dir, visitor);
-        }
-        return paths;
-
-    }
-
-    private String javaSlashize(Path path) {
-        List<String> parts = new ArrayList<>();
-
-        int numParts = path.getNameCount();
-
-        for (int i = 0; i < numParts; ++i) {
-            parts.add(path.getName(i).toString());
-        }
-
-        return String.join("/", parts);
+        return this.classes.packages(pred);
     }
 
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
+
+/**
+ * The {@code packages.idx} written next to a {@code module.xml}: the paths each resource root of the module
+ * provides, as the {@code getPaths()} of its JBoss Modules resource loader lists them, so that the runtime can build
+ * its path lookup without listing the entries of every JAR. The paths are those of the resource root itself; the
+ * runtime applies the filters of the {@code module.xml} to them as usual.
+ *
+ * <p>The format is line based and sorted: a {@code [resource]} line, named as in the {@code module.xml}, followed by
+ * the {@code /}-separated paths of that resource, one per line; the root is an empty line.</p>
+ */
+final class PackageIndex {
+
+    static final String FILE_NAME = "packages.idx";
+
+    private PackageIndex() {
+    }
+
+    /**
+     * @return every directory of {@code archive}, a JAR or an exploded directory, that holds an entry, whatever the
+     * entry is: classes, resources or the {@code META-INF/jandex.idx} of an index JAR
+     */
+    static Set<String> packagesOf(File archive) throws IOException {
+        Set<String> packages = new TreeSet<>();
+        if (archive.isDirectory()) {
+            Path root = archive.toPath();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root)) {
+                        packages.add(ClassModel.slashize(root.relativize(dir)));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (file.getParent().equals(root)) {
+                        packages.add("");
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return packages;
+        }
+        try (ZipFile zip = new ZipFile(archive)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                // a directory entry names itself, a file its directory
+                int slash = name.lastIndexOf('/');
+                packages.add(slash < 0 ? "" : name.substring(0, slash));
+            }
+        }
+        return packages;
+    }
+
+    static String format(Map<String, ? extends Collection<String>> packagesByResource) {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, ? extends Collection<String>> resource : new TreeMap<>(packagesByResource).entrySet()) {
+            out.append('[').append(resource.getKey()).append("]\n");
+            for (String pkg : new TreeSet<>(resource.getValue())) {
+                out.append(pkg).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    static void write(Path moduleDir, Map<String, ? extends Collection<String>> packagesByResource) throws IOException {
+        OutputFileUtil.writeIfChanged(moduleDir.resolve(FILE_NAME), format(packagesByResource));
+    }
+
+    /**
+     * Removes an index that can no longer be computed, rather than leaving a stale one behind.
+     */
+    static void remove(Path moduleDir) throws IOException {
+        Files.deleteIfExists(moduleDir.resolve(FILE_NAME));
+    }
+}
@@ -15,14 +15,16 @@
  */
 package org.wildfly.swarm.plugin.process;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Set;
 
 import javax.inject.Inject;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -39,10 +41,13 @@ import org.apache.maven.project.ProjectDependenciesResolver;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.impl.ArtifactResolver;
+import org.wildfly.swarm.plugin.AbstractFractionsMojo;
 import org.wildfly.swarm.plugin.FractionMetadata;
 import org.wildfly.swarm.plugin.FractionRegistry;
+import org.wildfly.swarm.plugin.FractionSnapshots;
 import org.wildfly.swarm.plugin.MavenDependenciesResolver;
 import org.wildfly.swarm.plugin.MavenDependencyData;
+import org.wildfly.swarm.plugin.metrics.ProcessMetrics;
 
 /**
  * @author Bob McWhirter
@@ -61,17 +66,52 @@ public class ProcessMojo extends AbstractMojo {
         FractionMetadata meta = FractionRegistry.INSTANCE.of(this.project);
 
         if (meta == null) {
+            writeSnapshot(null);
             return;
         }
 
-        new ModuleGenerator(getLog(), this.project).apply(meta);
-        new CDIMarker(getLog(), this.project).apply(meta);
-        new ModuleFiller(getLog(), this.repositorySystemSession, this.resolver, this.project).apply(meta);
-        new FractionManifestGenerator(getLog(), this.project, mavenDepenendencies()).apply(meta);
-        new DetectClassRemover(getLog(), this.project).apply(meta);
-        new Jandexer(getLog(), new File(this.project.getBuild().getOutputDirectory())).apply(meta);
-        new ConfigurableDocumentationGenerator(getLog(), this.project, new File(this.project.getBuild().getOutputDirectory())).apply(meta);
-        new ReadmeGrabber(this.project).apply(meta);
+        ProcessMetrics metrics = new ProcessMetrics(this.project);
+        ClassModel classes = new ClassModel(Paths.get(this.project.getBuild().getOutputDirectory()));
+        ModuleGenerator moduleGenerator = new ModuleGenerator(getLog(), this.project, classes);
+        try {
+            metrics.measure("ModuleGenerator", () -> moduleGenerator.apply(meta));
+            metrics.measure("CDIMarker", () -> new CDIMarker(getLog(), this.project, classes).apply(meta));
+            metrics.measure("ModuleFiller", () -> new ModuleFiller(getLog(), this.repositorySystemSession, this.resolver, this.project, this.indexJandexArtifacts).apply(meta));
+            metrics.measure("FractionManifestGenerator", () -> new FractionManifestGenerator(getLog(), this.project, mavenDepenendencies()).apply(meta));
+            metrics.measure("DetectClassRemover", () -> new DetectClassRemover(getLog(), this.project, classes).apply(meta));
+            metrics.measure("Jandexer", () -> new Jandexer(getLog(), classes).apply(meta));
+            metrics.measure("ConfigurableDocumentationGenerator", () -> new ConfigurableDocumentationGenerator(getLog(), this.project, classes).apply(meta));
+            metrics.measure("ReadmeGrabber", () -> new ReadmeGrabber(this.project).apply(meta));
+            metrics.measure("PackageIndexes", () -> moduleGenerator.writePackageIndexes(meta));
+        } finally {
+            writeMetrics(metrics);
+        }
+        writeSnapshot(meta);
+    }
+
+    private void writeSnapshot(FractionMetadata meta) {
+        Path dir = FractionSnapshots.directory(this.project);
+        if (dir == null) {
+            return;
+        }
+        try {
+            FractionSnapshots.write(dir, this.project, meta, this.repositorySystemSession);
+            List<MavenProject> projects = this.mavenSession.getAllProjects();
+            if (projects.size() >= AbstractFractionsMojo.FULL_REACTOR_SIZE
+                    && FractionSnapshots.lastProcessed(this.mavenSession.getProjects()) == this.project) {
+                FractionSnapshots.writeIndex(dir, projects, this.repositorySystemSession);
+            }
+        } catch (IOException e) {
+            getLog().warn("Unable to write fraction snapshot to " + dir, e);
+        }
+    }
+
+    private void writeMetrics(ProcessMetrics metrics) {
+        try {
+            metrics.write(Paths.get(this.project.getBuild().getDirectory()));
+        } catch (IOException e) {
+            getLog().warn("Unable to write " + ProcessMetrics.FILE_NAME, e);
+        }
     }
 
     private Set<MavenDependencyData> mavenDepenendencies() {
@@ -100,6 +140,12 @@ public class ProcessMojo extends AbstractMojo {
     @Parameter(alias = "remoteRepositories", defaultValue = "${project.remoteArtifactRepositories}", readonly = true)
     protected List<ArtifactRepository> remoteRepositories;
 
+    /**
+     * Whether to index module artifacts marked {@code ?jandex} at build time, so that the runtime does not have to.
+     */
+    @Parameter(property = "thorntail.fraction.index-jandex-artifacts", defaultValue = "false")
+    private boolean indexJandexArtifacts;
+
     @Component
     protected RepositorySystem repositorySystem;
 
@@ -112,5 +158,8 @@ public class ProcessMojo extends AbstractMojo {
     @Inject
     private ArtifactResolver resolver;
 
+    @Inject
+    private MavenSession mavenSession;
+
     private FractionMetadata manifest;
 }
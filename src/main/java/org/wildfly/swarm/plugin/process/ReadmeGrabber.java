@@ -2,14 +2,13 @@ package org.wildfly.swarm.plugin.process;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.utils.OutputFileUtil;
 
 /**
  * @author Bob McWhirter
@@ -36,8 +35,7 @@ public class ReadmeGrabber {
         Path destination = Paths.get(project.getBuild().getOutputDirectory()).resolve("META-INF").resolve("README.adoc");
 
         try {
-            Files.createDirectories(destination.getParent());
-            Files.copy(readme.toPath(), destination, StandardCopyOption.REPLACE_EXISTING);
+            OutputFileUtil.copyIfChanged(readme.toPath(), destination);
         } catch (IOException e) {
             throw new MojoExecutionException("Failed copying README.adoc", e);
         }
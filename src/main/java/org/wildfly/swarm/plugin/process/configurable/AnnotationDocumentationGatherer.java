@@ -30,5 +30,6 @@ public class AnnotationDocumentationGatherer extends DocumentationGatherer {
         }
 
         addDocumentation(name, docs);
+        addBinding(name, target);
     }
 }
@@ -0,0 +1,102 @@
+package org.wildfly.swarm.plugin.process.configurable;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.Type;
+
+/**
+ * A field with its annotations looked up once, as the gatherers need them.
+ */
+class ClassifiedField {
+
+    ClassifiedField(FieldInfo field) {
+        this.field = field;
+        this.dashedName = DocumentationGatherer.dashize(field.name());
+        this.isStatic = Modifier.isStatic(field.flags());
+        this.configurable = DocumentationGatherer.isMarkedAsConfigurable(field);
+        this.documented = DocumentationGatherer.isMarkedAsDocumented(field);
+        this.singleton = DocumentationGatherer.isSingletonResource(field);
+        this.subresources = DocumentationGatherer.isSubresources(field);
+        this.documentation = this.documented ? DocumentationGatherer.getDocumentation(field) : "";
+        this.type = field.type().name();
+        this.elementType = elementType(field.type());
+    }
+
+    FieldInfo getField() {
+        return this.field;
+    }
+
+    String getName() {
+        return this.field.name();
+    }
+
+    String getDashedName() {
+        return this.dashedName;
+    }
+
+    boolean isStatic() {
+        return this.isStatic;
+    }
+
+    boolean isConfigurable() {
+        return this.configurable;
+    }
+
+    boolean isDocumented() {
+        return this.documented;
+    }
+
+    boolean isSingleton() {
+        return this.singleton;
+    }
+
+    boolean isSubresources() {
+        return this.subresources;
+    }
+
+    String getDocumentation() {
+        return this.documentation;
+    }
+
+    DotName getType() {
+        return this.type;
+    }
+
+    /**
+     * @return the first type argument, that is the resource type of a list of resources, or {@code null}
+     */
+    DotName getElementType() {
+        return this.elementType;
+    }
+
+    private static DotName elementType(Type type) {
+        if (type.kind() != Type.Kind.PARAMETERIZED_TYPE) {
+            return null;
+        }
+        List<Type> arguments = type.asParameterizedType().arguments();
+        return arguments.isEmpty() ? null : arguments.get(0).name();
+    }
+
+    private final FieldInfo field;
+
+    private final String dashedName;
+
+    private final boolean isStatic;
+
+    private final boolean configurable;
+
+    private final boolean documented;
+
+    private final boolean singleton;
+
+    private final boolean subresources;
+
+    private final String documentation;
+
+    private final DotName type;
+
+    private final DotName elementType;
+}
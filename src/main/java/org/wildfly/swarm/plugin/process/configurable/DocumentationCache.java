@@ -0,0 +1,133 @@
+package org.wildfly.swarm.plugin.process.configurable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.IndexView;
+
+/**
+ * What the gatherers of one fraction learned about the classes of an index: the classified fields of each class
+ * and the documentation below each resource type, so that a config-api class is walked once however many paths
+ * lead to it.
+ */
+public class DocumentationCache {
+
+    public DocumentationCache(IndexView index) {
+        this.index = index;
+    }
+
+    public IndexView getIndex() {
+        return this.index;
+    }
+
+    ClassInfo getClassByName(DotName name) {
+        return name == null ? null : this.index.getClassByName(name);
+    }
+
+    List<ClassifiedField> fields(ClassInfo classInfo) {
+        List<ClassifiedField> classified = this.fields.get(classInfo.name());
+        if (classified == null) {
+            classified = new ArrayList<>();
+            for (FieldInfo field : classInfo.fields()) {
+                classified.add(new ClassifiedField(field));
+            }
+            this.fields.put(classInfo.name(), classified);
+        }
+        return classified;
+    }
+
+    List<Entry> getEntries(DotName resource) {
+        return this.entries.get(resource);
+    }
+
+    void putEntries(DotName resource, List<Entry> entries) {
+        this.entries.put(resource, entries);
+    }
+
+    /**
+     * @return {@code false} if {@code resource} is already being walked, i.e. it (indirectly) contains itself; the
+     * walk is cut there
+     */
+    boolean enter(DotName resource) {
+        if (!this.walking.add(resource)) {
+            this.cut = true;
+            return false;
+        }
+        return true;
+    }
+
+    void exit(DotName resource) {
+        this.walking.remove(resource);
+    }
+
+    /**
+     * Starts tracking the cuts below the resource just entered.
+     *
+     * @return the tracking state of the enclosing walk, to be handed to {@link #endCuts(boolean)}
+     */
+    boolean startCuts() {
+        boolean outer = this.cut;
+        this.cut = false;
+        return outer;
+    }
+
+    /**
+     * Stops tracking the cuts below the resource just exited.
+     *
+     * @return {@code true} unless the walk below it was cut. A cut walk went through a cycle, so what it found
+     * depends on where the walk entered the cycle and must not be cached, even when the cut was at the resource
+     * itself.
+     */
+    boolean endCuts(boolean outer) {
+        boolean complete = !this.cut;
+        this.cut |= outer;
+        return complete;
+    }
+
+    private final IndexView index;
+
+    private final Map<DotName, List<ClassifiedField>> fields = new HashMap<>();
+
+    private final Map<DotName, List<Entry>> entries = new HashMap<>();
+
+    private final Set<DotName> walking = new HashSet<>();
+
+    /**
+     * Whether the current walk was cut.
+     */
+    private boolean cut;
+
+    /**
+     * A documented key, relative to the key of the resource it was found under.
+     */
+    static final class Entry {
+
+        Entry(String suffix, String documentation) {
+            this.suffix = suffix;
+            this.documentation = documentation;
+        }
+
+        Entry under(String prefix) {
+            return new Entry(prefix + this.suffix, this.documentation);
+        }
+
+        String getSuffix() {
+            return this.suffix;
+        }
+
+        String getDocumentation() {
+            return this.documentation;
+        }
+
+        private final String suffix;
+
+        private final String documentation;
+    }
+}
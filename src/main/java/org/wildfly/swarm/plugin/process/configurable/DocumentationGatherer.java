@@ -1,6 +1,8 @@
 package org.wildfly.swarm.plugin.process.configurable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.maven.plugin.logging.Log;
 import org.jboss.jandex.AnnotationInstance;
@@ -8,6 +10,7 @@ import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
 import org.jboss.jandex.FieldInfo;
 import org.jboss.jandex.IndexView;
+import org.jboss.jandex.Type;
 import org.wildfly.swarm.plugin.process.ConfigurableDocumentationGenerator;
 
 /**
@@ -19,12 +22,19 @@ public abstract class DocumentationGatherer {
 
     protected final IndexView index;
 
+    protected final DocumentationCache cache;
+
     private final Log log;
 
     public DocumentationGatherer(Log log, DocumentationRegistry registry, IndexView index) {
+        this(log, registry, new DocumentationCache(index));
+    }
+
+    public DocumentationGatherer(Log log, DocumentationRegistry registry, DocumentationCache cache) {
         this.log = log;
         this.registry = registry;
-        this.index = index;
+        this.index = cache.getIndex();
+        this.cache = cache;
     }
 
     protected Log getLog() {
@@ -35,8 +45,13 @@ public abstract class DocumentationGatherer {
         this.registry.add(key, docs);
     }
 
+    protected void addBinding(String key, FieldInfo field) {
+        this.registry.addBinding(key, field.declaringClass().name().toString(), field.name(), typeName(field.type()),
+                                 field.type().name().equals(ConfigurableDocumentationGenerator.DEFAULTABLE_CLASS));
+    }
+
     protected ClassInfo getClassByName(DotName name) {
-        return this.index.getClassByName(name);
+        return this.cache.getClassByName(name);
     }
 
     protected static String dashize(String name) {
@@ -145,6 +160,48 @@ public abstract class DocumentationGatherer {
         return prefix + "." + field.name();
     }
 
+    /**
+     * Like {@link #nameFor(FieldInfo)}, but with every name of a field carrying several {@code @Configurable}s.
+     */
+    protected static List<String> namesFor(FieldInfo field) {
+        String prefix = nameFor(field.declaringClass());
+        List<String> names = new ArrayList<>();
+        for (AnnotationInstance anno : field.annotations()) {
+            if (anno.name().equals(ConfigurableDocumentationGenerator.CONFIGURABLE_ANNOTATION)) {
+                String name = getName(prefix, anno);
+                if (name != null) {
+                    names.add(name);
+                }
+            } else if (anno.name().equals(ConfigurableDocumentationGenerator.CONFIGURABLES_ANNOTATION)) {
+                for (AnnotationInstance nested : anno.value().asNestedArray()) {
+                    String name = getName(prefix, nested);
+                    if (name != null) {
+                        names.add(name);
+                    }
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            names.add(prefix + "." + field.name());
+        }
+        return names;
+    }
+
+    protected static String typeName(Type type) {
+        if (type.kind() != Type.Kind.PARAMETERIZED_TYPE) {
+            return type.name().toString();
+        }
+        StringBuilder name = new StringBuilder(type.name().toString()).append('<');
+        List<Type> arguments = type.asParameterizedType().arguments();
+        for (int i = 0; i < arguments.size(); ++i) {
+            if (i > 0) {
+                name.append(',');
+            }
+            name.append(typeName(arguments.get(i)));
+        }
+        return name.append('>').toString();
+    }
+
     private static String getName(String prefix, AnnotationInstance configurable) {
         if (!configurable.value().asString().isEmpty()) {
             return configurable.value().asString();
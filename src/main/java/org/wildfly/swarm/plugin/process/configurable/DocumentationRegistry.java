@@ -3,6 +3,8 @@ package org.wildfly.swarm.plugin.process.configurable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * @author Bob McWhirter
@@ -17,6 +19,13 @@ public class DocumentationRegistry {
         this.registry.put(key, docs);
     }
 
+    /**
+     * Records that configuration {@code key} is bound to {@code field} of {@code declaringClass}.
+     */
+    public void addBinding(String key, String declaringClass, String field, String type, boolean hasDefault) {
+        this.bindings.add(String.join("\t", key, declaringClass, field, type, String.valueOf(hasDefault)));
+    }
+
     public String toString() {
         return registry.toString();
     }
@@ -38,5 +47,20 @@ public class DocumentationRegistry {
         return props;
     }
 
+    /**
+     * @return the recorded bindings as tab separated {@code key, class, field, type, default} lines, sorted by key
+     */
+    public String asBindingTable() {
+        StringBuilder table = new StringBuilder(BINDING_TABLE_HEADER);
+        for (String binding : this.bindings) {
+            table.append(binding).append('\n');
+        }
+        return table.toString();
+    }
+
+    static final String BINDING_TABLE_HEADER = "#key\tclass\tfield\ttype\tdefault\n";
+
     private Map<String, String> registry = new HashMap<>();
+
+    private Set<String> bindings = new TreeSet<>();
 }
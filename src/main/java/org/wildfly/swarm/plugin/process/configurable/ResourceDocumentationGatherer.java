@@ -1,13 +1,13 @@
 package org.wildfly.swarm.plugin.process.configurable;
 
-import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.maven.plugin.logging.Log;
 import org.jboss.jandex.ClassInfo;
-import org.jboss.jandex.FieldInfo;
 import org.jboss.jandex.IndexView;
 
 /**
@@ -27,12 +27,20 @@ public class ResourceDocumentationGatherer extends DocumentationGatherer {
     }};
 
     public ResourceDocumentationGatherer(Log log, DocumentationRegistry registry, IndexView index, ClassInfo resourceClassInfo) {
-        this(log, nameFor(resourceClassInfo), registry, index, resourceClassInfo);
+        this(log, registry, new DocumentationCache(index), resourceClassInfo);
+    }
+
+    public ResourceDocumentationGatherer(Log log, DocumentationRegistry registry, DocumentationCache cache, ClassInfo resourceClassInfo) {
+        this(log, nameFor(resourceClassInfo), registry, cache, resourceClassInfo);
         this.isRootFraction = true;
     }
 
     public ResourceDocumentationGatherer(Log log, String name, DocumentationRegistry registry, IndexView index, ClassInfo resourceClassInfo) {
-        super(log, registry, index);
+        this(log, name, registry, new DocumentationCache(index), resourceClassInfo);
+    }
+
+    public ResourceDocumentationGatherer(Log log, String name, DocumentationRegistry registry, DocumentationCache cache, ClassInfo resourceClassInfo) {
+        super(log, registry, cache);
         this.resourceClassInfo = resourceClassInfo;
         this.name = name;
         this.isRootFraction = false;
@@ -40,47 +48,100 @@ public class ResourceDocumentationGatherer extends DocumentationGatherer {
 
     @Override
     public void gather() {
-        process(this.resourceClassInfo, this.isRootFraction);
+        if (this.resourceClassInfo == null) {
+            return;
+        }
+        if (!this.isRootFraction) {
+            addDocumentation(entries(this.cache, this.resourceClassInfo));
+            return;
+        }
+        if (!this.cache.enter(this.resourceClassInfo.name())) {
+            return;
+        }
+        try {
+            for (ClassifiedField field : this.cache.fields(this.resourceClassInfo)) {
+                process(field);
+            }
+            ClassInfo superClass = getClassByName(this.resourceClassInfo.superName());
+            if (superClass != null) {
+                addDocumentation(entries(this.cache, superClass));
+            }
+        } finally {
+            this.cache.exit(this.resourceClassInfo.name());
+        }
     }
 
-    protected void process(ClassInfo current, boolean isRootFraction) {
-        List<FieldInfo> fields = current.fields();
-
-        for (FieldInfo field : fields) {
-            process(field, isRootFraction);
+    /**
+     * @return the documented keys below a resource of type {@code resource}: those of its fields and subresources,
+     * then those of its superclass. A resource containing itself is not walked again. Computed once per type,
+     * unless the walk below it was cut.
+     */
+    static List<DocumentationCache.Entry> entries(DocumentationCache cache, ClassInfo resource) {
+        List<DocumentationCache.Entry> entries = cache.getEntries(resource.name());
+        if (entries != null) {
+            return entries;
         }
+        if (!cache.enter(resource.name())) {
+            return Collections.emptyList();
+        }
+        entries = new ArrayList<>();
+        boolean outerCuts = cache.startCuts();
+        try {
+            for (ClassifiedField field : cache.fields(resource)) {
+                if (field.isStatic()) {
+                    continue;
+                }
+                if (field.isSubresources()) {
+                    ClassInfo subresourceInfo = cache.getClassByName(field.getType());
+                    if (subresourceInfo != null) {
+                        entries.addAll(SubresourcesDocumentationGatherer.entries(cache, subresourceInfo));
+                    }
+                } else if (!IGNORABLE_FIELDS.contains(field.getName()) && field.isDocumented()) {
+                    entries.add(new DocumentationCache.Entry("." + field.getDashedName(), field.getDocumentation()));
+                }
+            }
+            ClassInfo superClass = cache.getClassByName(resource.superName());
+            if (superClass != null) {
+                entries.addAll(entries(cache, superClass));
+            }
+        } finally {
+            cache.exit(resource.name());
+        }
+        if (cache.endCuts(outerCuts)) {
+            cache.putEntries(resource.name(), entries);
+        }
+        return entries;
+    }
 
-        ClassInfo superClass = getClassByName(current.superName());//index.getClassByName(current.superName());
-
-        if (superClass != null) {
-            process(superClass, false);
+    private void addDocumentation(List<DocumentationCache.Entry> entries) {
+        for (DocumentationCache.Entry entry : entries) {
+            addDocumentation(this.name + entry.getSuffix(), entry.getDocumentation());
         }
     }
 
-    protected void process(FieldInfo field, boolean isRootFraction) {
-        if (Modifier.isStatic(field.flags())) {
+    private void process(ClassifiedField field) {
+        if (field.isStatic()) {
             return;
         }
-        if (isSubresources(field)) {
-            ClassInfo subresourceInfo = getClassByName(field.type().name());
-            new SubresourcesDocumentationGatherer(getLog(), this.registry, this.index, this.name, subresourceInfo).gather();
+        if (field.isSubresources()) {
+            ClassInfo subresourceInfo = getClassByName(field.getType());
+            new SubresourcesDocumentationGatherer(getLog(), this.registry, this.cache, this.name, subresourceInfo).gather();
         } else {
-            if (IGNORABLE_FIELDS.contains(field.name())) {
+            if (IGNORABLE_FIELDS.contains(field.getName())) {
                 return;
             }
-            if (isRootFraction) {
-                String name = isMarkedAsConfigurable(field) ? nameFor(field) : this.name + "." + dashize(field.name());
-                String docs = "(not yet documented)";
-                if (isMarkedAsDocumented(field)) {
-                    docs = getDocumentation(field);
-                } else {
-                    getLog().warn("Missing @AttributeDocumentation: " + this.resourceClassInfo.name() + "#" + field.name());
+            String name = field.isConfigurable() ? nameFor(field.getField()) : this.name + "." + field.getDashedName();
+            for (String key : field.isConfigurable() ? namesFor(field.getField()) : Collections.singletonList(name)) {
+                addBinding(key, field.getField());
+            }
+            String docs = "(not yet documented)";
+            if (field.isDocumented()) {
+                docs = field.getDocumentation();
+            } else {
+                getLog().warn("Missing @AttributeDocumentation: " + this.resourceClassInfo.name() + "#" + field.getName());
 
-                }
-                addDocumentation(name, docs);
-            } else if (isMarkedAsDocumented(field)) {
-                addDocumentation(this.name + "." + dashize(field.name()), getDocumentation(field));
             }
+            addDocumentation(name, docs);
         }
     }
 }
@@ -1,10 +1,10 @@
 package org.wildfly.swarm.plugin.process.configurable;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.maven.plugin.logging.Log;
 import org.jboss.jandex.ClassInfo;
-import org.jboss.jandex.FieldInfo;
 import org.jboss.jandex.IndexView;
 
 /**
@@ -18,33 +18,50 @@ public class SubresourcesDocumentationGatherer extends DocumentationGatherer {
 
 
     public SubresourcesDocumentationGatherer(Log log, DocumentationRegistry registry, IndexView index, String name, ClassInfo subresourceInfo) {
-        super(log, registry, index);
+        this(log, registry, new DocumentationCache(index), name, subresourceInfo);
+    }
+
+    public SubresourcesDocumentationGatherer(Log log, DocumentationRegistry registry, DocumentationCache cache, String name, ClassInfo subresourceInfo) {
+        super(log, registry, cache);
         this.name = name;
         this.subresourceInfo = subresourceInfo;
     }
 
     @Override
     public void gather() {
-        List<FieldInfo> fields = this.subresourceInfo.fields();
-
-        for (FieldInfo field : fields) {
-            if (isMarkedAsDocumented(field)) {
-                String docs = getDocumentation(field);
+        if (this.subresourceInfo == null) {
+            return;
+        }
+        for (DocumentationCache.Entry entry : entries(this.cache, this.subresourceInfo)) {
+            addDocumentation(this.name + entry.getSuffix(), entry.getDocumentation());
+        }
+    }
 
-                String name = this.name + "." + dashize(field.name());
+    /**
+     * @return the documented keys below each documented subresource, a list of resources adding a {@code *} segment
+     */
+    static List<DocumentationCache.Entry> entries(DocumentationCache cache, ClassInfo subresourceInfo) {
+        List<DocumentationCache.Entry> entries = new ArrayList<>();
+        for (ClassifiedField field : cache.fields(subresourceInfo)) {
+            if (field.isDocumented()) {
+                String segment = "." + field.getDashedName();
 
                 ClassInfo nextClassInfo = null;
 
-                if (!isSingletonResource(field)) {
-                    name = name + ".*";
-                    nextClassInfo = getClassByName(field.type().asParameterizedType().arguments().get(0).name());
+                if (!field.isSingleton()) {
+                    segment = segment + ".*";
+                    nextClassInfo = cache.getClassByName(field.getElementType());
                 } else {
-                    nextClassInfo = getClassByName(field.type().name());
+                    nextClassInfo = cache.getClassByName(field.getType());
                 }
 
-
-                new ResourceDocumentationGatherer(getLog(), name, this.registry, this.index, nextClassInfo).gather();
+                if (nextClassInfo != null) {
+                    for (DocumentationCache.Entry entry : ResourceDocumentationGatherer.entries(cache, nextClassInfo)) {
+                        entries.add(entry.under(segment));
+                    }
+                }
             }
         }
+        return entries;
     }
 }
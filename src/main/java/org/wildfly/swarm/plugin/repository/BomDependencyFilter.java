@@ -0,0 +1,144 @@
+/**
+ * Copyright 2015-2016 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Decides which BOM {@code <dependency>} elements are skipped, as configured by {@code skipBomDependencies}.
+ *
+ * <p>An expression containing {@code :} is a coordinate pattern {@code groupId:artifactId[:type[:classifier]]} whose
+ * segments may use the {@code *} and {@code ?} wildcards; omitted segments match anything. It is matched against the
+ * parsed element, so skipped dependencies are never serialized. Any other expression keeps its historical meaning:
+ * a substring of the serialized XML element.</p>
+ */
+final class BomDependencyFilter {
+
+    private BomDependencyFilter(List<Pattern[]> coordinates, List<String> substrings) {
+        this.coordinates = coordinates;
+        this.substrings = substrings;
+    }
+
+    static BomDependencyFilter of(String... expressions) {
+        List<Pattern[]> coordinates = new ArrayList<>();
+        List<String> substrings = new ArrayList<>();
+        if (expressions != null) {
+            for (String expression : expressions) {
+                if (expression == null || expression.isEmpty()) {
+                    continue;
+                }
+                if (expression.indexOf(':') >= 0 && expression.indexOf('<') < 0) {
+                    String[] segments = expression.trim().split(":", -1);
+                    if (segments.length > 4) {
+                        throw new IllegalArgumentException("Invalid dependency pattern " + expression
+                                                                   + ", expected groupId:artifactId[:type[:classifier]]");
+                    }
+                    Pattern[] patterns = new Pattern[segments.length];
+                    for (int i = 0; i < segments.length; ++i) {
+                        patterns[i] = glob(segments[i].trim());
+                    }
+                    coordinates.add(patterns);
+                } else {
+                    substrings.add(expression);
+                }
+            }
+        }
+        return new BomDependencyFilter(coordinates, substrings);
+    }
+
+    /**
+     * @return whether a coordinate pattern matches the {@code <dependency>} element
+     */
+    boolean excludes(Node dependency) {
+        if (this.coordinates.isEmpty()) {
+            return false;
+        }
+        String[] values = {"", "", "jar", ""};
+        NodeList children = dependency.getChildNodes();
+        for (int i = 0; i < children.getLength(); ++i) {
+            Node child = children.item(i);
+            int index = SEGMENTS.indexOf(child.getNodeName());
+            if (index >= 0) {
+                values[index] = child.getTextContent().trim();
+            }
+        }
+        for (Pattern[] patterns : this.coordinates) {
+            if (matches(patterns, values)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether a substring expression occurs in the serialized element
+     */
+    boolean excludes(String serializedDependency) {
+        for (String substring : this.substrings) {
+            if (serializedDependency.contains(substring)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(Pattern[] patterns, String[] values) {
+        for (int i = 0; i < patterns.length; ++i) {
+            if (patterns[i] != null && !patterns[i].matcher(values[i]).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the compiled glob, {@code null} if it matches anything
+     */
+    private static Pattern glob(String glob) {
+        if (glob.isEmpty() || glob.equals("*")) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static final List<String> SEGMENTS = Arrays.asList("groupId", "artifactId", "type", "classifier");
+
+    private final List<Pattern[]> coordinates;
+
+    private final List<String> substrings;
+}
@@ -8,12 +8,12 @@ import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.wildfly.swarm.plugin.repository.PomUtils.extract;
-
 /**
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com
  * @author Ken Finnigan
@@ -35,24 +35,26 @@ class BomProjectBuilder {
     private BomProjectBuilder() {
     }
 
-    static File generateProject(final File generatedProject,
+    static File generateProject(final PomUtils poms,
+                                final File generatedProject,
                                 final File projectTemplate,
                                 final MavenProject bomProject,
                                 final File[] bomFiles,
                                 String[] skipBomDependencies) throws Exception {
 
-        String properties = extract(bomFiles[0], "//properties/*").asString();
+        String properties = poms.extract(bomFiles[0], "//properties/*").asString();
 
         String bomsAsString = Stream.of(bomFiles)
-                .map(file -> BomProjectBuilder.createPomImportXml(file, bomProject.getVersion()))
+                .map(file -> BomProjectBuilder.createPomImportXml(poms, file, bomProject.getVersion()))
                 .collect(Collectors.joining(NEWLINE));
 
-        String dependenciesAsString = Stream.of(bomFiles)
-                .flatMap(file -> getDependencies(file, skipBomDependencies).stream())
+        // the first BOM managing a dependency wins, as it would with Maven's own imports
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        Stream.of(bomFiles)
+                .flatMap(file -> getDependencies(poms, file, skipBomDependencies).stream())
                 .filter(XmlDependencyElement::isNormalDependency)
-                .map(XmlDependencyElement::getElementAsString)
-                .distinct()
-                .collect(Collectors.joining(NEWLINE));
+                .forEach(d -> dependencies.putIfAbsent(d.getManagementKey(), d.getElementAsString()));
+        String dependenciesAsString = String.join(NEWLINE, dependencies.values());
 
         String pomContent = readTemplate(projectTemplate)
                 .replace(BOMS, bomsAsString)
@@ -69,9 +71,9 @@ class BomProjectBuilder {
         return pom;
     }
 
-    private static String createPomImportXml(File file, String version) {
-        String groupId = extract(file, "/project/groupId").asString();
-        String projectId = extract(file, "/project/artifactId").asString();
+    private static String createPomImportXml(PomUtils poms, File file, String version) {
+        String groupId = poms.extract(file, "/project/groupId").asString();
+        String projectId = poms.extract(file, "/project/artifactId").asString();
         return String.format(
                 "<dependency>\n" +
                         "        %s\n" +
@@ -84,9 +86,9 @@ class BomProjectBuilder {
         );
     }
 
-    private static List<XmlDependencyElement> getDependencies(File additionalBom, String[] skipBomDependencies) {
+    private static List<XmlDependencyElement> getDependencies(PomUtils poms, File additionalBom, String[] skipBomDependencies) {
         PomUtils.XmlToString result =
-                PomUtils.extract(additionalBom, "//dependencyManagement/dependencies/*")
+                poms.extract(additionalBom, "//dependencyManagement/dependencies/*")
                     .skipping(skipBomDependencies);
 
         return result.translate(XmlDependencyElement::fromNode);
@@ -24,10 +24,9 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -38,13 +37,21 @@ import java.util.stream.Stream;
  * Time: 11:04 PM
  */
 class PomUtils {
-    private PomUtils() {
+
+    /**
+     * Creates an empty parse cache; it lives as long as its owner, typically one execution of the repository builder.
+     */
+    PomUtils() {
     }
 
-    static XmlToString extract(File xmlFile, String xpathLocator) {
+    /**
+     * Each file is parsed once and every query on it is evaluated once; the cached result is dropped when the file
+     * is modified. The returned nodes are shared, so they are only read under this instance's lock.
+     */
+    synchronized XmlToString extract(File xmlFile, String xpathLocator) {
         try {
-            NodeList nodeList = extractNodes(xmlFile, xpathLocator);
-            return new XmlToString(nodeList);
+            NodeList nodeList = parse(xmlFile).select(xpathLocator);
+            return new XmlToString(this, nodeList);
         } catch (IOException | SAXException | ParserConfigurationException | XPathExpressionException e) {
             System.err.println("Error extracting dependencies from xmlFile " + xmlFile);
             e.printStackTrace();
@@ -53,16 +60,40 @@ class PomUtils {
         return null;
     }
 
-    private static NodeList extractNodes(File xmlFile, String xpathLocator) throws ParserConfigurationException, SAXException, IOException, XPathExpressionException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(xmlFile);
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-        XPath xpath = xPathfactory.newXPath();
-        XPathExpression expr = xpath.compile(xpathLocator);
-        return (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
+    private ParsedXml parse(File xmlFile) throws ParserConfigurationException, SAXException, IOException {
+        File key = xmlFile.getAbsoluteFile();
+        long lastModified = key.lastModified();
+        long length = key.length();
+        ParsedXml parsed = this.parsed.get(key);
+        if (parsed == null || parsed.lastModified != lastModified || parsed.length != length) {
+            if (this.documentBuilder == null) {
+                this.documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            }
+            parsed = new ParsedXml(this.documentBuilder.parse(key), lastModified, length);
+            this.parsed.put(key, parsed);
+        }
+        return parsed;
     }
 
+    private XPathExpression compile(String xpathLocator) throws XPathExpressionException {
+        XPathExpression expression = this.expressions.get(xpathLocator);
+        if (expression == null) {
+            if (this.xpath == null) {
+                this.xpath = XPathFactory.newInstance().newXPath();
+            }
+            expression = this.xpath.compile(xpathLocator);
+            this.expressions.put(xpathLocator, expression);
+        }
+        return expression;
+    }
+
+    private Transformer transformer() throws TransformerException {
+        if (this.transformer == null) {
+            this.transformer = TransformerFactory.newInstance().newTransformer();
+            this.transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        }
+        return this.transformer;
+    }
 
     public static Stream<Node> toStream(final NodeList nodeList) {
         return new AbstractList<Node>() {
@@ -78,19 +109,32 @@ class PomUtils {
         }.stream();
     }
 
+    // all guarded by this
+
+    private final Map<File, ParsedXml> parsed = new HashMap<>();
+
+    private final Map<String, XPathExpression> expressions = new HashMap<>();
+
+    private XPath xpath;
+
+    private DocumentBuilder documentBuilder;
+
+    private Transformer transformer;
+
     public static class XmlToString {
+        private final PomUtils owner;
+
         private final NodeList nodeList;
 
-        private final Set<String> expressionsToSkip = new HashSet<>();
+        private BomDependencyFilter filter = BomDependencyFilter.of();
 
-        XmlToString(NodeList nodeList) {
+        XmlToString(PomUtils owner, NodeList nodeList) {
+            this.owner = owner;
             this.nodeList = nodeList;
         }
 
         public XmlToString skipping(String... expressions) {
-            if (expressions != null) {
-                expressionsToSkip.addAll(Arrays.asList(expressions));
-            }
+            this.filter = BomDependencyFilter.of(expressions);
             return this;
         }
 
@@ -98,17 +142,27 @@ class PomUtils {
             return nodeList;
         }
 
+        /**
+         * Runs under the owner's lock, {@code translator} included: the DOM is not safe for concurrent reads.
+         */
         public <T> List<T> translate(BiFunction<Node, String, T> translator) {
+            synchronized (this.owner) {
+                return translateLocked(translator);
+            }
+        }
+
+        private <T> List<T> translateLocked(BiFunction<Node, String, T> translator) {
             try {
                 List<T> result = new ArrayList<>();
 
-                Transformer transformer = TransformerFactory.newInstance().newTransformer();
-                transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-
+                Transformer transformer = this.owner.transformer();
                 for (int i = 0; i < nodeList.getLength(); ++i) {
                     Node node = nodeList.item(i);
+                    if (filter.excludes(node)) {
+                        continue;
+                    }
                     String element = nodeAsString(transformer, node);
-                    if (expressionsToSkip.stream().noneMatch(element::contains)) {
+                    if (!filter.excludes(element)) {
                         result.add(translator.apply(node, element));
                     }
                 }
@@ -131,4 +185,30 @@ class PomUtils {
             return writer.toString();
         }
     }
+
+    private final class ParsedXml {
+
+        ParsedXml(Document document, long lastModified, long length) {
+            this.document = document;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        NodeList select(String xpathLocator) throws XPathExpressionException {
+            NodeList nodes = this.results.get(xpathLocator);
+            if (nodes == null) {
+                nodes = (NodeList) compile(xpathLocator).evaluate(this.document, XPathConstants.NODESET);
+                this.results.put(xpathLocator, nodes);
+            }
+            return nodes;
+        }
+
+        private final Document document;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private final Map<String, NodeList> results = new HashMap<>();
+    }
 }
@@ -42,7 +42,7 @@ public class ProjectBuilder {
                 throw new MojoFailureException("Unable to proceed without a `template` specified for generating a project pom.xml.");
             }
 
-            File pomFile = BomProjectBuilder.generateProject(projectDir, template, project, bomFiles, skipBomDependencies);
+            File pomFile = BomProjectBuilder.generateProject(this.poms, projectDir, template, project, bomFiles, skipBomDependencies);
             if (!pomFile.exists()) {
                 throw new MojoFailureException("Failed to create project pom.xml");
             }
@@ -56,7 +56,7 @@ public class ProjectBuilder {
 
     protected String projectName(File[] bomFiles) {
         return "generated-project_" + Stream.of(bomFiles)
-                .map(bomFile -> PomUtils.extract(bomFile, "/project/artifactId/text()").asString())
+                .map(bomFile -> this.poms.extract(bomFile, "/project/artifactId/text()").asString())
                 .collect(Collectors.joining("_"));
     }
 
@@ -65,4 +65,7 @@ public class ProjectBuilder {
     private final MavenProject project;
     private final Log log;
 
+    // BOMs are parsed once per repository build
+    private final PomUtils poms = new PomUtils();
+
 }
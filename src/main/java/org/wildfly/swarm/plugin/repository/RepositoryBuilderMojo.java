@@ -46,6 +46,8 @@ import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.wildfly.swarm.plugin.AbstractFractionsMojo;
 import org.wildfly.swarm.plugin.RepositoryUtils;
+import org.wildfly.swarm.plugin.jfr.PluginEvent;
+import org.wildfly.swarm.plugin.jfr.PluginEvents;
 
 import javax.inject.Inject;
 
@@ -171,7 +173,8 @@ public class RepositoryBuilderMojo extends AbstractFractionsMojo {
 
         try (FileOutputStream fos = new FileOutputStream(repoZip);
              ZipOutputStream zipOut = new ZipOutputStream(fos)) {
-            zipFile(repoDir, repoDir.getName(), zipOut);
+            String gav = this.project.getGroupId() + ":" + this.project.getArtifactId() + ":" + this.project.getVersion();
+            zipFile(gav, repoDir, repoDir.getName(), zipOut);
         }
 
         // Attach zip of M2 repo to Maven Project
@@ -282,7 +285,7 @@ public class RepositoryBuilderMojo extends AbstractFractionsMojo {
         return name.contains("redhat-") || name.contains("eap-runtime-artifacts");
     }
 
-    private static void zipFile(File fileToZip, String fileName, ZipOutputStream zipOut) throws IOException {
+    private static void zipFile(String gav, File fileToZip, String fileName, ZipOutputStream zipOut) throws IOException {
         if (fileToZip.isHidden()) {
             return;
         }
@@ -290,19 +293,23 @@ public class RepositoryBuilderMojo extends AbstractFractionsMojo {
         if (fileToZip.isDirectory()) {
             File[] children = fileToZip.listFiles();
             for (File childFile : children) {
-                zipFile(childFile, fileName + "/" + childFile.getName(), zipOut);
+                zipFile(gav, childFile, fileName + "/" + childFile.getName(), zipOut);
             }
             return;
         }
 
-        try (FileInputStream fis = new FileInputStream(fileToZip)) {
+        try (PluginEvent write = PluginEvents.repositoryZipWrite(gav, fileToZip);
+             FileInputStream fis = new FileInputStream(fileToZip)) {
             ZipEntry zipEntry = new ZipEntry(fileName);
             zipOut.putNextEntry(zipEntry);
             byte[] bytes = new byte[1024];
+            long total = 0;
             int length;
             while ((length = fis.read(bytes)) >= 0) {
                 zipOut.write(bytes, 0, length);
+                total += length;
             }
+            write.bytes(total);
         }
     }
 
@@ -340,7 +347,8 @@ public class RepositoryBuilderMojo extends AbstractFractionsMojo {
     private File template;
 
     /**
-     * List of expressions used to filter BOM dependencies.
+     * List of expressions used to filter BOM dependencies: either {@code groupId:artifactId[:type[:classifier]]}
+     * patterns, which may use {@code *} and {@code ?}, or substrings of the dependency XML element.
      */
     @Parameter
     private String[] skipBomDependencies;
@@ -18,10 +18,6 @@ package org.wildfly.swarm.plugin.repository;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -35,26 +31,28 @@ import static org.wildfly.swarm.plugin.repository.PomUtils.toStream;
  */
 public class XmlDependencyElement {
 
-    private static final Transformer transformer;
-
     private String groupId;
     private String artifactId;
     private String scope;
+    private String type;
+    private String classifier;
     private String elementAsString;
 
-    static {
-        try {
-            transformer = TransformerFactory.newInstance().newTransformer();
-        } catch (TransformerConfigurationException e) {
-            throw new IllegalStateException("Cannot create XML transformer", e);
-        }
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-    }
-
     public String getElementAsString() {
         return elementAsString;
     }
 
+    /**
+     * @return the key under which Maven manages the dependency: groupId, artifactId, type and classifier
+     */
+    public String getManagementKey() {
+        return trim(groupId) + ":" + trim(artifactId) + ":" + (type == null ? "jar" : type.trim()) + ":" + trim(classifier);
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
+
     public boolean isNormalDependency() {
         return !"import".equals(scope); // `scope` can be `null`
     }
@@ -66,6 +64,8 @@ public class XmlDependencyElement {
         result.groupId = map.get("groupId");
         result.artifactId = map.get("artifactId");
         result.scope = map.get("scope");
+        result.type = map.get("type");
+        result.classifier = map.get("classifier");
 
         result.elementAsString = elementAsString;
 
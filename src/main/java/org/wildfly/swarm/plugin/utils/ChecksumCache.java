@@ -0,0 +1,70 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the checksum of the input each output was generated from, so that work on unchanged inputs can be
+ * skipped in the next build. Thread safe; {@link #store()} persists the entries as a properties file.
+ */
+public class ChecksumCache {
+
+    private ChecksumCache(Path file, Map<String, String> checksums) {
+        this.file = file;
+        this.checksums = checksums;
+    }
+
+    public static ChecksumCache load(Path file) throws IOException {
+        Map<String, String> checksums = new ConcurrentHashMap<>();
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            properties.stringPropertyNames().forEach(key -> checksums.put(key, properties.getProperty(key)));
+        }
+        return new ChecksumCache(file, checksums);
+    }
+
+    public boolean isUpToDate(String key, String checksum) {
+        return checksum.equals(this.checksums.get(key));
+    }
+
+    public void update(String key, String checksum) {
+        this.checksums.put(key, checksum);
+    }
+
+    public void remove(String key) {
+        this.checksums.remove(key);
+    }
+
+    public void store() throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(this.checksums);
+        OutputFileUtil.storeIfChanged(this.file, properties, "Created by thorntail-fraction-plugin");
+    }
+
+    private final Path file;
+
+    private final Map<String, String> checksums;
+}
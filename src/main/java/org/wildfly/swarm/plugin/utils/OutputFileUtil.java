@@ -0,0 +1,144 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.wildfly.swarm.plugin.metrics.IoCounters;
+
+/**
+ * Writes generated build outputs only when their content actually changed, so that the modification time of
+ * an up-to-date file is left alone and incremental packaging / up-to-date checks keep working.
+ */
+public class OutputFileUtil {
+
+    private OutputFileUtil() {
+    }
+
+    /**
+     * Writes {@code content} to {@code file} unless the file already holds exactly the same bytes.
+     *
+     * @return {@code true} if the file was (re)written, {@code false} if it was already up to date
+     */
+    public static boolean writeIfChanged(Path file, byte[] content) throws IOException {
+        if (hasContent(file, content)) {
+            IoCounters.recordUnchanged();
+            return false;
+        }
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, content);
+        IoCounters.recordWrite(content.length);
+        return true;
+    }
+
+    public static boolean writeIfChanged(Path file, String content) throws IOException {
+        return writeIfChanged(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static boolean copyIfChanged(Path source, Path target) throws IOException {
+        byte[] content = Files.readAllBytes(source);
+        IoCounters.recordRead(content.length);
+        return writeIfChanged(target, content);
+    }
+
+    public static boolean copyIfChanged(InputStream source, Path target) throws IOException {
+        byte[] content = readFully(source);
+        IoCounters.recordRead(content.length);
+        return writeIfChanged(target, content);
+    }
+
+    /**
+     * Stores {@code properties} the way {@link Properties#store(java.io.Writer, String)} does, minus the timestamp
+     * comment and with the entries sorted, so that the same properties always produce the same bytes.
+     */
+    public static boolean storeIfChanged(Path file, Properties properties, String comment) throws IOException {
+        return writeIfChanged(file, toReproducibleBytes(properties, comment));
+    }
+
+    static byte[] toReproducibleBytes(Properties properties, String comment) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        // stored without a comment: the only comment line left is the timestamp, and escaped keys never start with '#'
+        properties.store(raw, null);
+
+        List<String> entries = new ArrayList<>();
+        for (String line : new String(raw.toByteArray(), StandardCharsets.ISO_8859_1).split("\r?\n")) {
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                entries.add(line);
+            }
+        }
+        Collections.sort(entries);
+
+        StringBuilder out = new StringBuilder();
+        if (comment != null) {
+            for (String commentLine : comment.split("\r?\n|\r")) {
+                out.append('#').append(commentLine).append('\n');
+            }
+        }
+        for (String entry : entries) {
+            out.append(entry).append('\n');
+        }
+        // Properties.store(OutputStream) escapes everything outside of ISO 8859-1
+        return out.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean hasContent(Path file, byte[] content) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != content.length) {
+            return false;
+        }
+        MessageDigest existing = sha1();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buf = new byte[8192];
+            int len;
+            while ((len = in.read(buf)) >= 0) {
+                existing.update(buf, 0, len);
+            }
+        }
+        IoCounters.recordRead(content.length);
+        return MessageDigest.isEqual(existing.digest(), sha1().digest(content));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int len;
+        while ((len = in.read(buf)) >= 0) {
+            out.write(buf, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA1 digest not available", e);
+        }
+    }
+}
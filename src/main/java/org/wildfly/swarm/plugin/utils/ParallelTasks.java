@@ -0,0 +1,90 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.utils;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+
+/**
+ * Runs a task for every item of a collection on a fixed thread pool and collects the failures instead of stopping
+ * at the first one.
+ */
+public final class ParallelTasks {
+
+    private ParallelTasks() {
+    }
+
+    /**
+     * @param threads the number of threads, or {@code 0} or less for one per available processor
+     * @return the items whose task failed, with the failure, in the order of {@code items}
+     */
+    public static <T> Map<T, Exception> forEach(Collection<T> items, int threads, Task<T> task) throws MojoExecutionException {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(poolSize, items.size())));
+        try {
+            Map<T, Future<?>> futures = new LinkedHashMap<>();
+            for (T item : items) {
+                futures.put(item, executor.submit(() -> {
+                    task.run(item);
+                    return null;
+                }));
+            }
+
+            Map<T, Exception> failures = new LinkedHashMap<>();
+            for (Map.Entry<T, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    failures.put(entry.getKey(), (Exception) cause);
+                }
+            }
+            return failures;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for parallel tasks", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return a failure describing all {@code failures}, with each of them attached as a suppressed exception
+     */
+    public static MojoFailureException aggregate(String message, Map<?, Exception> failures) {
+        StringBuilder description = new StringBuilder(message).append(" (").append(failures.size()).append(" failed):");
+        failures.forEach((item, failure) -> description.append("\n  ").append(item).append(": ").append(failure));
+        MojoFailureException aggregated = new MojoFailureException(description.toString());
+        failures.values().forEach(aggregated::addSuppressed);
+        return aggregated;
+    }
+
+    @FunctionalInterface
+    public interface Task<T> {
+        void run(T item) throws Exception;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Common attributes of the plugin's events.
+ */
+@Category({"Thorntail", "Fraction Plugin"})
+abstract class AbstractPluginEvent extends Event implements PluginEvent {
+
+    @Override
+    public PluginEvent file(String file) {
+        this.file = file;
+        return this;
+    }
+
+    @Override
+    public PluginEvent bytes(long bytes) {
+        this.bytes = bytes;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        commit();
+    }
+
+    @Label("GAV")
+    String gav;
+
+    @Label("File")
+    String file;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
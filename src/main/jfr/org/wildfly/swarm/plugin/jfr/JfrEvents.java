@@ -0,0 +1,76 @@
+/**
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * Creates the actual {@code jdk.jfr.Event} subclasses, only loaded by {@link PluginEvents} when {@code jdk.jfr} is
+ * present. An event is only allocated when its type is enabled in a running recording.
+ */
+final class JfrEvents implements PluginEventFactory {
+
+    JfrEvents() {
+    }
+
+    @Override
+    public PluginEvent featurePackScan(String gav) {
+        return FEATURE_PACK_SCAN.isEnabled() ? begin(new FeaturePackScanEvent(), gav) : PluginEvent.NOOP;
+    }
+
+    @Override
+    public PluginEvent moduleXmlParse(String gav) {
+        return MODULE_XML_PARSE.isEnabled() ? begin(new ModuleXmlParseEvent(), gav) : PluginEvent.NOOP;
+    }
+
+    @Override
+    public PluginEvent artifactResolution(String gav) {
+        return ARTIFACT_RESOLUTION.isEnabled() ? begin(new ArtifactResolutionEvent(), gav) : PluginEvent.NOOP;
+    }
+
+    @Override
+    public PluginEvent jandexIndex(String gav) {
+        return JANDEX_INDEX.isEnabled() ? begin(new JandexIndexEvent(), gav) : PluginEvent.NOOP;
+    }
+
+    @Override
+    public PluginEvent checksum(String gav) {
+        return CHECKSUM.isEnabled() ? begin(new ChecksumEvent(), gav) : PluginEvent.NOOP;
+    }
+
+    @Override
+    public PluginEvent repositoryZipWrite(String gav) {
+        return REPOSITORY_ZIP_WRITE.isEnabled() ? begin(new RepositoryZipWriteEvent(), gav) : PluginEvent.NOOP;
+    }
+
+    private static PluginEvent begin(AbstractPluginEvent event, String gav) {
+        event.gav = gav;
+        event.begin();
+        return event;
+    }
+
+    private static final EventType FEATURE_PACK_SCAN = EventType.getEventType(FeaturePackScanEvent.class);
+
+    private static final EventType MODULE_XML_PARSE = EventType.getEventType(ModuleXmlParseEvent.class);
+
+    private static final EventType ARTIFACT_RESOLUTION = EventType.getEventType(ArtifactResolutionEvent.class);
+
+    private static final EventType JANDEX_INDEX = EventType.getEventType(JandexIndexEvent.class);
+
+    private static final EventType CHECKSUM = EventType.getEventType(ChecksumEvent.class);
+
+    private static final EventType REPOSITORY_ZIP_WRITE = EventType.getEventType(RepositoryZipWriteEvent.class);
+}
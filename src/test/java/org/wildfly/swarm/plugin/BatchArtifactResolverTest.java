@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.LocalArtifactRegistration;
+import org.eclipse.aether.repository.LocalArtifactRequest;
+import org.eclipse.aether.repository.LocalArtifactResult;
+import org.eclipse.aether.repository.LocalMetadataRegistration;
+import org.eclipse.aether.repository.LocalMetadataRequest;
+import org.eclipse.aether.repository.LocalMetadataResult;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.LocalRepositoryManager;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+public class BatchArtifactResolverTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        this.session = new DefaultRepositorySystemSession();
+        this.session.setLocalRepositoryManager(new EmptyLocalRepository(new LocalRepository(tmp.newFolder("repository"))));
+    }
+
+    @Test
+    public void shouldRememberMissingArtifacts() {
+        resolve(CENTRAL);
+        resolve(CENTRAL);
+
+        assertEquals(1, this.resolver.requested.size());
+    }
+
+    @Test
+    public void shouldNotRememberWhileOffline() {
+        this.session.setOffline(true);
+        resolve(CENTRAL);
+
+        this.session.setOffline(false);
+        resolve(CENTRAL);
+
+        assertEquals(2, this.resolver.requested.size());
+    }
+
+    @Test
+    public void shouldRetryWithOtherRepositories() {
+        resolve(CENTRAL);
+        resolve(JBOSS);
+
+        assertEquals(2, this.resolver.requested.size());
+        assertNotEquals(BatchArtifactResolver.repositoriesKey(CENTRAL), BatchArtifactResolver.repositoriesKey(JBOSS));
+    }
+
+    @Test
+    public void shouldRetryExpiredEntries() throws IOException {
+        resolve(CENTRAL);
+
+        Path file = missingFile();
+        Properties missing = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            missing.load(in);
+        }
+        String key = missing.stringPropertyNames().iterator().next();
+        missing.setProperty(key, "0");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            missing.store(out, null);
+        }
+        resolve(CENTRAL);
+
+        assertEquals(2, this.resolver.requested.size());
+    }
+
+    @Test
+    public void shouldForgetEverythingWhenCleared() {
+        resolve(CENTRAL);
+
+        this.session.setConfigProperty(BatchArtifactResolver.CLEAR_PROPERTY, "true");
+        resolve(CENTRAL);
+
+        assertEquals(2, this.resolver.requested.size());
+    }
+
+    @Test
+    public void shouldNotRememberWithoutTtl() {
+        this.session.setConfigProperty(BatchArtifactResolver.TTL_PROPERTY, "0");
+        resolve(CENTRAL);
+        resolve(CENTRAL);
+
+        assertEquals(2, this.resolver.requested.size());
+        assertFalse(Files.exists(missingFile()));
+    }
+
+    private void resolve(List<RemoteRepository> repositories) {
+        new BatchArtifactResolver(new SystemStreamLog(), this.session, this.resolver, repositories)
+                .resolve(Collections.singletonList(SOURCES));
+    }
+
+    private Path missingFile() {
+        return this.session.getLocalRepository().getBasedir().toPath()
+                .resolve(".cache").resolve("thorntail-fraction-plugin").resolve(BatchArtifactResolver.MISSING_ARTIFACTS_FILE);
+    }
+
+    private static final Artifact SOURCES = new DefaultArtifact("io.thorntail:undertow:jar:sources:2.0.0.Final");
+
+    private static final List<RemoteRepository> CENTRAL = Collections.singletonList(
+            new RemoteRepository.Builder("central", "default", "https://repo.maven.apache.org/maven2").build());
+
+    private static final List<RemoteRepository> JBOSS = Collections.singletonList(
+            new RemoteRepository.Builder("jboss", "default", "https://repository.jboss.org/nexus/content/groups/public").build());
+
+    private DefaultRepositorySystemSession session;
+
+    private final NotFoundResolver resolver = new NotFoundResolver();
+
+    private static final class NotFoundResolver implements ArtifactResolver {
+
+        @Override
+        public ArtifactResult resolveArtifact(RepositorySystemSession session, ArtifactRequest request) throws ArtifactResolutionException {
+            return resolveArtifacts(session, Collections.singletonList(request)).get(0);
+        }
+
+        @Override
+        public List<ArtifactResult> resolveArtifacts(RepositorySystemSession session, Collection<? extends ArtifactRequest> requests)
+                throws ArtifactResolutionException {
+            List<ArtifactResult> results = new ArrayList<>();
+            for (ArtifactRequest request : requests) {
+                this.requested.add(request.getArtifact());
+                ArtifactResult result = new ArtifactResult(request);
+                result.addException(new ArtifactNotFoundException(request.getArtifact(), request.getRepositories().get(0)));
+                results.add(result);
+            }
+            throw new ArtifactResolutionException(results);
+        }
+
+        private final List<Artifact> requested = new ArrayList<>();
+    }
+
+    private static final class EmptyLocalRepository implements LocalRepositoryManager {
+
+        EmptyLocalRepository(LocalRepository repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public LocalRepository getRepository() {
+            return this.repository;
+        }
+
+        @Override
+        public String getPathForLocalArtifact(Artifact artifact) {
+            return artifact.toString();
+        }
+
+        @Override
+        public String getPathForRemoteArtifact(Artifact artifact, RemoteRepository repository, String context) {
+            return artifact.toString();
+        }
+
+        @Override
+        public String getPathForLocalMetadata(Metadata metadata) {
+            return metadata.toString();
+        }
+
+        @Override
+        public String getPathForRemoteMetadata(Metadata metadata, RemoteRepository repository, String context) {
+            return metadata.toString();
+        }
+
+        @Override
+        public LocalArtifactResult find(RepositorySystemSession session, LocalArtifactRequest request) {
+            return new LocalArtifactResult(request);
+        }
+
+        @Override
+        public void add(RepositorySystemSession session, LocalArtifactRegistration request) {
+        }
+
+        @Override
+        public LocalMetadataResult find(RepositorySystemSession session, LocalMetadataRequest request) {
+            return new LocalMetadataResult(request);
+        }
+
+        @Override
+        public void add(RepositorySystemSession session, LocalMetadataRegistration request) {
+        }
+
+        private final LocalRepository repository;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FractionGraphTest {
+
+    @Test
+    public void shouldComputeTransitiveClosureOnce() {
+        Map<Gav, FractionMetadata> registry = new HashMap<>();
+        FractionMetadata io = fraction(registry, "io");
+        FractionMetadata undertow = fraction(registry, "undertow", "io");
+        FractionMetadata jaxrs = fraction(registry, "jaxrs", "undertow", "logging");
+        FractionMetadata cdi = fraction(registry, "cdi", "jaxrs", "io");
+
+        FractionGraph graph = new FractionGraph(d -> registry.get(d.getGav()));
+
+        assertEquals("[io.thorntail:io:1.0, io.thorntail:jaxrs:1.0, io.thorntail:undertow:1.0]",
+                     graph.transitiveDependencies(cdi).toString());
+        assertEquals("[io.thorntail:io:1.0, io.thorntail:undertow:1.0]", graph.transitiveDependencies(jaxrs).toString());
+        assertTrue(graph.transitiveDependencies(io).isEmpty());
+        assertSame(graph.transitiveDependencies(undertow), graph.transitiveDependencies(undertow));
+        assertEquals("[io.thorntail:io:1.0, io.thorntail:jaxrs:1.0]", graph.dependencies(cdi).toString());
+    }
+
+    @Test
+    public void shouldRejectCycles() {
+        Map<Gav, FractionMetadata> registry = new HashMap<>();
+        fraction(registry, "a", "b");
+        fraction(registry, "b", "c");
+        FractionMetadata c = fraction(registry, "c", "a");
+        try {
+            new FractionGraph(d -> registry.get(d.getGav())).transitiveDependencies(c);
+            fail("Expected a cycle");
+        } catch (IllegalStateException e) {
+            assertEquals("Cycle in fraction dependencies: io.thorntail:c:1.0 -> io.thorntail:a:1.0 -> io.thorntail:b:1.0 -> io.thorntail:c:1.0",
+                         e.getMessage());
+        }
+    }
+
+    private static FractionMetadata fraction(Map<Gav, FractionMetadata> registry, String artifactId, String... dependencies) {
+        FractionMetadata fraction = new FractionMetadata(FractionRegistry.THORNTAIL_GROUP_ID, artifactId, "1.0");
+        for (String dependency : dependencies) {
+            fraction.addDependency(new DependencyMetadata(FractionRegistry.THORNTAIL_GROUP_ID, dependency, "1.0", null, "jar"));
+        }
+        registry.put(fraction.getGav(), fraction);
+        return fraction;
+    }
+}
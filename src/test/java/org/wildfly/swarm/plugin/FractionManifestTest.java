@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FractionManifestTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldScanBlockSequence() throws IOException {
+        Path file = write("name: Undertow\n"
+                                  + "stability:\n"
+                                  + "  level: STABLE\n"
+                                  + "  index: 4\n"
+                                  + "dependencies:\n"
+                                  + "- io.thorntail:io:jar:1.0\n"
+                                  + "transitive-dependencies:\n"
+                                  + "- io.thorntail:io:jar:1.0\n"
+                                  + "- io.thorntail:spi:jar:1.0\n"
+                                  + "transitive-fraction-dependencies: []\n");
+
+        assertEquals(Arrays.asList("io.thorntail:io:jar:1.0", "io.thorntail:spi:jar:1.0"),
+                     FractionManifest.of(file).getTransitiveDependencies());
+    }
+
+    @Test
+    public void shouldFallBackToYamlParser() throws IOException {
+        Path flow = write("transitive-dependencies: ['io.thorntail:io:jar:1.0', \"io.thorntail:spi:jar:1.0\"]\n");
+        assertEquals(Arrays.asList("io.thorntail:io:jar:1.0", "io.thorntail:spi:jar:1.0"),
+                     FractionManifest.of(flow).getTransitiveDependencies());
+
+        Path quoted = write("transitive-dependencies:\n  - \"io.thorntail:io:jar:1.0\"\n");
+        assertEquals(Collections.singletonList("io.thorntail:io:jar:1.0"), FractionManifest.of(quoted).getTransitiveDependencies());
+
+        Path missing = write("name: Undertow\n");
+        assertEquals(Collections.emptyList(), FractionManifest.of(missing).getTransitiveDependencies());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldReportMalformedManifest() throws IOException {
+        FractionManifest.of(write("transitive-dependencies: [unterminated\n")).getTransitiveDependencies();
+    }
+
+    @Test
+    public void shouldRereadModifiedManifest() throws IOException {
+        Path file = write("transitive-dependencies:\n- io.thorntail:io:jar:1.0\n");
+        FractionManifest first = FractionManifest.of(file);
+        assertSame(first, FractionManifest.of(file));
+
+        Files.write(file, "transitive-dependencies:\n- io.thorntail:spi:jar:1.0\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+
+        FractionManifest second = FractionManifest.of(file);
+        assertNotSame(first, second);
+        assertEquals(Collections.singletonList("io.thorntail:spi:jar:1.0"), second.getTransitiveDependencies());
+    }
+
+    @Test
+    public void shouldDropLeastRecentlyUsedViews() throws IOException {
+        Path first = write("transitive-dependencies: []\n");
+        FractionManifest cached = FractionManifest.of(first);
+        for (int i = 0; i < FractionManifest.MAX_CACHED; ++i) {
+            FractionManifest.of(write("transitive-dependencies: []\n"));
+        }
+        assertNotSame(cached, FractionManifest.of(first));
+    }
+
+    @Test
+    public void shouldReadManifestOfArtifact() throws IOException {
+        Path jar = jar(FractionManifest.PATH, "transitive-fraction-dependencies:\n- io.thorntail:io:1.0\n");
+        assertEquals(Collections.singletonList("io.thorntail:io:1.0"), FractionManifest.ofArtifact(jar).getTransitiveFractionDependencies());
+
+        Path classes = tmp.newFolder().toPath();
+        Files.createDirectories(classes.resolve("META-INF"));
+        Files.write(classes.resolve(FractionManifest.PATH), "transitive-fraction-dependencies: []\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Collections.emptyList(), FractionManifest.ofArtifact(classes).getTransitiveFractionDependencies());
+    }
+
+    @Test
+    public void shouldTellArtifactsWithoutManifest() throws IOException {
+        Path jar = jar("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n");
+        assertNull(FractionManifest.ofArtifact(jar));
+        assertNull(FractionManifest.ofArtifact(jar));
+        assertNull(FractionManifest.ofArtifact(tmp.newFolder().toPath()));
+    }
+
+    @Test
+    public void shouldReadEmptyManifestAsEmpty() throws IOException {
+        FractionManifest manifest = FractionManifest.ofArtifact(jar(FractionManifest.PATH, ""));
+        assertEquals(Collections.emptyList(), manifest.getTransitiveDependencies());
+        assertEquals(Collections.emptyList(), manifest.getTransitiveFractionDependencies());
+    }
+
+    private Path jar(String entry, String content) throws IOException {
+        Path jar = tmp.newFile().toPath();
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(entry));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return jar;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tmp.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
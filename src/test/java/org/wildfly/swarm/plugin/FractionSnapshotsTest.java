@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FractionSnapshotsTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldRoundTripFractionMetadata() throws IOException {
+        Path dir = tmp.getRoot().toPath().resolve("snapshots");
+        MavenProject project = project("snapshot-undertow");
+
+        FractionMetadata meta = new FractionMetadata(project.getGroupId(), project.getArtifactId(), project.getVersion(), "provided");
+        meta.setName("Undertow");
+        meta.setDescription("Web server");
+        meta.setTags(Arrays.asList("Web", "Servlet"));
+        meta.setStabilityIndex(StabilityLevel.STABLE);
+        meta.setJavaFraction(Paths.get("org", "wildfly", "swarm", "undertow", "UndertowFraction.java"));
+        meta.setBaseModulePath(Paths.get("org", "wildfly", "swarm", "undertow"));
+        meta.addDependency(new DependencyMetadata("io.thorntail", "io", "1.0", null, "jar"));
+        meta.addTransitiveDependency(new DependencyMetadata("io.undertow", "undertow-core", "2.0", "sources", "jar", "runtime"));
+        meta.addDetectorClass(Paths.get("org", "wildfly", "swarm", "undertow", "detect", "UndertowPackageDetector.java"),
+                              Paths.get("/src", "UndertowPackageDetector.java"));
+
+        FractionSnapshots.write(dir, project, meta, null);
+        FractionSnapshots.writeIndex(dir, Collections.singletonList(project), null);
+
+        Set<FractionMetadata> loaded = FractionSnapshots.load(dir, new SystemStreamLog());
+        assertNotNull(loaded);
+        assertEquals(1, loaded.size());
+
+        FractionMetadata copy = loaded.iterator().next();
+        assertEquals(meta, copy);
+        assertEquals(meta.getFractionListString(), copy.getFractionListString());
+        assertEquals(meta.getTags(), copy.getTags());
+        assertEquals(meta.getModule(), copy.getModule());
+        assertEquals(StabilityLevel.STABLE, copy.getStabilityIndex());
+        assertTrue(copy.hasJavaCode());
+        assertEquals(meta.getDependencies(), copy.getDependencies());
+        assertEquals("runtime", copy.getTransitiveDependencies().iterator().next().getScope());
+        assertEquals(meta.getDetectorClasses(), copy.getDetectorClasses());
+        assertSame(copy, FractionRegistry.INSTANCE.of(project));
+    }
+
+    @Test
+    public void shouldRejectIncompleteOrStaleSnapshots() throws IOException {
+        Path dir = tmp.getRoot().toPath().resolve("snapshots");
+        MavenProject project = project("snapshot-stale");
+
+        FractionSnapshots.writeIndex(dir, Collections.singletonList(project), null);
+        assertNull(FractionSnapshots.load(dir, new SystemStreamLog()));
+
+        FractionMetadata meta = new FractionMetadata(project.getGroupId(), project.getArtifactId(), project.getVersion());
+        FractionSnapshots.write(dir, project, meta, null);
+        assertNotNull(FractionSnapshots.load(dir, new SystemStreamLog()));
+
+        Files.write(project.getFile().toPath(), "<project><name>Stale</name></project>".getBytes());
+        assertNull(FractionSnapshots.load(dir, new SystemStreamLog()));
+
+        FractionSnapshots.write(dir, project, meta, null);
+        Files.write(project.getBasedir().toPath().resolve("module.conf"), "org.jboss.modules".getBytes());
+        assertNull(FractionSnapshots.load(dir, new SystemStreamLog()));
+
+        FractionSnapshots.write(dir, project, meta, null);
+        Path detector = Paths.get(project.getBuild().getSourceDirectory(), "org", "example", "detect", "ExampleDetector.java");
+        Files.createDirectories(detector.getParent());
+        Files.write(detector, "package org.example.detect;".getBytes());
+        assertNull(FractionSnapshots.load(dir, new SystemStreamLog()));
+
+        FractionSnapshots.write(dir, project, meta, null);
+        assertNotNull(FractionSnapshots.load(dir, new SystemStreamLog()));
+    }
+
+    @Test
+    public void shouldSnapshotProjectsNotRunningProcessWithTheIndex() throws IOException {
+        Path dir = tmp.getRoot().toPath().resolve("snapshots");
+        MavenProject processed = project("snapshot-processed");
+        MavenProject unprocessed = project("snapshot-unprocessed");
+        unprocessed.getBuild().getPlugins().clear();
+        List<MavenProject> projects = Arrays.asList(processed, unprocessed);
+
+        assertSame(processed, FractionSnapshots.lastProcessed(projects));
+
+        FractionSnapshots.write(dir, processed, new FractionMetadata(processed.getGroupId(), processed.getArtifactId(), processed.getVersion()), null);
+        FractionSnapshots.writeIndex(dir, projects, null);
+        assertTrue(Files.isRegularFile(dir.resolve(FractionSnapshots.fileName(unprocessed.getGroupId(), unprocessed.getArtifactId()))));
+        assertNotNull(FractionSnapshots.load(dir, new SystemStreamLog()));
+    }
+
+    private MavenProject project(String artifactId) throws IOException {
+        File baseDir = tmp.newFolder(artifactId);
+        File pom = new File(baseDir, "pom.xml");
+        Files.write(pom.toPath(), "<project/>".getBytes());
+
+        PluginExecution execution = new PluginExecution();
+        execution.addGoal("process");
+        Plugin plugin = new Plugin();
+        plugin.setGroupId(FractionRegistry.THORNTAIL_GROUP_ID);
+        plugin.setArtifactId("thorntail-fraction-plugin");
+        plugin.addExecution(execution);
+
+        Model model = new Model();
+        model.setGroupId(FractionRegistry.THORNTAIL_GROUP_ID);
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0");
+        model.setPackaging("jar");
+        model.setBuild(new Build());
+        model.getBuild().setSourceDirectory(new File(baseDir, "src/main/java").getAbsolutePath());
+        model.getBuild().addPlugin(plugin);
+
+        MavenProject project = new MavenProject(model);
+        project.setFile(pom);
+        return project;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class GavTest {
+
+    @Test
+    public void shouldInternEqualCoordinates() {
+        Gav first = Gav.of("io.thorntail", "undertow", "2.0.0.Final", null, "jar");
+        Gav second = Gav.of(new String("io.thorntail"), new String("undertow"), new String("2.0.0.Final"), null, new String("jar"));
+
+        assertSame(first, second);
+        assertSame(first.getGroupId(), Gav.of("io.thorntail", "jaxrs", "2.0.0.Final", null, "jar").getGroupId());
+        assertEquals("io.thorntail:undertow:jar:2.0.0.Final", first.toString());
+        assertEquals("io.thorntail:undertow:jar:2.0.0.Final".hashCode(), first.hashCode());
+    }
+
+    @Test
+    public void shouldKeepDependencyMetadataSemantics() {
+        DependencyMetadata plain = new DependencyMetadata("io.thorntail", "undertow", "2.0.0.Final", null, "jar");
+        DependencyMetadata classified = new DependencyMetadata("io.thorntail", "undertow", "2.0.0.Final", "sources", "jar", "provided");
+        FractionMetadata fraction = new FractionMetadata("io.thorntail", "undertow", "2.0.0.Final");
+
+        // a fraction prints without its packaging, so it is not the same dependency as its artifact
+        assertNotEquals(plain, fraction);
+        assertNotEquals(plain, classified);
+        assertEquals(new DependencyMetadata("io.thorntail", "undertow", "2.0.0.Final", null, "jar").hashCode(), plain.hashCode());
+        assertEquals("io.thorntail:undertow:jar:sources:2.0.0.Final", classified.toString());
+
+        Set<DependencyMetadata> sorted = new TreeSet<>();
+        sorted.add(classified);
+        sorted.add(DependencyMetadata.fromString("io.thorntail:bean-validation:jar:2.0.0.Final"));
+        sorted.add(fraction);
+        sorted.add(plain);
+        assertEquals("[io.thorntail:bean-validation:jar:2.0.0.Final, io.thorntail:undertow:2.0.0.Final, "
+                             + "io.thorntail:undertow:jar:2.0.0.Final, io.thorntail:undertow:jar:sources:2.0.0.Final]",
+                     sorted.toString());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.doc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ConfigurationCatalogTest {
+
+    @Test
+    public void shouldMatchWildcardSegments() {
+        ConfigurationCatalog catalog = catalog();
+
+        assertEquals("thorntail.undertow.servers.*.host", catalog.lookup("thorntail.undertow.servers.default-server.host").getKey());
+        assertEquals("thorntail.undertow.servers.*.host", catalog.lookup("thorntail.undertow.servers.*.host").getKey());
+        assertEquals("thorntail.undertow.servers.special.host", catalog.lookup("thorntail.undertow.servers.special.host").getKey());
+        // falls back to the wildcard when the exact segment leads nowhere
+        assertEquals("thorntail.undertow.servers.*.port", catalog.lookup("thorntail.undertow.servers.special.port").getKey());
+        assertNull(catalog.lookup("thorntail.undertow.servers.default-server"));
+        assertNull(catalog.lookup("thorntail.undertow.servers.default-server.unknown"));
+        assertNull(catalog.lookup("thorntail.unknown"));
+    }
+
+    @Test
+    public void shouldCompleteNextSegment() {
+        ConfigurationCatalog catalog = catalog();
+
+        assertEquals(Collections.singleton("thorntail"), catalog.complete(""));
+        assertEquals(new HashSet<>(Arrays.asList("datasources", "http", "undertow")), catalog.complete("thorntail."));
+        assertEquals(Collections.singleton("undertow"), catalog.complete("thorntail.un"));
+        assertEquals(new HashSet<>(Arrays.asList("host", "https", "port")), catalog.complete("thorntail.undertow.servers.default-server."));
+        assertEquals(new HashSet<>(Arrays.asList("host", "https")), catalog.complete("thorntail.undertow.servers.special.h"));
+        assertEquals(Collections.emptySet(), catalog.complete("thorntail.unknown.x"));
+    }
+
+    @Test
+    public void shouldKeepFirstDeclaration() {
+        ConfigurationCatalog catalog = catalog();
+
+        assertNotNull(catalog.add("thorntail.datasources.data-sources.*.jndi-name", "other", "Other", null));
+        assertEquals("datasources", catalog.lookup("thorntail.datasources.data-sources.ExampleDS.jndi-name").getFraction());
+        assertEquals(6, catalog.size());
+    }
+
+    @Test
+    public void shouldReadWhatWasWritten() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalog().write(out);
+
+        ConfigurationCatalog read = ConfigurationCatalog.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(6, read.size());
+        ConfigurationCatalog.Entry entry = read.lookup("thorntail.http.port");
+        assertEquals("thorntail.http.port", entry.getKey());
+        assertEquals("undertow", entry.getFraction());
+        assertEquals("Sets the port of the default HTTP listener", entry.getDocumentation());
+        assertEquals("org.wildfly.swarm.spi.api.Defaultable<java.lang.Integer>", entry.getType());
+        assertNull(read.lookup("thorntail.undertow.servers.x.host").getType());
+        assertEquals("Host name \u00e0 la carte", read.lookup("thorntail.undertow.servers.x.host").getDocumentation());
+    }
+
+    private static ConfigurationCatalog catalog() {
+        ConfigurationCatalog catalog = new ConfigurationCatalog();
+        catalog.add("thorntail.http.port", "undertow", "Sets the port of the default HTTP listener",
+                    "org.wildfly.swarm.spi.api.Defaultable<java.lang.Integer>");
+        catalog.add("thorntail.undertow.servers.*.host", "undertow", "Host name \u00e0 la carte", null);
+        catalog.add("thorntail.undertow.servers.*.port", "undertow", "Port", null);
+        catalog.add("thorntail.undertow.servers.special.host", "undertow", "Special host", null);
+        catalog.add("thorntail.undertow.servers.*.https.port", "undertow", "Port", null);
+        catalog.add("thorntail.datasources.data-sources.*.jndi-name", "datasources", "JNDI name", null);
+        return catalog;
+    }
+}
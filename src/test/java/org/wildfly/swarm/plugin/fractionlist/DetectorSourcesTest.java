@@ -0,0 +1,76 @@
+/**
+ * Copyright 2015-2016 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.fractionlist;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class DetectorSourcesTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldOnlyListDetectorClasses() throws IOException {
+        Map<Path, Path> sources = new HashMap<>();
+        source(sources, "org/wildfly/swarm/undertow/detect/UndertowPackageDetector.java",
+               "package org.wildfly.swarm.undertow.detect;\n"
+                       + "import org.wildfly.swarm.spi.meta.PackageFractionDetector;\n"
+                       + "/** Not a class Foo { */\n"
+                       + "public class UndertowPackageDetector extends PackageFractionDetector {\n}\n");
+        source(sources, "org/wildfly/swarm/undertow/detect/BaseDetector.java",
+               "package org.wildfly.swarm.undertow.detect;\n"
+                       + "public abstract class BaseDetector<T> extends org.wildfly.swarm.spi.meta.FileDetector<T> implements org.wildfly.swarm.spi.meta.FractionDetector<T> {\n}\n");
+        source(sources, "org/wildfly/swarm/undertow/detect/servlet/ServletDetector.java",
+               "package org.wildfly.swarm.undertow.detect.servlet;\n"
+                       + "import org.wildfly.swarm.undertow.detect.BaseDetector;\n"
+                       + "@SuppressWarnings(\"x\")\n"
+                       + "public final class ServletDetector extends BaseDetector<String> {\n}\n");
+        source(sources, "org/wildfly/swarm/undertow/detect/Helper.java",
+               "package org.wildfly.swarm.undertow.detect;\n"
+                       + "// class Helper extends PackageFractionDetector {\n"
+                       + "public class Helper {\n}\n");
+        source(sources, "org/wildfly/swarm/undertow/detect/Hidden.java",
+               "package org.wildfly.swarm.undertow.detect;\n"
+                       + "class Hidden extends PackageFractionDetector {\n}\n");
+        source(sources, "org/wildfly/swarm/undertow/detect/package-info.java",
+               "package org.wildfly.swarm.undertow.detect;\n");
+
+        assertEquals(new TreeSet<>(Arrays.asList("org.wildfly.swarm.undertow.detect.UndertowPackageDetector",
+                                                 "org.wildfly.swarm.undertow.detect.servlet.ServletDetector")),
+                     DetectorSources.detectorClasses(sources));
+    }
+
+    private void source(Map<Path, Path> sources, String relative, String content) throws IOException {
+        Path file = this.tmp.getRoot().toPath().resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        sources.put(Paths.get(relative), file);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.fractionlist;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.swarm.plugin.DependencyMetadata;
+import org.wildfly.swarm.plugin.FractionGraph;
+import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.Gav;
+import org.wildfly.swarm.plugin.StabilityLevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FractionListIndexTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldRoundTripThroughMappedFile() throws IOException {
+        List<FractionMetadata> fractions = new ArrayList<>();
+        for (int i = 0; i < 70; ++i) {
+            FractionMetadata fraction = new FractionMetadata("io.thorntail", "fraction-" + i, "1.0");
+            fraction.setName("Fraction " + i);
+            // 70 distinct tags need two bitset words per fraction
+            fraction.setTags(Arrays.asList("tag-" + i, "common"));
+            fractions.add(fraction);
+        }
+        FractionMetadata undertow = new FractionMetadata("io.thorntail", "undertow", "1.0", "provided");
+        undertow.setName("Undertow");
+        undertow.setDescription("Servlet container \u00fc");
+        undertow.setInternal(true);
+        undertow.setStabilityIndex(StabilityLevel.STABLE);
+        undertow.setTags(Collections.singletonList("Web"));
+        undertow.addDependency(new DependencyMetadata("io.thorntail", "fraction-3", "1.0", null, "jar"));
+        undertow.addDependency(new DependencyMetadata("io.thorntail", "fraction-42", "1.0", null, "jar"));
+        undertow.addDependency(new DependencyMetadata("io.undertow", "undertow-core", "2.0", null, "jar"));
+        fractions.add(undertow);
+
+        Map<Gav, FractionMetadata> registry = new HashMap<>();
+        fractions.forEach(f -> registry.put(f.getGav(), f));
+        FractionListWriter writer = new FractionListWriter(fractions, new FractionGraph(d -> registry.get(d.getGav())));
+        Path file = tmp.getRoot().toPath().resolve("fraction-list.idx");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            writer.writeIndex(out);
+        }
+
+        FractionListIndex index = FractionListIndex.open(file);
+        assertEquals(71, index.size());
+        assertEquals(-1, index.find("io.thorntail", "missing"));
+        assertEquals(-1, index.find("io.thorntail", "fraction-\u00e4"));
+        for (int i = 0; i < index.size(); ++i) {
+            assertEquals(i, index.find(index.groupId(i), index.artifactId(i)));
+        }
+
+        int found = index.find("io.thorntail", "undertow");
+        assertEquals("1.0", index.version(found));
+        assertEquals("provided", index.scope(found));
+        assertEquals("Undertow", index.name(found));
+        assertEquals("Servlet container \u00fc", index.description(found));
+        assertEquals(StabilityLevel.STABLE.ordinal(), index.stabilityIndex(found));
+        assertTrue(index.isInternal(found));
+        assertEquals(Collections.singletonList("Web"), index.tags(found));
+        assertEquals(2, index.dependencyCount(found));
+        assertEquals("fraction-3", index.artifactId(index.dependency(found, 0)));
+        assertEquals("fraction-42", index.artifactId(index.dependency(found, 1)));
+
+        int other = index.find("io.thorntail", "fraction-65");
+        assertNull(index.scope(other));
+        assertNull(index.description(other));
+        assertFalse(index.isInternal(other));
+        assertTrue(index.hasTag(other, index.tagId("tag-65")));
+        assertTrue(index.hasTag(other, index.tagId("common")));
+        assertFalse(index.hasTag(other, index.tagId("tag-64")));
+        assertFalse(index.hasTag(other, index.tagId("no-such-tag")));
+    }
+}
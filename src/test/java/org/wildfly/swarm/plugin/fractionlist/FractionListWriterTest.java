@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.fractionlist;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.wildfly.swarm.plugin.DependencyMetadata;
+import org.wildfly.swarm.plugin.FractionGraph;
+import org.wildfly.swarm.plugin.FractionMetadata;
+import org.wildfly.swarm.plugin.Gav;
+import org.wildfly.swarm.plugin.StabilityLevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FractionListWriterTest {
+
+    @Test
+    public void shouldWriteAllListsInOnePass() throws IOException {
+        FractionMetadata io = fraction("io", "IO");
+        FractionMetadata undertow = fraction("undertow", "Undertow");
+        undertow.setStabilityIndex(StabilityLevel.STABLE);
+        undertow.addDependency(new DependencyMetadata("io.thorntail", "io", "1.0", null, "jar"));
+        undertow.addDependency(new DependencyMetadata("io.undertow", "undertow-core", "2.0", null, "jar"));
+        FractionMetadata arquillian = new FractionMetadata("io.thorntail", "arquillian", "1.0", "test");
+        arquillian.addDependency(new DependencyMetadata("io.thorntail", "undertow", "1.0", null, "jar"));
+
+        Map<Gav, FractionMetadata> registry = new HashMap<>();
+        for (FractionMetadata each : Arrays.asList(io, undertow, arquillian)) {
+            registry.put(each.getGav(), each);
+        }
+
+        StringWriter txt = new StringWriter();
+        StringWriter json = new StringWriter();
+        StringWriter js = new StringWriter();
+        new FractionListWriter(Arrays.asList(undertow, io, arquillian), new FractionGraph(d -> registry.get(d.getGav()))).write(txt, json, js, "1.0");
+
+        assertEquals("io.thorntail:arquillian:1.0:test = io.thorntail:undertow:1.0\n"
+                             + "io.thorntail:io:1.0 = \n"
+                             + "io.thorntail:undertow:1.0 = io.thorntail:io:1.0\n", txt.toString());
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode list = mapper.readTree(json.toString());
+        assertEquals(3, list.size());
+        JsonNode first = list.get(0);
+        assertEquals("arquillian", first.get("artifactId").asText());
+        assertEquals("test", first.get("scope").asText());
+        JsonNode nested = first.get("fractionDependencies").get(0);
+        assertEquals("undertow", nested.get("artifactId").asText());
+        assertEquals(StabilityLevel.STABLE.ordinal(), nested.get("stabilityIndex").asInt());
+        assertEquals("stable", nested.get("stabilityDescription").asText());
+        assertEquals("io", nested.get("fractionDependencies").get(0).get("artifactId").asText());
+        assertEquals("[\"io.thorntail:io:1.0\",\"io.thorntail:undertow:1.0\"]", first.get("transitiveFractionDependencies").toString());
+        assertFalse(list.get(1).has("scope"));
+        assertEquals("Web,Servlet", list.get(1).get("tags").asText());
+
+        String script = js.toString();
+        String prefix = "swarmVersion='1.0';fractionList = ";
+        assertTrue(script.startsWith(prefix));
+        assertTrue(script.endsWith(";"));
+        JsonNode jsList = mapper.readTree(script.substring(prefix.length(), script.length() - 1));
+        assertEquals(3, jsList.size());
+        assertEquals(0, jsList.get(0).get("fractionDependencies").size());
+    }
+
+    private static FractionMetadata fraction(String artifactId, String name) {
+        FractionMetadata fraction = new FractionMetadata("io.thorntail", artifactId, "1.0");
+        fraction.setName(name);
+        List<String> tags = Arrays.asList("Web", "Servlet");
+        fraction.setTags(tags);
+        return fraction;
+    }
+}
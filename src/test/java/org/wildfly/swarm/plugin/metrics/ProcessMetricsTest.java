@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProcessMetricsTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldCountStageIo() throws MojoExecutionException {
+        ProcessMetrics metrics = new ProcessMetrics(project("undertow"));
+        metrics.measure("first", () -> {
+            IoCounters.recordRead(100);
+            IoCounters.recordRead(20);
+            IoCounters.recordWrite(7);
+            IoCounters.recordUnchanged();
+            IoCounters.recordDelete();
+            return null;
+        });
+        metrics.measure("second", () -> null);
+
+        StageMetrics first = metrics.getStages().get(0);
+        assertEquals("first", first.getStage());
+        assertEquals(2, first.getFilesRead());
+        assertEquals(120, first.getBytesRead());
+        assertEquals(1, first.getFilesWritten());
+        assertEquals(7, first.getBytesWritten());
+        assertEquals(1, first.getFilesUnchanged());
+        assertEquals(1, first.getFilesDeleted());
+
+        StageMetrics second = metrics.getStages().get(1);
+        assertEquals(0, second.getFilesRead());
+        assertEquals(0, second.getFilesDeleted());
+        assertTrue(second.getWallNanos() >= 0);
+    }
+
+    @Test
+    public void shouldMeasureFailingStage() {
+        ProcessMetrics metrics = new ProcessMetrics(project("undertow"));
+        try {
+            metrics.measure("failing", () -> {
+                IoCounters.recordRead(1);
+                throw new MojoExecutionException("failed");
+            });
+        } catch (MojoExecutionException expected) {
+            // measured all the same
+        }
+        assertEquals(1, metrics.getStages().get(0).getFilesRead());
+    }
+
+    @Test
+    public void shouldSummarizeWrittenMetrics() throws IOException, MojoExecutionException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode slow = written(mapper, "slow", 3, 30, 2_000_000L);
+        JsonNode fast = written(mapper, "fast", 1, 10, 1_000_000L);
+
+        JsonNode report = MetricsReportMojo.summarize(mapper, Arrays.asList(fast, slow));
+
+        JsonNode fractions = report.path("fractions");
+        assertEquals(2, fractions.size());
+        assertEquals("io.thorntail:slow", fractions.get(0).path("fraction").asText());
+        assertEquals("io.thorntail:fast", fractions.get(1).path("fraction").asText());
+
+        JsonNode stages = report.path("stages");
+        assertEquals(1, stages.size());
+        assertEquals("read", stages.get(0).path("stage").asText());
+        assertEquals(3_000_000L, stages.get(0).path("wallNanos").asLong());
+        assertEquals(4, stages.get(0).path("filesRead").asLong());
+        assertEquals(40, stages.get(0).path("bytesRead").asLong());
+        assertEquals(4, stages.get(0).path("filesDeleted").asLong());
+    }
+
+    private JsonNode written(ObjectMapper mapper, String artifactId, int files, long bytes, long wallNanos) throws IOException, MojoExecutionException {
+        ProcessMetrics metrics = new ProcessMetrics(project(artifactId));
+        metrics.measure("read", () -> {
+            for (int i = 0; i < files; ++i) {
+                IoCounters.recordRead(bytes / files);
+                IoCounters.recordDelete();
+            }
+            return null;
+        });
+        Path buildDir = tmp.newFolder(artifactId).toPath().resolve("target");
+        metrics.write(buildDir);
+        ObjectNode written = (ObjectNode) mapper.readTree(buildDir.resolve(ProcessMetrics.FILE_NAME).toFile());
+        assertEquals(files, written.path("stages").get(0).path("filesRead").asLong());
+        // wall times as measured would make the ranking flaky
+        written.put("totalWallNanos", wallNanos);
+        ((ObjectNode) written.path("stages").get(0)).put("wallNanos", wallNanos);
+        return written;
+    }
+
+    private static MavenProject project(String artifactId) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("io.thorntail");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        return project;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.decorator.Decorator;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.NormalScope;
+import javax.enterprise.inject.Stereotype;
+
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CDIMarkerTest {
+
+    @Test
+    public void shouldListBeanClasses() throws IOException {
+        Index index = index(ScopedBean.class, AbstractScopedBean.class, ScopedInterface.class,
+                            LocalStereotype.class, StereotypedBean.class,
+                            LocalScope.class, LocalScopedBean.class,
+                            AbstractDecorator.class, PlainClass.class);
+
+        Set<String> expected = new TreeSet<>(Arrays.asList(ScopedBean.class.getName(),
+                                                           StereotypedBean.class.getName(),
+                                                           LocalScopedBean.class.getName(),
+                                                           AbstractDecorator.class.getName()));
+        assertEquals(expected, CDIMarker.beanClasses(index));
+    }
+
+    @Test
+    public void shouldIgnoreStereotypesDeclaredElsewhere() throws IOException {
+        // without the stereotype declaration in the index, its use is not bean defining
+        assertEquals(new TreeSet<String>(), CDIMarker.beanClasses(index(StereotypedBean.class, LocalScopedBean.class)));
+    }
+
+    private static Index index(Class<?>... classes) throws IOException {
+        Indexer indexer = new Indexer();
+        for (Class<?> each : classes) {
+            try (InputStream in = each.getResourceAsStream("/" + each.getName().replace('.', '/') + ".class")) {
+                indexer.index(in);
+            }
+        }
+        return indexer.complete();
+    }
+
+    @ApplicationScoped
+    static class ScopedBean {
+    }
+
+    @ApplicationScoped
+    abstract static class AbstractScopedBean {
+    }
+
+    @ApplicationScoped
+    interface ScopedInterface {
+    }
+
+    @Stereotype
+    @ApplicationScoped
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface LocalStereotype {
+    }
+
+    @LocalStereotype
+    static class StereotypedBean {
+    }
+
+    @NormalScope
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface LocalScope {
+    }
+
+    @LocalScope
+    static class LocalScopedBean {
+    }
+
+    @Decorator
+    abstract static class AbstractDecorator {
+    }
+
+    static class PlainClass {
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ClassModelTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldClassifyAndIndexOnce() throws IOException {
+        Path classes = tmp.newFolder("classes").toPath();
+        copy(ClassModel.class, classes.resolve("org/wildfly/swarm/undertow/runtime/ClassModel.class"));
+        copy(Jandexer.class, classes.resolve("org/wildfly/swarm/undertow/Jandexer.class"));
+        copy(CDIMarker.class, classes.resolve("org/wildfly/swarm/undertow/detect/CDIMarker.class"));
+        Files.createDirectories(classes.resolve("META-INF"));
+        Files.createFile(classes.resolve("META-INF/beans.xml"));
+
+        ClassModel model = new ClassModel(classes);
+        assertEquals(3, model.classFiles().size());
+        assertEquals(new HashSet<>(Arrays.asList("org/wildfly/swarm/undertow/runtime")), model.packages(f -> f.contains("runtime")));
+        assertEquals(new HashSet<>(Arrays.asList("org/wildfly/swarm/undertow/runtime", "org/wildfly/swarm/undertow",
+                                                 "org/wildfly/swarm/undertow/detect")), model.packages(f -> true));
+
+        Index index = model.index();
+        assertSame(index, model.index());
+        assertNotNull(index.getClassByName(DotName.createSimple(ClassModel.class.getName())));
+        assertNotNull(index.getClassByName(DotName.createSimple(Jandexer.class.getName())));
+        assertNull(index.getClassByName(DotName.createSimple(CDIMarker.class.getName())));
+
+        model.removed(Paths.get("org/wildfly/swarm/undertow/detect"));
+        assertEquals(2, model.classFiles().size());
+    }
+
+    private static void copy(Class<?> type, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+            Files.copy(in, target);
+        }
+    }
+}
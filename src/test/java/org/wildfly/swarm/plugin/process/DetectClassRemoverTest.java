@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.swarm.plugin.FractionMetadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DetectClassRemoverTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldRemoveEveryDetectPackage() throws IOException, MojoExecutionException {
+        Path classes = tmp.newFolder("classes").toPath();
+        Path detect = classes.resolve("org/wildfly/swarm/undertow/detect");
+        Files.createDirectories(detect.resolve("servlet"));
+        Files.createFile(detect.resolve("UndertowPackageDetector.class"));
+        Files.createFile(detect.resolve("UndertowPackageDetector$1.class"));
+        Files.createFile(detect.resolve("servlet/ServletDetector.class"));
+        Path fraction = Files.createFile(classes.resolve("org/wildfly/swarm/undertow/UndertowFraction.class"));
+        // compiled from a generated source root, not recorded by the registry
+        Path generated = Files.createDirectories(classes.resolve("org/wildfly/swarm/other/detect"));
+        Files.createFile(generated.resolve("GeneratedDetector.class"));
+        // a resource only directory
+        Path resources = Files.createDirectories(classes.resolve("detect"));
+        Files.createFile(resources.resolve("detectors.txt"));
+        Path detector = Files.createFile(classes.resolve("org/wildfly/swarm/undertow/Detector.class"));
+
+        MavenProject project = new MavenProject();
+        project.getBuild().setOutputDirectory(classes.toString());
+        ClassModel model = new ClassModel(classes);
+        new DetectClassRemover(new SystemStreamLog(), project, model).apply(new FractionMetadata("io.thorntail", "undertow", "1.0", null));
+
+        assertFalse(Files.exists(detect));
+        assertFalse(Files.exists(generated));
+        assertFalse(Files.exists(resources));
+        assertTrue(Files.exists(fraction));
+        assertTrue(Files.exists(detector));
+        assertEquals(new HashSet<>(Arrays.asList(fraction, detector)), new HashSet<>(model.classFiles()));
+        assertTrue(model.detectPackages().isEmpty());
+    }
+
+    @Test
+    public void shouldRemoveThePackagesOfRecordedDetectors() throws IOException {
+        Path classes = tmp.newFolder("classes").toPath();
+        Files.createDirectories(classes.resolve("c/detect"));
+        ClassModel model = new ClassModel(classes);
+
+        FractionMetadata meta = new FractionMetadata("io.thorntail", "undertow", "1.0", null);
+        meta.addDetectorClass(Paths.get("a/detect/ADetector.java"), Paths.get("/src/a/detect/ADetector.java"));
+        meta.addDetectorClass(Paths.get("a/detect/servlet/Helper.java"), Paths.get("/src/a/detect/servlet/Helper.java"));
+        meta.addDetectorClass(Paths.get("b/detect/BDetector.java"), Paths.get("/src/b/detect/BDetector.java"));
+
+        assertEquals(new TreeSet<>(Arrays.asList(Paths.get("a/detect"), Paths.get("b/detect"), Paths.get("c/detect"))),
+                     DetectClassRemover.detectPackages(meta, model));
+    }
+
+    @Test
+    public void shouldFindOutermostDetectPackages() throws IOException {
+        Path classes = tmp.newFolder("classes").toPath();
+        Files.createDirectories(classes.resolve("a/detect/detect"));
+        Files.createDirectories(classes.resolve("b/detect"));
+        Files.createDirectories(classes.resolve("c/detector"));
+
+        assertEquals(new TreeSet<>(Arrays.asList(Paths.get("a/detect"), Paths.get("b/detect"))), new ClassModel(classes).detectPackages());
+        assertTrue(new ClassModel(classes.resolve("missing")).detectPackages().isEmpty());
+    }
+}
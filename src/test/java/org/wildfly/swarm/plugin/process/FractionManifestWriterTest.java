@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import static org.junit.Assert.assertEquals;
+
+public class FractionManifestWriterTest {
+
+    @Test
+    public void shouldWriteSortedDeduplicatedSequences() throws IOException {
+        StringWriter out = new StringWriter();
+        new FractionManifestWriter(out)
+                .value("name", "Undertow")
+                .beginMapping("stability")
+                .value("level", "STABLE")
+                .value("index", 4)
+                .endMapping()
+                .value("internal", false)
+                .sequence("dependencies", Arrays.asList("io.thorntail:undertow:jar:1.0", "io.thorntail:io:jar:1.0", "io.thorntail:io:jar:1.0"))
+                .sequence("maven-dependencies", Collections.emptyList());
+
+        assertEquals("name: Undertow\n"
+                             + "stability:\n"
+                             + "  level: STABLE\n"
+                             + "  index: 4\n"
+                             + "internal: false\n"
+                             + "dependencies:\n"
+                             + "- io.thorntail:io:jar:1.0\n"
+                             + "- io.thorntail:undertow:jar:1.0\n"
+                             + "maven-dependencies: []\n", out.toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldReadBackAsTheSameStrings() throws IOException {
+        List<String> values = Arrays.asList(
+                "", "null", "~", "Yes", "off", "1.0", "2.0.0.Final", "12:30", "0x1F", ".inf", "-", "- item",
+                "key: value", "a #comment", "trailing ", " leading", "colon:", "[flow]", "{flow}", "*alias", "&anchor",
+                "!tag", "%directive", "@at", "`tick", "'single'", "\"double\"", "back\\slash", "line\nbreak", "tab\there",
+                "bell\u0007", "caf\u00e9", "\u2028", "smile \ud83d\ude00", "Undertow (Servlet/JSP)", "org.jboss.weld:weld-core");
+        for (String value : values) {
+            StringWriter out = new StringWriter();
+            new FractionManifestWriter(out).value("description", value);
+
+            Map<String, Object> read = (Map<String, Object>) new Yaml().load(out.toString());
+            assertEquals(out.toString(), value, read.get("description"));
+        }
+
+        StringWriter out = new StringWriter();
+        new FractionManifestWriter(out).value("description", null);
+        assertEquals(null, ((Map<String, Object>) new Yaml().load(out.toString())).get("description"));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class JandexArtifactIndexerTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldIndexOncePerChecksum() throws IOException {
+        File archive = tmp.newFile("artifact.jar");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("org/wildfly/swarm/plugin/process/Jandexer.class"));
+            try (InputStream in = Jandexer.class.getResourceAsStream("Jandexer.class")) {
+                byte[] buf = new byte[8192];
+                int len;
+                while ((len = in.read(buf)) >= 0) {
+                    zip.write(buf, 0, len);
+                }
+            }
+            zip.closeEntry();
+        }
+
+        Path cache = tmp.getRoot().toPath().resolve("cache");
+        JandexArtifactIndexer indexer = new JandexArtifactIndexer(cache);
+        byte[] jar = indexer.indexJar(archive);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(jar))) {
+            ZipEntry entry = zip.getNextEntry();
+            assertEquals(JandexArtifactIndexer.INDEX_ENTRY, entry.getName());
+            Index index = new IndexReader(zip).read();
+            assertNotNull(index.getClassByName(DotName.createSimple(Jandexer.class.getName())));
+            assertNull(zip.getNextEntry());
+        }
+
+        try (Stream<Path> cached = Files.list(cache)) {
+            assertEquals(1, cached.count());
+        }
+        // served from the cache, byte for byte
+        assertArrayEquals(jar, new JandexArtifactIndexer(cache).indexJar(archive));
+    }
+}
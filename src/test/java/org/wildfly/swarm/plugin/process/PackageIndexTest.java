@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PackageIndexTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldListPathsPerResource() throws IOException {
+        File archive = tmp.newFile("undertow-core.jar");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (String entry : Arrays.asList("META-INF/MANIFEST.MF", "module-info.class", "Root.class",
+                                              "io/undertow/Undertow.class", "io/undertow/Undertow$1.class",
+                                              "io/undertow/server/", "io/undertow/server/HttpHandler.class",
+                                              "io/undertow/resources/messages.properties")) {
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.closeEntry();
+            }
+        }
+
+        Set<String> packages = PackageIndex.packagesOf(archive);
+        assertEquals(new HashSet<>(Arrays.asList("", "META-INF", "io/undertow", "io/undertow/server", "io/undertow/resources")), packages);
+
+        Map<String, Set<String>> resources = new LinkedHashMap<>();
+        resources.put("io.undertow:undertow-servlet:2.0", new HashSet<>(Arrays.asList("io/undertow/servlet")));
+        resources.put("io.undertow:undertow-core:2.0", packages);
+        assertEquals("[io.undertow:undertow-core:2.0]\n"
+                             + "\n"
+                             + "META-INF\n"
+                             + "io/undertow\n"
+                             + "io/undertow/resources\n"
+                             + "io/undertow/server\n"
+                             + "[io.undertow:undertow-servlet:2.0]\n"
+                             + "io/undertow/servlet\n", PackageIndex.format(resources));
+    }
+
+    @Test
+    public void shouldListPathsOfIndexJar() throws IOException {
+        File archive = tmp.newFile("undertow-core-2.0-jandex.jar");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("META-INF/jandex.idx"));
+            zip.closeEntry();
+        }
+        assertEquals(Collections.singleton("META-INF"), PackageIndex.packagesOf(archive));
+    }
+
+    @Test
+    public void shouldListPathsOfDirectory() throws IOException {
+        Path classes = tmp.newFolder("classes").toPath();
+        Files.createDirectories(classes.resolve("META-INF/services"));
+        Files.createFile(classes.resolve("META-INF/services/org.wildfly.swarm.spi.api.Fraction"));
+        Files.createDirectories(classes.resolve("org/wildfly/swarm/undertow"));
+        Files.createFile(classes.resolve("org/wildfly/swarm/undertow/UndertowFraction.class"));
+
+        assertEquals(new HashSet<>(Arrays.asList("META-INF", "META-INF/services", "org", "org/wildfly", "org/wildfly/swarm",
+                                                 "org/wildfly/swarm/undertow")),
+                     PackageIndex.packagesOf(classes.toFile()));
+
+        Files.createFile(classes.resolve("README.md"));
+        assertTrue(PackageIndex.packagesOf(classes.toFile()).contains(""));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process.configurable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DocumentationRegistryTest {
+
+    @Test
+    public void shouldListBindingsSortedByKey() {
+        DocumentationRegistry registry = new DocumentationRegistry();
+        registry.addBinding("thorntail.http.port", "org.wildfly.swarm.undertow.UndertowFraction", "httpPort",
+                            "org.wildfly.swarm.spi.api.Defaultable<java.lang.Integer>", true);
+        registry.addBinding("thorntail.http.host", "org.wildfly.swarm.undertow.UndertowFraction", "host",
+                            "java.lang.String", false);
+        registry.addBinding("thorntail.http.port", "org.wildfly.swarm.undertow.UndertowFraction", "httpPort",
+                            "org.wildfly.swarm.spi.api.Defaultable<java.lang.Integer>", true);
+
+        assertEquals(DocumentationRegistry.BINDING_TABLE_HEADER
+                             + "thorntail.http.host\torg.wildfly.swarm.undertow.UndertowFraction\thost\tjava.lang.String\tfalse\n"
+                             + "thorntail.http.port\torg.wildfly.swarm.undertow.UndertowFraction\thttpPort\t"
+                             + "org.wildfly.swarm.spi.api.Defaultable<java.lang.Integer>\ttrue\n",
+                     registry.asBindingTable());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.process.configurable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.Indexer;
+import org.junit.Test;
+import org.wildfly.swarm.config.runtime.AttributeDocumentation;
+import org.wildfly.swarm.config.runtime.ResourceDocumentation;
+import org.wildfly.swarm.config.runtime.SingletonResource;
+import org.wildfly.swarm.spi.api.Defaultable;
+import org.wildfly.swarm.spi.api.Fraction;
+import org.wildfly.swarm.spi.api.annotations.Configurable;
+import org.wildfly.swarm.spi.api.annotations.Configurables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ResourceDocumentationGathererTest {
+
+    @Test
+    public void shouldCutSelfReferencingResource() throws IOException {
+        Index index = index(Node.class, Node.Subresources.class);
+
+        assertEquals(Collections.singletonList(".name"), suffixes(new DocumentationCache(index), Node.class));
+    }
+
+    @Test
+    public void shouldCutMutuallyReferencingResources() throws IOException {
+        Index index = index(Left.class, Left.Subresources.class, Right.class, Right.Subresources.class);
+
+        assertEquals(Arrays.asList(".left", ".right.right"), suffixes(new DocumentationCache(index), Left.class));
+        assertEquals(Arrays.asList(".right", ".left.left"), suffixes(new DocumentationCache(index), Right.class));
+    }
+
+    @Test
+    public void shouldNotDependOnTraversalOrder() throws IOException {
+        Index index = index(Left.class, Left.Subresources.class, Right.class, Right.Subresources.class);
+
+        DocumentationCache leftFirst = new DocumentationCache(index);
+        suffixes(leftFirst, Left.class);
+        assertEquals(Arrays.asList(".right", ".left.left"), suffixes(leftFirst, Right.class));
+
+        DocumentationCache rightFirst = new DocumentationCache(index);
+        suffixes(rightFirst, Right.class);
+        assertEquals(Arrays.asList(".left", ".right.right"), suffixes(rightFirst, Left.class));
+    }
+
+    @Test
+    public void shouldCacheOnlyUncutEntries() throws IOException {
+        Index index = index(Parent.class, Parent.Subresources.class, Leaf.class,
+                            Left.class, Left.Subresources.class, Right.class, Right.Subresources.class);
+        DocumentationCache cache = new DocumentationCache(index);
+
+        List<DocumentationCache.Entry> first = ResourceDocumentationGatherer.entries(cache, classInfo(index, Parent.class));
+        assertSame(first, ResourceDocumentationGatherer.entries(cache, classInfo(index, Parent.class)));
+        assertNotNull(cache.getEntries(DotName.createSimple(Leaf.class.getName())));
+
+        ResourceDocumentationGatherer.entries(cache, classInfo(index, Left.class));
+        assertNull(cache.getEntries(DotName.createSimple(Left.class.getName())));
+        assertNull(cache.getEntries(DotName.createSimple(Right.class.getName())));
+    }
+
+    @Test
+    public void shouldBindTheFieldsDeclaredByTheFraction() throws IOException {
+        Index index = index(ExampleFraction.class, BaseFraction.class);
+        DocumentationRegistry registry = new DocumentationRegistry();
+
+        new ResourceDocumentationGatherer(new SystemStreamLog(), registry, index, classInfo(index, ExampleFraction.class)).gather();
+
+        String fraction = ExampleFraction.class.getName();
+        assertEquals(DocumentationRegistry.BINDING_TABLE_HEADER
+                             + "thorntail.example.bind-address\t" + fraction + "\tbindAddress\tjava.lang.String\tfalse\n"
+                             + "thorntail.example.host\t" + fraction + "\thost\tjava.lang.String\tfalse\n"
+                             + "thorntail.example.http.port\t" + fraction + "\tport\tint\tfalse\n"
+                             + "thorntail.example.port\t" + fraction + "\tport\tint\tfalse\n"
+                             + "thorntail.example.timeout\t" + fraction + "\ttimeout\t"
+                             + "org.wildfly.swarm.spi.api.Defaultable<java.lang.Integer>\ttrue\n",
+                     registry.asBindingTable());
+
+        // inherited fields are documented, but not bound
+        Properties docs = registry.asProperties();
+        assertEquals("The inherited attribute", docs.getProperty("thorntail.example.inherited"));
+        assertEquals("The port", docs.getProperty("thorntail.example.port"));
+    }
+
+    private static List<String> suffixes(DocumentationCache cache, Class<?> resource) {
+        List<String> suffixes = new ArrayList<>();
+        for (DocumentationCache.Entry entry : ResourceDocumentationGatherer.entries(cache, classInfo(cache.getIndex(), resource))) {
+            suffixes.add(entry.getSuffix());
+        }
+        return suffixes;
+    }
+
+    private static ClassInfo classInfo(IndexView index, Class<?> type) {
+        return index.getClassByName(DotName.createSimple(type.getName()));
+    }
+
+    private static Index index(Class<?>... classes) throws IOException {
+        Indexer indexer = new Indexer();
+        for (Class<?> each : classes) {
+            try (InputStream in = each.getResourceAsStream("/" + each.getName().replace('.', '/') + ".class")) {
+                indexer.index(in);
+            }
+        }
+        return indexer.complete();
+    }
+
+    static class Node {
+
+        @AttributeDocumentation("The name")
+        String name;
+
+        Subresources subresources;
+
+        static class Subresources {
+
+            @ResourceDocumentation("A node below this one")
+            @SingletonResource
+            Node child;
+        }
+    }
+
+    static class Parent {
+
+        @AttributeDocumentation("Parent attribute")
+        String parent;
+
+        Subresources subresources;
+
+        static class Subresources {
+
+            @ResourceDocumentation("The leaf resource")
+            @SingletonResource
+            Leaf leaf;
+        }
+    }
+
+    static class Leaf {
+
+        @AttributeDocumentation("Leaf attribute")
+        String leaf;
+    }
+
+    static class Left {
+
+        @AttributeDocumentation("Left attribute")
+        String left;
+
+        Subresources subresources;
+
+        static class Subresources {
+
+            @ResourceDocumentation("The right resource")
+            @SingletonResource
+            Right right;
+        }
+    }
+
+    static class Right {
+
+        @AttributeDocumentation("Right attribute")
+        String right;
+
+        Subresources subresources;
+
+        static class Subresources {
+
+            @ResourceDocumentation("The left resource")
+            @SingletonResource
+            Left left;
+        }
+    }
+
+    static class BaseFraction {
+
+        @AttributeDocumentation("The inherited attribute")
+        String inherited;
+    }
+
+    static class ExampleFraction extends BaseFraction implements Fraction<ExampleFraction> {
+
+        @Configurable("thorntail.example.host")
+        @AttributeDocumentation("The host")
+        String host;
+
+        @Configurables({@Configurable("thorntail.example.port"), @Configurable("thorntail.example.http.port")})
+        @AttributeDocumentation("The port")
+        int port;
+
+        String bindAddress;
+
+        @Configurable("thorntail.example.timeout")
+        @AttributeDocumentation("The timeout")
+        Defaultable<Integer> timeout = Defaultable.integer(30);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.repository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Node;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BomDependencyFilterTest {
+
+    @Test
+    public void shouldMatchCoordinatePatterns() throws Exception {
+        Node undertow = dependency("io.thorntail", "undertow", null, null);
+        Node undertowTests = dependency("io.thorntail", "undertow", "test-jar", "tests");
+        Node weld = dependency("org.jboss.weld", "weld-core", null, null);
+
+        BomDependencyFilter filter = BomDependencyFilter.of("io.thorntail:under*", "org.jboss.*:weld-?ore:jar");
+        assertTrue(filter.excludes(undertow));
+        assertTrue(filter.excludes(undertowTests));
+        assertTrue(filter.excludes(weld));
+
+        filter = BomDependencyFilter.of("*:undertow:jar");
+        assertTrue(filter.excludes(undertow));
+        assertFalse(filter.excludes(undertowTests));
+
+        filter = BomDependencyFilter.of("io.thorntail:undertow::tests");
+        assertFalse(filter.excludes(undertow));
+        assertTrue(filter.excludes(undertowTests));
+        assertFalse(filter.excludes("<artifactId>undertow</artifactId>"));
+    }
+
+    @Test
+    public void shouldKeepSubstringExpressions() throws Exception {
+        BomDependencyFilter filter = BomDependencyFilter.of("<artifactId>weld-core</artifactId>", "swagger");
+        assertFalse(filter.excludes(dependency("org.jboss.weld", "weld-core", null, null)));
+        assertTrue(filter.excludes("<dependency><artifactId>weld-core</artifactId></dependency>"));
+        assertTrue(filter.excludes("<dependency><artifactId>thorntail-swagger</artifactId></dependency>"));
+        assertFalse(filter.excludes("<dependency><artifactId>undertow</artifactId></dependency>"));
+    }
+
+    private static Node dependency(String groupId, String artifactId, String type, String classifier) throws Exception {
+        String xml = "<dependency>\n"
+                + "  <groupId>" + groupId + "</groupId>\n"
+                + "  <artifactId> " + artifactId + " </artifactId>\n"
+                + (type != null ? "  <type>" + type + "</type>\n" : "")
+                + (classifier != null ? "  <classifier>" + classifier + "</classifier>\n" : "")
+                + "</dependency>";
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))
+                .getDocumentElement();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PomUtilsTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldParseOncePerModification() throws IOException {
+        File bom = write(tmp.newFile("bom.xml"), "thorntail-bom");
+        PomUtils poms = new PomUtils();
+
+        PomUtils.XmlToString first = poms.extract(bom, "/project/artifactId/text()");
+        assertEquals("thorntail-bom", first.asString());
+        assertSame(first.raw(), poms.extract(bom, "/project/artifactId/text()").raw());
+        assertEquals("<groupId>io.thorntail</groupId>", poms.extract(bom, "/project/groupId").asString());
+
+        write(bom, "thorntail-bom-certified");
+        bom.setLastModified(bom.lastModified() + 2000);
+
+        PomUtils.XmlToString second = poms.extract(bom, "/project/artifactId/text()");
+        assertNotSame(first.raw(), second.raw());
+        assertEquals("thorntail-bom-certified", second.asString());
+    }
+
+    @Test
+    public void shouldNotShareParsesBetweenInstances() throws IOException {
+        File bom = write(tmp.newFile("bom.xml"), "thorntail-bom");
+
+        assertNotSame(new PomUtils().extract(bom, "/project/artifactId/text()").raw(),
+                      new PomUtils().extract(bom, "/project/artifactId/text()").raw());
+    }
+
+    private static File write(File file, String artifactId) throws IOException {
+        String pom = "<project>\n"
+                + "  <groupId>io.thorntail</groupId>\n"
+                + "  <artifactId>" + artifactId + "</artifactId>\n"
+                + "</project>\n";
+        Files.write(file.toPath(), pom.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
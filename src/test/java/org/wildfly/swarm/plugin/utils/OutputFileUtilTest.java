@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OutputFileUtilTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldSkipIdenticalContent() throws IOException {
+        Path file = tmp.getRoot().toPath().resolve("META-INF").resolve("beans.xml");
+
+        assertTrue(OutputFileUtil.writeIfChanged(file, "<beans/>"));
+
+        FileTime past = FileTime.fromMillis(1000L);
+        Files.setLastModifiedTime(file, past);
+
+        assertFalse(OutputFileUtil.writeIfChanged(file, "<beans/>"));
+        assertEquals(past, Files.getLastModifiedTime(file));
+
+        assertTrue(OutputFileUtil.writeIfChanged(file, "<beans></beans>"));
+        assertEquals("<beans></beans>", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldStorePropertiesWithoutTimestamp() throws IOException {
+        Properties first = new Properties();
+        first.setProperty("thorntail.undertow.servers", "Undertow servers");
+        first.setProperty("fraction", "undertow");
+        first.setProperty("#odd key", "value");
+
+        Properties second = new Properties();
+        second.setProperty("#odd key", "value");
+        second.setProperty("fraction", "undertow");
+        second.setProperty("thorntail.undertow.servers", "Undertow servers");
+
+        byte[] bytes = OutputFileUtil.toReproducibleBytes(first, "Created by thorntail-fraction-plugin");
+        assertArrayEquals(bytes, OutputFileUtil.toReproducibleBytes(second, "Created by thorntail-fraction-plugin"));
+
+        String stored = new String(bytes, StandardCharsets.ISO_8859_1);
+        assertEquals("#Created by thorntail-fraction-plugin\n"
+                             + "\\#odd\\ key=value\n"
+                             + "fraction=undertow\n"
+                             + "thorntail.undertow.servers=Undertow servers\n", stored);
+
+        Properties loaded = new Properties();
+        loaded.load(new ByteArrayInputStream(bytes));
+        assertEquals(first, loaded);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.swarm.plugin.utils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelTasksTest {
+
+    @Test
+    public void shouldRunEveryTaskAndCollectFailures() throws MojoExecutionException {
+        List<String> items = Arrays.asList("io", "broken-one", "undertow", "broken-two", "jaxrs");
+        Set<String> done = ConcurrentHashMap.newKeySet();
+
+        Map<String, Exception> failures = ParallelTasks.forEach(items, 3, item -> {
+            if (item.startsWith("broken")) {
+                throw new IOException("cannot open " + item);
+            }
+            done.add(item);
+        });
+
+        assertEquals(3, done.size());
+        assertEquals(Arrays.asList("broken-one", "broken-two"), Arrays.asList(failures.keySet().toArray()));
+
+        MojoFailureException aggregated = ParallelTasks.aggregate("Unable to generate", failures);
+        assertEquals(2, aggregated.getSuppressed().length);
+        assertTrue(aggregated.getMessage(), aggregated.getMessage().startsWith("Unable to generate (2 failed):\n  broken-one: java.io.IOException"));
+    }
+}